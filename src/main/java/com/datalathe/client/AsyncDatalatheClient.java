@@ -0,0 +1,283 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.*;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking view of a {@link DatalatheClient}. Each method mirrors its
+ * synchronous counterpart but sends the request with OkHttp's
+ * {@code enqueue} and returns a {@link CompletableFuture} instead of
+ * parking the calling thread.
+ *
+ * <p>Obtain one with {@link DatalatheClient#async()}. It shares the
+ * client's connection pool, default headers, and 429 retry behavior.
+ * Futures complete exceptionally with the same exceptions the synchronous
+ * methods throw ({@link DatalatheApiException},
+ * {@link ChipNotFoundException}, {@link DatalatheQueryException}, or a
+ * plain {@link IOException}). Cancelling a future cancels the
+ * underlying HTTP call.</p>
+ *
+ * <p>Futures complete on OkHttp's dispatcher threads; chain long-running
+ * work with the {@code *Async} stage methods and an executor of your
+ * own rather than blocking in a callback.</p>
+ *
+ * <pre>{@code
+ * AsyncDatalatheClient async = client.async();
+ * List<CompletableFuture<GenerateReportResult>> reports = new ArrayList<>();
+ * for (List<String> queries : panels) {
+ *     reports.add(async.generateReport(chipIds, queries, null, null, true));
+ * }
+ * CompletableFuture.allOf(reports.toArray(CompletableFuture[]::new)).join();
+ * }</pre>
+ */
+public class AsyncDatalatheClient {
+    private final DatalatheClient client;
+
+    AsyncDatalatheClient(DatalatheClient client) {
+        this.client = client;
+    }
+
+    // --- Chip creation ---
+
+    /**
+     * Creates a chip from a pre-built source.
+     *
+     * @see DatalatheClient#createChip(ChipSource)
+     */
+    public CompletableFuture<String> createChip(ChipSource source) {
+        return createChip(source, null, null);
+    }
+
+    /**
+     * Creates a chip from a pre-built source with optional chip ID and tags.
+     *
+     * @see DatalatheClient#createChip(ChipSource, String, Map)
+     */
+    public CompletableFuture<String> createChip(ChipSource source, String chipId, Map<String, String> tags) {
+        CreateChipRequest request;
+        try {
+            request = DatalatheClient.createChipRequest(source, chipId, tags);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return client.postAsync("/lathe/stage/data", request, CreateChipResponse.class)
+                .thenApply(response -> {
+                    try {
+                        return DatalatheClient.stagedChipId(response);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * Stages every source in parallel, at most
+     * {@link CreateChipsOptions#getMaxConcurrency()} at a time. The future
+     * completes once every source has been attempted (and, with
+     * {@code rollbackOnFailure}, rolled back); per-source failures are
+     * reported in the result rather than failing the future.
+     *
+     * @see DatalatheClient#createChips(List, String, CreateChipsOptions)
+     */
+    public CompletableFuture<CreateChipsResult> createChips(List<ChipSource> sources, String chipId,
+            CreateChipsOptions options) {
+        try {
+            DatalatheClient.validateBatch(sources, options);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return new ChipBatch(this, sources, chipId, options).run();
+    }
+
+    /**
+     * Submits an asynchronous chip-creating ingest job.
+     *
+     * @see DatalatheClient#createChipAsync(ChipSource, String, Map)
+     */
+    public CompletableFuture<IngestJobHandle> createChipAsync(ChipSource source, String chipId,
+            Map<String, String> tags) {
+        CreateChipRequest request;
+        try {
+            request = DatalatheClient.createChipRequest(source, chipId, tags);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        request.setAsync(true);
+        return client.postAsync("/lathe/stage/data", request, IngestJobHandle.class);
+    }
+
+    // --- Ingest jobs ---
+
+    /**
+     * @see DatalatheClient#getIngestJob(String)
+     */
+    public CompletableFuture<IngestJob> getIngestJob(String jobId) {
+        String path = "/lathe/jobs/" + URLEncoder.encode(jobId, StandardCharsets.UTF_8);
+        return client.hedgedGetAsync("getIngestJob", path, IngestJob.class);
+    }
+
+    /**
+     * @see DatalatheClient#listIngestJobs(String)
+     */
+    public CompletableFuture<List<IngestJob>> listIngestJobs(String status) {
+        return client.getAsync(DatalatheClient.ingestJobsPath(status), IngestJob[].class)
+                .thenApply(Arrays::asList);
+    }
+
+    /**
+     * @see DatalatheClient#resumeIngestJob(String)
+     */
+    public CompletableFuture<IngestJobHandle> resumeIngestJob(String jobId) {
+        return client.postAsync("/lathe/jobs/" + URLEncoder.encode(jobId, StandardCharsets.UTF_8) + "/resume",
+                new HashMap<>(), IngestJobHandle.class);
+    }
+
+    // --- Chips ---
+
+    /**
+     * @see DatalatheClient#deleteChip(String)
+     */
+    public CompletableFuture<Void> deleteChip(String chipId) {
+        return client.deleteAsync("/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8))
+                .whenComplete((ignored, ex) -> client.invalidateCachedReports(chipId));
+    }
+
+    /**
+     * @see DatalatheClient#getChip(String)
+     */
+    public CompletableFuture<SearchChipsResponse> getChip(String chipId) {
+        String path = "/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8);
+        return client.coalesceAsync("GET " + path,
+                () -> client.hedgedGetAsync("getChip", path, SearchChipsResponse.class));
+    }
+
+    /**
+     * @see DatalatheClient#listChips(Integer, Integer)
+     */
+    public CompletableFuture<SearchChipsResponse> listChips(Integer limit, Integer offset) {
+        return client.getAsync(DatalatheClient.listChipsPath(limit, offset), SearchChipsResponse.class);
+    }
+
+    /**
+     * @see DatalatheClient#searchChips(String, String, String, String)
+     */
+    public CompletableFuture<SearchChipsResponse> searchChips(String tableName, String partitionValue,
+            String tagKey, String tagValue) {
+        return client.searchChipsAsync(
+                DatalatheClient.searchChipsPath(tableName, partitionValue, tagKey, tagValue));
+    }
+
+    /**
+     * @see DatalatheClient#queryChips(List, String)
+     */
+    public CompletableFuture<ChipQueryResult> queryChips(List<String> chipIds, String query) {
+        return client.queryChipsAsync(chipIds, query);
+    }
+
+    // --- Query analysis ---
+
+    /**
+     * @see DatalatheClient#extractTables(String)
+     */
+    public CompletableFuture<List<String>> extractTables(String query) {
+        return extractTables(new ExtractTablesRequest(query, null)).thenApply(ExtractTablesResponse::getTables);
+    }
+
+    /**
+     * @see DatalatheClient#extractTablesWithTransform(String, boolean)
+     */
+    public CompletableFuture<ExtractTablesResponse> extractTablesWithTransform(String query, boolean transform) {
+        return extractTables(new ExtractTablesRequest(query, transform));
+    }
+
+    private CompletableFuture<ExtractTablesResponse> extractTables(ExtractTablesRequest request) {
+        return client.coalesceAsync(DatalatheClient.extractTablesKey(request),
+                () -> client.postAsync("/lathe/query/tables", request, ExtractTablesResponse.class)
+                        .thenApply(response -> {
+                            try {
+                                return DatalatheClient.extractedTables(response);
+                            } catch (IOException e) {
+                                throw new CompletionException(e);
+                            }
+                        }));
+    }
+
+    // --- Reports ---
+
+    /**
+     * @see DatalatheClient#generateReport(List, List)
+     */
+    public CompletableFuture<Map<Integer, GenerateReportResponse.Result>> generateReport(List<String> chipIds,
+            List<String> queries) {
+        return generateReport(chipIds, queries, null, null, true).thenApply(GenerateReportResult::getResults);
+    }
+
+    /**
+     * @see DatalatheClient#generateReport(List, List, Boolean, Boolean, boolean)
+     */
+    public CompletableFuture<GenerateReportResult> generateReport(List<String> chipIds, List<String> queries,
+            Boolean transformQuery, Boolean returnTransformedQuery, boolean raiseOnQueryError) {
+        ReportCache.Key key = client.reportCacheKey(chipIds, queries, transformQuery, returnTransformedQuery);
+        GenerateReportResult cached = client.cachedReport(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long generation = client.reportCacheGeneration();
+        GenerateReportRequest request = DatalatheClient.reportRequest(chipIds, queries, transformQuery,
+                returnTransformedQuery);
+        return client.coalesceAsync(DatalatheClient.reportKey(request), () -> client.timedReportAsync(request))
+                .thenApply(response -> {
+                    try {
+                        GenerateReportResult result = DatalatheClient.reportResult(response.value,
+                                response.timings, raiseOnQueryError);
+                        client.cacheReport(key, result, generation);
+                        return result;
+                    } catch (DatalatheQueryException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * @see DatalatheClient#generateColumnarReport(List, List, Boolean, Boolean, boolean)
+     */
+    public CompletableFuture<ColumnarReportResult> generateColumnarReport(List<String> chipIds,
+            List<String> queries, Boolean transformQuery, Boolean returnTransformedQuery,
+            boolean raiseOnQueryError) {
+        GenerateReportRequest request = DatalatheClient.reportRequest(chipIds, queries, transformQuery,
+                returnTransformedQuery);
+        return client.generateColumnarReportAsync(request)
+                .thenApply(result -> {
+                    try {
+                        return DatalatheClient.columnarReportResult(result, raiseOnQueryError);
+                    } catch (DatalatheQueryException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    // --- AI ---
+
+    /**
+     * @see DatalatheClient#aiQuery(AiQueryRequest)
+     */
+    public CompletableFuture<AiQueryResponse> aiQuery(AiQueryRequest request) {
+        return client.postAsync("/lathe/ai/query", request, AiQueryResponse.class);
+    }
+
+    /**
+     * @see DatalatheClient#aiAgent(AgentRequest)
+     */
+    public CompletableFuture<AgentResponse> aiAgent(AgentRequest request) {
+        return client.postAsync("/lathe/ai/agent", request, AgentResponse.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.datalathe.client;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Where one HTTP call's time went, as seen by OkHttp. Phases that didn't
+ * happen are zero: a pooled connection has no DNS, connect, or TLS time.
+ * When a 429 was retried, the phases describe the last attempt and
+ * {@code total} covers the last call.
+ */
+@Value
+public class CallTimings {
+    Duration dns;
+    /** TCP connect, excluding TLS. */
+    Duration connect;
+    Duration tls;
+    /** Sending request headers and body. */
+    Duration requestWrite;
+    /** From the end of the request to the first response byte; includes engine time. */
+    Duration timeToFirstByte;
+    /** From the first response byte to the end of the body. */
+    Duration download;
+    Duration total;
+    boolean connectionReused;
+
+    /**
+     * Receives the timings of every engine call; install one with
+     * {@code DatalatheClient.Builder.callTimings}. Called on the thread
+     * that finished the call, so keep it quick; exceptions are logged and
+     * ignored.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onCall(String method, String route, CallTimings timings);
+    }
+}
@@ -0,0 +1,129 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.ChipSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One batch {@code createChips} run: keeps up to {@code maxConcurrency}
+ * stage requests in flight, submitting the next source as each completes,
+ * then rolls back if asked to.
+ */
+final class ChipBatch {
+    private static final Logger log = LogManager.getLogger(ChipBatch.class);
+
+    private final AsyncDatalatheClient async;
+    private final List<ChipSource> sources;
+    private final String sharedChipId;
+    private final CreateChipsOptions options;
+
+    private final String[] chipIds;
+    private final Throwable[] errors;
+    private final boolean[] rolledBack;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger pending;
+    private final CompletableFuture<Void> staged = new CompletableFuture<>();
+    private volatile boolean failed;
+
+    ChipBatch(AsyncDatalatheClient async, List<ChipSource> sources, String sharedChipId,
+              CreateChipsOptions options) {
+        this.async = async;
+        this.sources = List.copyOf(sources);
+        this.sharedChipId = sharedChipId;
+        this.options = options;
+        this.chipIds = new String[sources.size()];
+        this.errors = new Throwable[sources.size()];
+        this.rolledBack = new boolean[sources.size()];
+        this.pending = new AtomicInteger(sources.size());
+    }
+
+    CompletableFuture<CreateChipsResult> run() {
+        if (sources.isEmpty()) {
+            return CompletableFuture.completedFuture(new CreateChipsResult(List.of()));
+        }
+        int lanes = Math.min(options.getMaxConcurrency(), sources.size());
+        for (int i = 0; i < lanes; i++) {
+            submitNext();
+        }
+        return staged
+                .thenCompose(ignored -> failed && options.isRollbackOnFailure()
+                        ? rollback() : CompletableFuture.completedFuture(null))
+                .thenApply(ignored -> result());
+    }
+
+    private void submitNext() {
+        int i;
+        while ((i = next.getAndIncrement()) < sources.size()) {
+            if (!(failed && options.isRollbackOnFailure())) {
+                submit(i);
+                return;
+            }
+            errors[i] = new CancellationException("Not submitted: an earlier source in the batch failed");
+            completeOne();
+        }
+    }
+
+    private void submit(int i) {
+        CompletableFuture<String> created;
+        try {
+            created = async.createChip(sources.get(i), sharedChipId, options.getTags());
+        } catch (RuntimeException e) {
+            created = CompletableFuture.failedFuture(e);
+        }
+        created.whenComplete((id, ex) -> {
+            if (ex != null) {
+                errors[i] = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                failed = true;
+            } else {
+                chipIds[i] = id;
+            }
+            completeOne();
+            submitNext();
+        });
+    }
+
+    private void completeOne() {
+        if (pending.decrementAndGet() == 0) {
+            staged.complete(null);
+        }
+    }
+
+    /** Deletes every chip the batch created, except a caller-supplied shared chip. */
+    private CompletableFuture<Void> rollback() {
+        if (sharedChipId != null) {
+            log.warn("Batch createChips failed; not rolling back caller-supplied chip {}", sharedChipId);
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<?>> deletes = new ArrayList<>();
+        for (int i = 0; i < chipIds.length; i++) {
+            if (chipIds[i] == null) {
+                continue;
+            }
+            int index = i;
+            deletes.add(async.deleteChip(chipIds[i]).handle((ignored, ex) -> {
+                if (ex != null) {
+                    log.warn("Rollback of chip {} failed; it is left orphaned", chipIds[index], ex);
+                } else {
+                    rolledBack[index] = true;
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(deletes.toArray(CompletableFuture[]::new));
+    }
+
+    private CreateChipsResult result() {
+        List<CreateChipsResult.Item> items = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            items.add(new CreateChipsResult.Item(i, sources.get(i), chipIds[i], errors[i], rolledBack[i]));
+        }
+        return new CreateChipsResult(items);
+    }
+}
@@ -0,0 +1,195 @@
+package com.datalathe.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Applies {@link CircuitBreakerConfig}. Installed above the retry
+ * interceptor so an open circuit fails a call before any retry waits;
+ * async retries re-enter it and are judged per attempt.
+ *
+ * <p>Each call remembers the generation of the circuit it was admitted
+ * under, so a slow call finishing after a state change can't skew the new
+ * state's bookkeeping.</p>
+ */
+final class CircuitBreaker implements Interceptor {
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private final CircuitBreakerConfig config;
+    private final Map<EndpointClass, Circuit> circuits = new EnumMap<>(EndpointClass.class);
+    LongSupplier clock = System::currentTimeMillis;
+
+    CircuitBreaker(CircuitBreakerConfig config) {
+        this.config = config;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            circuits.put(endpointClass, new Circuit(endpointClass));
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Circuit circuit = circuits.get(EndpointClass.of(chain.request().url().encodedPath()));
+        long generation = circuit.acquire();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (ConcurrencyLimiter.Rejected e) {
+            circuit.abandon(generation);
+            throw e;
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                circuit.abandon(generation);
+            } else {
+                circuit.record(generation, false);
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            circuit.abandon(generation);
+            throw e;
+        }
+        circuit.record(generation, response.code() < 500);
+        return response;
+    }
+
+    CircuitBreakerStats stats(EndpointClass endpointClass) {
+        return circuits.get(endpointClass).stats();
+    }
+
+    private void notify(EndpointClass endpointClass, CircuitState from, CircuitState to) {
+        logger.info("Circuit for {} endpoints went from {} to {}", endpointClass, from, to);
+        CircuitBreakerConfig.Listener listener = config.getListener();
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onStateChange(endpointClass, from, to);
+        } catch (RuntimeException e) {
+            logger.warn("Circuit breaker listener failed", e);
+        }
+    }
+
+    private final class Circuit {
+        private final EndpointClass endpointClass;
+        private final boolean[] failedCalls;
+        private final int halfOpenProbes;
+
+        private CircuitState state = CircuitState.CLOSED;
+        private long generation;
+        private long openedAt;
+        private int buffered;
+        private int next;
+        private int failures;
+        private int probesInFlight;
+        private int probeSuccesses;
+        private long rejected;
+        private long opened;
+
+        Circuit(EndpointClass endpointClass) {
+            this.endpointClass = endpointClass;
+            this.failedCalls = new boolean[Math.max(1, config.getWindowSize())];
+            this.halfOpenProbes = Math.max(1, config.getHalfOpenProbes());
+        }
+
+        /** Admits a call and returns its generation, or throws if the circuit is open. */
+        long acquire() throws CircuitOpenException {
+            boolean probing = false;
+            long admitted;
+            synchronized (this) {
+                if (state == CircuitState.OPEN) {
+                    long remaining = openedAt + config.getOpenMillis() - clock.getAsLong();
+                    if (remaining > 0) {
+                        rejected++;
+                        throw new CircuitOpenException(endpointClass, remaining);
+                    }
+                    moveTo(CircuitState.HALF_OPEN);
+                    probing = true;
+                }
+                if (state == CircuitState.HALF_OPEN) {
+                    if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+                        rejected++;
+                        throw new CircuitOpenException(endpointClass, 0);
+                    }
+                    probesInFlight++;
+                }
+                admitted = generation;
+            }
+            if (probing) {
+                CircuitBreaker.this.notify(endpointClass, CircuitState.OPEN, CircuitState.HALF_OPEN);
+            }
+            return admitted;
+        }
+
+        void record(long admitted, boolean succeeded) {
+            CircuitState from;
+            CircuitState to;
+            synchronized (this) {
+                if (admitted != generation) {
+                    return;
+                }
+                from = state;
+                if (state == CircuitState.CLOSED) {
+                    if (buffered == failedCalls.length && failedCalls[next]) {
+                        failures--;
+                    }
+                    failedCalls[next] = !succeeded;
+                    next = (next + 1) % failedCalls.length;
+                    buffered = Math.min(buffered + 1, failedCalls.length);
+                    if (!succeeded) {
+                        failures++;
+                    }
+                    if (buffered >= config.getMinimumCalls()
+                            && (double) failures / buffered >= config.getFailureRateThreshold()) {
+                        moveTo(CircuitState.OPEN);
+                    }
+                } else if (state == CircuitState.HALF_OPEN) {
+                    probesInFlight--;
+                    if (!succeeded) {
+                        moveTo(CircuitState.OPEN);
+                    } else if (++probeSuccesses >= halfOpenProbes) {
+                        moveTo(CircuitState.CLOSED);
+                    }
+                }
+                to = state;
+            }
+            if (from != to) {
+                CircuitBreaker.this.notify(endpointClass, from, to);
+            }
+        }
+
+        /** Releases a probe slot for a call whose outcome says nothing about the engine. */
+        synchronized void abandon(long admitted) {
+            if (admitted == generation && state == CircuitState.HALF_OPEN) {
+                probesInFlight--;
+            }
+        }
+
+        private void moveTo(CircuitState to) {
+            state = to;
+            generation++;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+            if (to == CircuitState.OPEN) {
+                openedAt = clock.getAsLong();
+                opened++;
+            } else if (to == CircuitState.CLOSED) {
+                buffered = 0;
+                next = 0;
+                failures = 0;
+                Arrays.fill(failedCalls, false);
+            }
+        }
+
+        synchronized CircuitBreakerStats stats() {
+            double failureRate = buffered == 0 ? 0.0 : (double) failures / buffered;
+            return new CircuitBreakerStats(endpointClass, state, failureRate, buffered, rejected, opened);
+        }
+    }
+}
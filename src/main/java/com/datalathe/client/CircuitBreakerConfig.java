@@ -0,0 +1,53 @@
+package com.datalathe.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Controls the optional circuit breaker, kept separately for each
+ * {@link EndpointClass}. While closed it records the outcome of the last
+ * {@code windowSize} calls; once at least {@code minimumCalls} are recorded
+ * and the share that failed reaches {@code failureRateThreshold}, it opens
+ * and every call fails immediately with {@link CircuitOpenException}.
+ *
+ * <p>After {@code openMillis} it goes half-open and lets
+ * {@code halfOpenProbes} calls through: if all succeed it closes, and any
+ * failure opens it again. Connection failures, timeouts, and 5xx responses
+ * count as failures; 429s don't, since the engine is answering and the
+ * retry logic handles them.</p>
+ */
+@Value
+@Builder
+public class CircuitBreakerConfig {
+    public static final CircuitBreakerConfig DISABLED = CircuitBreakerConfig.builder().enabled(false).build();
+
+    @Builder.Default
+    boolean enabled = true;
+
+    @Builder.Default
+    int windowSize = 20;
+
+    @Builder.Default
+    int minimumCalls = 10;
+
+    @Builder.Default
+    double failureRateThreshold = 0.5;
+
+    @Builder.Default
+    long openMillis = 30_000;
+
+    @Builder.Default
+    int halfOpenProbes = 1;
+
+    /** Notified on every state change; may be null. */
+    Listener listener;
+
+    /**
+     * Receives state changes. Called on the thread whose call caused the
+     * change, so keep it quick; exceptions are logged and ignored.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChange(EndpointClass endpointClass, CircuitState from, CircuitState to);
+    }
+}
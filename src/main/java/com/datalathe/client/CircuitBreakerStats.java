@@ -0,0 +1,18 @@
+package com.datalathe.client;
+
+import lombok.Value;
+
+/**
+ * Point-in-time state of one endpoint class's circuit breaker. Counters
+ * are cumulative since the client was created.
+ */
+@Value
+public class CircuitBreakerStats {
+    EndpointClass endpointClass;
+    CircuitState state;
+    /** Failed share of the calls in the current window, or 0 when it is empty. */
+    double failureRate;
+    int bufferedCalls;
+    long rejectedCount;
+    long openedCount;
+}
@@ -0,0 +1,29 @@
+package com.datalathe.client;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker for its
+ * endpoint class is open. Nothing reached the engine, so the call is safe
+ * to retry once {@link #getRetryAfterMillis()} has passed.
+ */
+public class CircuitOpenException extends IOException {
+    private final EndpointClass endpointClass;
+    private final long retryAfterMillis;
+
+    public CircuitOpenException(EndpointClass endpointClass, long retryAfterMillis) {
+        super("Circuit open for " + endpointClass.name().toLowerCase()
+                + " endpoints; failing fast for another " + retryAfterMillis + "ms");
+        this.endpointClass = endpointClass;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    /** Time until the breaker lets a probe call through; 0 when a probe is already in flight. */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
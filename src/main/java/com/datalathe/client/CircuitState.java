@@ -0,0 +1,11 @@
+package com.datalathe.client;
+
+/** State of one endpoint class's circuit breaker. */
+public enum CircuitState {
+    /** Calls flow normally and their outcomes are recorded. */
+    CLOSED,
+    /** Calls fail immediately with {@link CircuitOpenException}. */
+    OPEN,
+    /** A few probe calls are let through to test whether the engine recovered. */
+    HALF_OPEN
+}
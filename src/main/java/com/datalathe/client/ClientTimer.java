@@ -0,0 +1,30 @@
+package com.datalathe.client;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One daemon thread shared by every client for short delayed tasks such as
+ * async retries and hedges, started on first use. Tasks must only hand
+ * work off (e.g. enqueue a call), never block.
+ */
+final class ClientTimer {
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "datalathe-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Queue timeouts are usually cancelled long before they fire
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private ClientTimer() {
+    }
+
+    static ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return TIMER.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,19 @@
+package com.datalathe.client;
+
+import com.datalathe.client.results.ColumnarResult;
+import com.datalathe.client.types.GenerateReportResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Columnar counterpart of {@link GenerateReportResult}, returned by
+ * {@code generateColumnarReport}.
+ */
+@Data
+@AllArgsConstructor
+public class ColumnarReportResult {
+    private Map<Integer, ColumnarResult> results;
+    private GenerateReportResponse.ReportTiming timing;
+}
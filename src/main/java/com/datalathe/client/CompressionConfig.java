@@ -0,0 +1,31 @@
+package com.datalathe.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Controls HTTP body compression. Responses are gzip-negotiated by default
+ * and decoded as they stream, NDJSON included. Request bodies are sent
+ * as-is unless {@code gzipRequests} is enabled, which needs an engine that
+ * accepts {@code Content-Encoding: gzip}.
+ */
+@Value
+@Builder
+public class CompressionConfig {
+    public static final CompressionConfig DEFAULT = CompressionConfig.builder().build();
+
+    /** Gzip request bodies of at least {@code minRequestBytes}. */
+    @Builder.Default
+    boolean gzipRequests = false;
+
+    /** Smaller bodies aren't worth the CPU and header overhead. */
+    @Builder.Default
+    long minRequestBytes = 1024;
+
+    /**
+     * Ask for gzip-encoded responses. Turn off on fast local links where
+     * decoding costs more than the bandwidth saved.
+     */
+    @Builder.Default
+    boolean compressedResponses = true;
+}
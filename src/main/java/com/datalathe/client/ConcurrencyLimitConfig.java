@@ -0,0 +1,53 @@
+package com.datalathe.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Controls the optional adaptive concurrency limiter, which caps how many
+ * requests this client has in flight to the engine and queues the rest.
+ * Heavy endpoints ({@code /lathe/report}, {@code /lathe/stage/data}) and
+ * everything else get separate limits, so a backlog of reports never holds
+ * up chip lookups.
+ *
+ * <p>Each limit adapts AIMD-style: a response that arrives in normal time
+ * while the limit is in use raises it by {@code 1/limit}, roughly one slot
+ * per round trip; a 429, a 5xx, an I/O failure, or a smoothed latency above
+ * {@code latencyTolerance} times its long-run average multiplies it by
+ * {@code backoffRatio}. Calls that find no free slot wait up to
+ * {@code maxQueueWaitMillis} and then fail with an {@code IOException}.</p>
+ */
+@Value
+@Builder
+public class ConcurrencyLimitConfig {
+    public static final ConcurrencyLimitConfig DISABLED = ConcurrencyLimitConfig.builder().enabled(false).build();
+
+    @Builder.Default
+    boolean enabled = true;
+
+    @Builder.Default
+    int heavyInitialLimit = 4;
+
+    @Builder.Default
+    int heavyMaxLimit = 32;
+
+    @Builder.Default
+    int lightInitialLimit = 20;
+
+    @Builder.Default
+    int lightMaxLimit = 200;
+
+    /** Neither limit drops below this, however overloaded the engine looks. */
+    @Builder.Default
+    int minLimit = 1;
+
+    @Builder.Default
+    double backoffRatio = 0.9;
+
+    /** Set to 0 to adapt on errors only, e.g. when report sizes vary widely. */
+    @Builder.Default
+    double latencyTolerance = 2.0;
+
+    @Builder.Default
+    long maxQueueWaitMillis = 60_000;
+}
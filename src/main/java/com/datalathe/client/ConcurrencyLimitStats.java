@@ -0,0 +1,19 @@
+package com.datalathe.client;
+
+import lombok.Value;
+
+/**
+ * Point-in-time state of the concurrency limiter. Limits are the current
+ * adaptive values rounded down; {@code rejectedCount} is cumulative since
+ * the client was created. All zero when the limiter is disabled.
+ */
+@Value
+public class ConcurrencyLimitStats {
+    int heavyLimit;
+    int heavyInFlight;
+    int heavyQueued;
+    int lightLimit;
+    int lightInFlight;
+    int lightQueued;
+    long rejectedCount;
+}
@@ -0,0 +1,310 @@
+package com.datalathe.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Applies {@link ConcurrencyLimitConfig}. Installed below the retry
+ * interceptor, so every attempt takes its own slot and a call sleeping
+ * before a retry holds none. A slot is released once response headers
+ * arrive; streamed bodies are read outside the limit.
+ *
+ * <p>Synchronous calls wait for a slot in the interceptor, on the calling
+ * thread. Async calls take theirs through {@link #acquireAsync} before they
+ * are enqueued, so a queued async call holds no dispatcher thread; the
+ * granted slot rides on the request as a {@link Permit} tag. Both kinds
+ * share one FIFO queue per endpoint class.</p>
+ */
+final class ConcurrencyLimiter implements Interceptor {
+    private final Limit heavy;
+    private final Limit light;
+    private final long maxQueueWaitMillis;
+    private final LongAdder rejected = new LongAdder();
+    LongSupplier clock = () -> System.nanoTime() / 1_000_000;
+
+    ConcurrencyLimiter(ConcurrencyLimitConfig config) {
+        this.heavy = new Limit("heavy", config.getHeavyInitialLimit(), config.getHeavyMaxLimit(), config);
+        this.light = new Limit("light", config.getLightInitialLimit(), config.getLightMaxLimit(), config);
+        this.maxQueueWaitMillis = config.getMaxQueueWaitMillis();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Permit permit = chain.request().tag(Permit.class);
+        if (permit == null || permit.released.get()) {
+            // Sync call, or a later attempt of an async one that already spent its slot
+            permit = limitFor(chain.request()).acquire();
+        }
+        long start = clock.getAsLong();
+        boolean failed = true;
+        try {
+            Response response = chain.proceed(chain.request());
+            failed = response.code() == 429 || response.code() >= 500;
+            return response;
+        } finally {
+            if (chain.call().isCanceled()) {
+                permit.releaseUnused();
+            } else {
+                permit.release(clock.getAsLong() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * Takes a slot for an async call without blocking. The future completes
+     * with the request tagged with its {@link Permit}, or fails with
+     * {@link Rejected} after {@code maxQueueWaitMillis}; cancelling it
+     * gives up the place in the queue.
+     */
+    CompletableFuture<Request> acquireAsync(Request request) {
+        CompletableFuture<Permit> waiter = limitFor(request).acquireAsync();
+        CompletableFuture<Request> slot = new CompletableFuture<>();
+        slot.whenComplete((value, ex) -> {
+            if (ex != null) {
+                waiter.cancel(false);
+            }
+        });
+        waiter.whenComplete((permit, ex) -> {
+            if (ex != null) {
+                slot.completeExceptionally(ex);
+            } else if (!slot.complete(request.newBuilder().tag(Permit.class, permit).build())) {
+                permit.releaseUnused();
+            }
+        });
+        return slot;
+    }
+
+    /**
+     * Returns the slot held by {@code request} if the call never reached the
+     * interceptor, e.g. because it was cancelled while queued in OkHttp.
+     * A no-op once the interceptor has released it.
+     */
+    static void releaseUnused(Request request) {
+        Permit permit = request.tag(Permit.class);
+        if (permit != null) {
+            permit.releaseUnused();
+        }
+    }
+
+    private Limit limitFor(Request request) {
+        return EndpointClass.of(request.url().encodedPath()) == EndpointClass.HEAVY ? heavy : light;
+    }
+
+    ConcurrencyLimitStats stats() {
+        int[] h = heavy.snapshot();
+        int[] l = light.snapshot();
+        return new ConcurrencyLimitStats(h[0], h[1], h[2], l[0], l[1], l[2], rejected.sum());
+    }
+
+    /** A call that gave up waiting for a slot; it never reached the engine. */
+    static final class Rejected extends IOException {
+        Rejected(String message) {
+            super(message);
+        }
+    }
+
+    /** One granted slot; released exactly once. */
+    static final class Permit {
+        private final Limit limit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Limit limit) {
+            this.limit = limit;
+        }
+
+        void release(long latencyMillis, boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limit.release(latencyMillis, failed);
+            }
+        }
+
+        /** Releases without feeding the limit: the call told us nothing about the engine. */
+        void releaseUnused() {
+            if (released.compareAndSet(false, true)) {
+                limit.releaseUnused();
+            }
+        }
+    }
+
+    /**
+     * One AIMD limit. Latency is tracked as a fast and a slow moving
+     * average; the fast one running well above the slow one means requests
+     * are queueing inside the engine.
+     */
+    private final class Limit {
+        private static final double SHORT_ALPHA = 0.3;
+        private static final double LONG_ALPHA = 0.02;
+        // Below this, latency swings are noise rather than engine queueing.
+        private static final double LATENCY_FLOOR_MILLIS = 10;
+
+        private final String name;
+        private final double maxLimit;
+        private final double minLimit;
+        private final double backoffRatio;
+        private final double latencyTolerance;
+
+        private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+        private double limit;
+        private int inFlight;
+        private double shortLatency = Double.NaN;
+        private double longLatency = Double.NaN;
+
+        Limit(String name, int initialLimit, int maxLimit, ConcurrencyLimitConfig config) {
+            this.name = name;
+            this.minLimit = Math.max(1, config.getMinLimit());
+            this.maxLimit = Math.max(this.minLimit, maxLimit);
+            this.backoffRatio = config.getBackoffRatio();
+            this.latencyTolerance = config.getLatencyTolerance();
+            this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        }
+
+        /** Waits on the calling thread for a slot. */
+        Permit acquire() throws IOException {
+            CompletableFuture<Permit> waiter = tryAcquire();
+            if (waiter.isDone()) {
+                return waiter.join();
+            }
+            try {
+                return waiter.get(maxQueueWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                Rejected rejection = rejection();
+                if (waiter.completeExceptionally(rejection)) {
+                    rejected.increment();
+                    throw rejection;
+                }
+                return waiter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!waiter.cancel(false)) {
+                    waiter.join().releaseUnused();
+                }
+                throw new InterruptedIOException("Interrupted while queued for a " + name + " request slot");
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+
+        /** Queues for a slot with a timeout that fails the waiter; never blocks. */
+        CompletableFuture<Permit> acquireAsync() {
+            CompletableFuture<Permit> waiter = tryAcquire();
+            if (!waiter.isDone()) {
+                ScheduledFuture<?> timeout = ClientTimer.schedule(() -> {
+                    if (waiter.completeExceptionally(rejection())) {
+                        rejected.increment();
+                    }
+                }, maxQueueWaitMillis);
+                waiter.whenComplete((permit, ex) -> timeout.cancel(false));
+            }
+            return waiter;
+        }
+
+        /** A granted waiter when a slot is free and nobody is ahead; otherwise a queued one. */
+        private CompletableFuture<Permit> tryAcquire() {
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            synchronized (this) {
+                if (waiters.isEmpty() && inFlight < (int) limit) {
+                    inFlight++;
+                    waiter.complete(new Permit(this));
+                    return waiter;
+                }
+                waiters.add(waiter);
+            }
+            waiter.whenComplete((permit, ex) -> {
+                if (ex != null) {
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                }
+            });
+            return waiter;
+        }
+
+        private Rejected rejection() {
+            int current;
+            synchronized (this) {
+                current = (int) limit;
+            }
+            return new Rejected("No " + name + " request slot free after "
+                    + maxQueueWaitMillis + "ms (limit " + current + ")");
+        }
+
+        void release(long latencyMillis, boolean failed) {
+            synchronized (this) {
+                boolean inUse = inFlight * 2 >= limit;
+                inFlight--;
+                if (failed || slow(latencyMillis)) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                } else if (inUse) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+            grant();
+        }
+
+        void releaseUnused() {
+            synchronized (this) {
+                inFlight--;
+            }
+            grant();
+        }
+
+        /**
+         * Hands free slots to queued waiters in order. Waiters are completed
+         * outside the lock, since an async waiter's completion enqueues its
+         * call right there.
+         */
+        private void grant() {
+            while (true) {
+                CompletableFuture<Permit> next = null;
+                synchronized (this) {
+                    while (next == null && !waiters.isEmpty() && inFlight < (int) limit) {
+                        CompletableFuture<Permit> waiter = waiters.poll();
+                        if (!waiter.isDone()) {
+                            inFlight++;
+                            next = waiter;
+                        }
+                    }
+                }
+                if (next == null) {
+                    return;
+                }
+                if (!next.complete(new Permit(this))) {
+                    // Timed out or cancelled in the meantime
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                }
+            }
+        }
+
+        private boolean slow(long latencyMillis) {
+            if (Double.isNaN(longLatency)) {
+                shortLatency = latencyMillis;
+                longLatency = latencyMillis;
+                return false;
+            }
+            shortLatency += SHORT_ALPHA * (latencyMillis - shortLatency);
+            boolean slow = latencyTolerance > 0
+                    && shortLatency > latencyTolerance * Math.max(longLatency, LATENCY_FLOOR_MILLIS);
+            longLatency += LONG_ALPHA * (latencyMillis - longLatency);
+            return slow;
+        }
+
+        synchronized int[] snapshot() {
+            return new int[] { (int) limit, inFlight, waiters.size() };
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.datalathe.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Options for a batch {@code createChips} call.
+ *
+ * <p>Up to {@code maxConcurrency} stage requests are in flight at once.
+ * With {@code rollbackOnFailure}, the first failure stops further
+ * submissions and every chip the batch created is deleted again, so a
+ * failed batch leaves no orphans. A caller-supplied shared chip ID is
+ * never rolled back, since the chip may predate the batch.</p>
+ */
+@Value
+@Builder
+public class CreateChipsOptions {
+    public static final CreateChipsOptions DEFAULT = CreateChipsOptions.builder().build();
+
+    @Builder.Default
+    int maxConcurrency = 8;
+
+    @Builder.Default
+    boolean rollbackOnFailure = false;
+
+    /** Tags applied atomically to every chip the batch creates; may be null. */
+    Map<String, String> tags;
+}
@@ -0,0 +1,76 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.ChipSource;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-source outcome of a batch {@code createChips} call, in the order the
+ * sources were given.
+ */
+@Value
+public class CreateChipsResult {
+
+    List<Item> items;
+
+    public CreateChipsResult(List<Item> items) {
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    /** True when every source was staged and nothing was rolled back. */
+    public boolean allSucceeded() {
+        for (Item item : items) {
+            if (!item.succeeded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** IDs of the chips that were created and still exist, in source order. */
+    public List<String> chipIds() {
+        List<String> ids = new ArrayList<>();
+        for (Item item : items) {
+            if (item.succeeded()) {
+                ids.add(item.getChipId());
+            }
+        }
+        return ids;
+    }
+
+    /** Items whose source failed, was skipped, or whose chip was rolled back. */
+    public List<Item> failures() {
+        List<Item> failed = new ArrayList<>();
+        for (Item item : items) {
+            if (!item.succeeded()) {
+                failed.add(item);
+            }
+        }
+        return failed;
+    }
+
+    @Value
+    @AllArgsConstructor
+    public static class Item {
+        int index;
+        ChipSource source;
+        /** The created chip, or null when staging failed or was skipped. */
+        String chipId;
+        /**
+         * Why staging failed; null on success. Sources never submitted
+         * because an earlier one failed under {@code rollbackOnFailure}
+         * carry a {@link java.util.concurrent.CancellationException}.
+         */
+        Throwable error;
+        /** True when the chip was created and then deleted by rollback. */
+        boolean rolledBack;
+
+        public boolean succeeded() {
+            return error == null && !rolledBack;
+        }
+    }
+}
@@ -1,29 +1,58 @@
 package com.datalathe.client;
 
+import com.datalathe.client.metrics.ClientMetrics;
+import com.datalathe.client.results.ColumnarReportReader;
+import com.datalathe.client.results.ColumnarResult;
 import com.datalathe.client.results.DatalatheStreamingResultSet;
 import com.datalathe.client.types.*;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class DatalatheClient {
     private static final Logger logger = LogManager.getLogger(DatalatheClient.class);
     private final String baseUrl;
     private final Map<String, String> defaultHeaders;
     private final OkHttpClient client;
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-    private final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    // Pool, dispatcher, and timeouts only; what sharedWith() hands to other clients
+    private final OkHttpClient transport;
+    private final TransferMeter transferMeter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final RetryInterceptor retryInterceptor;
+    private final CircuitBreaker circuitBreaker;
+    private final Hedger hedger;
+    private final boolean hedgeQueryChips;
+    private final CallTimings.Listener callTimingsListener;
+    private final AsyncDatalatheClient async = new AsyncDatalatheClient(this);
+    private final ReportCache reportCache;
+    private final SingleFlight singleFlight;
+
+    // OkHttp's defaults (64 total, 5 per host) throttle enqueued calls to a
+    // single engine far below what the async API is meant to sustain.
+    private static final int MAX_ASYNC_REQUESTS = 256;
+    private static final int MAX_ASYNC_REQUESTS_PER_HOST = 128;
+    private static final int MAX_IDLE_CONNECTIONS = 32;
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(5);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration READ_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(30);
+    private static final long NON_JSON_PREVIEW_BYTES = 4096;
+    private static final int DEBUG_PREVIEW_BYTES = 2048;
 
     /**
      * Constructs a client without any default headers. Equivalent to
@@ -75,13 +104,29 @@ public class DatalatheClient {
      * @param retryConfig    429 retry behavior; see {@link RetryConfig}
      */
     public DatalatheClient(String baseUrl, Map<String, String> defaultHeaders, RetryConfig retryConfig) {
-        this.baseUrl = baseUrl;
-        this.defaultHeaders = Map.copyOf(defaultHeaders);
-
-        OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(5, TimeUnit.MINUTES)
-                .writeTimeout(30, TimeUnit.SECONDS);
+        this(builder(baseUrl).defaultHeaders(defaultHeaders).retryConfig(retryConfig));
+    }
+
+    private DatalatheClient(Builder options) {
+        this.baseUrl = options.baseUrl;
+        this.defaultHeaders = Map.copyOf(options.defaultHeaders);
+        RetryConfig retryConfig = options.retryConfig;
+        ReportCacheConfig cacheConfig = options.reportCacheConfig;
+        this.reportCache = cacheConfig != null && cacheConfig.isEnabled() ? new ReportCache(cacheConfig) : null;
+        this.singleFlight = options.coalesceReads ? new SingleFlight() : null;
+        HedgingConfig hedgingConfig = options.hedgingConfig;
+        this.hedger = hedgingConfig != null && hedgingConfig.isEnabled() ? new Hedger(hedgingConfig) : null;
+        this.hedgeQueryChips = hedger != null && hedgingConfig.isHedgeQueryChips();
+
+        this.transport = transport(options);
+        OkHttpClient.Builder builder = transport.newBuilder();
+        this.callTimingsListener = options.callTimingsListener;
+        ClientMetrics metrics = options.metrics != null ? options.metrics : ClientMetrics.NOOP;
+        TransferMeter meter = new TransferMeter(options.compressionConfig, metrics);
+        this.transferMeter = meter;
+        okhttp3.EventListener.Factory existing = transport.eventListenerFactory();
+        builder.eventListenerFactory(PhaseRecorder.factory(callTimingsListener,
+                call -> TeeEventListener.of(meter.listener(call), existing.create(call))));
 
         if (!this.defaultHeaders.isEmpty()) {
             builder.addInterceptor(chain -> {
@@ -93,13 +138,340 @@ public class DatalatheClient {
             });
         }
 
-        if (retryConfig != null && retryConfig.isEnabled() && retryConfig.getMaxRetries() > 0) {
-            builder.addInterceptor(new RetryInterceptor(retryConfig));
+        builder.addInterceptor(transferMeter.application());
+
+        CircuitBreakerConfig breakerConfig = options.circuitBreakerConfig;
+        this.circuitBreaker = breakerConfig != null && breakerConfig.isEnabled()
+                ? new CircuitBreaker(breakerConfig) : null;
+        if (circuitBreaker != null) {
+            builder.addInterceptor(circuitBreaker);
+        }
+
+        this.retryInterceptor = retryConfig != null && retryConfig.isEnabled() && retryConfig.getMaxRetries() > 0
+                ? new RetryInterceptor(retryConfig, metrics) : null;
+        if (retryInterceptor != null) {
+            builder.addInterceptor(retryInterceptor);
+        }
+
+        ConcurrencyLimitConfig limitConfig = options.concurrencyLimitConfig;
+        this.concurrencyLimiter = limitConfig != null && limitConfig.isEnabled()
+                ? new ConcurrencyLimiter(limitConfig) : null;
+        if (concurrencyLimiter != null) {
+            builder.addInterceptor(concurrencyLimiter);
+        }
+
+        if (metrics != ClientMetrics.NOOP) {
+            builder.addInterceptor(new MetricsInterceptor(metrics));
         }
+        builder.addInterceptor(new JfrInterceptor());
 
         this.client = builder.build();
     }
 
+    OkHttpClient httpClient() {
+        return client;
+    }
+
+    /**
+     * Returns the bytes this client has sent and received, decoded and on
+     * the wire, since it was built.
+     */
+    public TransferStats getTransferStats() {
+        return transferMeter.stats();
+    }
+
+    /**
+     * Returns the concurrency limiter's current limits and queue depths;
+     * all zero when the limiter is disabled.
+     */
+    public ConcurrencyLimitStats getConcurrencyLimitStats() {
+        return concurrencyLimiter != null ? concurrencyLimiter.stats() : new ConcurrencyLimitStats(0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Returns the circuit breaker's state and counters for one endpoint
+     * class; always closed with zero counters when the breaker is disabled.
+     */
+    public CircuitBreakerStats getCircuitBreakerStats(EndpointClass endpointClass) {
+        return circuitBreaker != null ? circuitBreaker.stats(endpointClass)
+                : new CircuitBreakerStats(endpointClass, CircuitState.CLOSED, 0.0, 0, 0, 0);
+    }
+
+    /**
+     * Builds the pool, dispatcher, and timeouts. Starting from a shared
+     * client keeps its pool and dispatcher unless the builder overrides
+     * them; options left unset keep the shared client's values.
+     */
+    private static OkHttpClient transport(Builder options) {
+        OkHttpClient.Builder builder;
+        if (options.httpClient != null) {
+            builder = options.httpClient.newBuilder();
+        } else {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(MAX_ASYNC_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(MAX_ASYNC_REQUESTS_PER_HOST);
+            builder = new OkHttpClient.Builder()
+                    .dispatcher(dispatcher)
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS,
+                            KEEP_ALIVE.toMillis(), TimeUnit.MILLISECONDS))
+                    .connectTimeout(CONNECT_TIMEOUT)
+                    .readTimeout(READ_TIMEOUT)
+                    .writeTimeout(WRITE_TIMEOUT);
+        }
+        if (options.maxIdleConnections != null || options.keepAlive != null) {
+            int maxIdle = options.maxIdleConnections != null ? options.maxIdleConnections : MAX_IDLE_CONNECTIONS;
+            Duration keepAlive = options.keepAlive != null ? options.keepAlive : KEEP_ALIVE;
+            builder.connectionPool(new ConnectionPool(maxIdle, keepAlive.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        if (options.maxRequests != null || options.maxRequestsPerHost != null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(options.maxRequests != null ? options.maxRequests : MAX_ASYNC_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(options.maxRequestsPerHost != null
+                    ? options.maxRequestsPerHost : MAX_ASYNC_REQUESTS_PER_HOST);
+            builder.dispatcher(dispatcher);
+        }
+        if (options.connectTimeout != null) {
+            builder.connectTimeout(options.connectTimeout);
+        }
+        if (options.readTimeout != null) {
+            builder.readTimeout(options.readTimeout);
+        }
+        if (options.writeTimeout != null) {
+            builder.writeTimeout(options.writeTimeout);
+        }
+        if (options.callTimeout != null) {
+            builder.callTimeout(options.callTimeout);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts building a client for the given engine URL. Use this when you
+     * need options beyond the constructors' headers and retry settings.
+     *
+     * <pre>{@code
+     * DatalatheClient client = DatalatheClient.builder("http://host:3000")
+     *         .reportCache(ReportCacheConfig.builder().maxBytes(256L << 20).build())
+     *         .build();
+     * }</pre>
+     *
+     * @param baseUrl the datalathe engine base URL
+     * @return a builder with the same defaults as {@link #DatalatheClient(String)}
+     */
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * Options for {@link DatalatheClient}; obtain one with
+     * {@link DatalatheClient#builder(String)}.
+     */
+    public static final class Builder {
+        private final String baseUrl;
+        private Map<String, String> defaultHeaders = Collections.emptyMap();
+        private RetryConfig retryConfig = RetryConfig.DEFAULT;
+        private ReportCacheConfig reportCacheConfig = ReportCacheConfig.DISABLED;
+        private boolean coalesceReads = false;
+        private CompressionConfig compressionConfig = CompressionConfig.DEFAULT;
+        private ConcurrencyLimitConfig concurrencyLimitConfig = ConcurrencyLimitConfig.DISABLED;
+        private CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.DISABLED;
+        private HedgingConfig hedgingConfig = HedgingConfig.DISABLED;
+        private ClientMetrics metrics = ClientMetrics.NOOP;
+        private CallTimings.Listener callTimingsListener;
+        private OkHttpClient httpClient;
+        private Integer maxIdleConnections;
+        private Duration keepAlive;
+        private Integer maxRequests;
+        private Integer maxRequestsPerHost;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration writeTimeout;
+        private Duration callTimeout;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /** Headers applied to every outbound request; see {@link #DatalatheClient(String, Map)}. */
+        public Builder defaultHeaders(Map<String, String> defaultHeaders) {
+            this.defaultHeaders = defaultHeaders;
+            return this;
+        }
+
+        /** 429 retry behavior; defaults to {@link RetryConfig#DEFAULT}. */
+        public Builder retryConfig(RetryConfig retryConfig) {
+            this.retryConfig = retryConfig;
+            return this;
+        }
+
+        /** Client-side {@code generateReport} cache; disabled by default. */
+        public Builder reportCache(ReportCacheConfig reportCacheConfig) {
+            this.reportCacheConfig = reportCacheConfig;
+            return this;
+        }
+
+        /**
+         * When true, concurrent identical {@code generateReport},
+         * {@code getChip}, {@code searchChips} and {@code extractTables}
+         * calls share one HTTP round trip and one decoded response. Callers
+         * then receive the same response objects, so treat them as
+         * read-only. Off by default.
+         */
+        public Builder coalesceReads(boolean coalesceReads) {
+            this.coalesceReads = coalesceReads;
+            return this;
+        }
+
+        /** Request and response body compression; see {@link CompressionConfig}. */
+        public Builder compression(CompressionConfig compressionConfig) {
+            this.compressionConfig = compressionConfig;
+            return this;
+        }
+
+        /**
+         * Adaptive cap on in-flight requests, with excess calls queued
+         * client-side; disabled by default. See {@link ConcurrencyLimitConfig}.
+         */
+        public Builder concurrencyLimit(ConcurrencyLimitConfig concurrencyLimitConfig) {
+            this.concurrencyLimitConfig = concurrencyLimitConfig;
+            return this;
+        }
+
+        /**
+         * Fail fast with {@link CircuitOpenException} while the engine is
+         * failing, instead of waiting out timeouts; disabled by default.
+         * See {@link CircuitBreakerConfig}.
+         */
+        public Builder circuitBreaker(CircuitBreakerConfig circuitBreakerConfig) {
+            this.circuitBreakerConfig = circuitBreakerConfig;
+            return this;
+        }
+
+        /**
+         * Race a second copy of slow idempotent reads against the first;
+         * disabled by default. See {@link HedgingConfig}.
+         */
+        public Builder hedging(HedgingConfig hedgingConfig) {
+            this.hedgingConfig = hedgingConfig;
+            return this;
+        }
+
+        /**
+         * Where to report per-endpoint latency, status, byte, retry, and
+         * in-flight measurements; see {@link ClientMetrics}. Nothing is
+         * measured by default.
+         */
+        public Builder metrics(ClientMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Receives DNS, connect, TLS, request, first-byte, and download
+         * timings for every engine call; see {@link CallTimings}. Report
+         * results carry their call's timings either way. An
+         * {@code EventListener} set on a client passed to {@link #httpClient}
+         * keeps receiving events alongside the timings.
+         */
+        public Builder callTimings(CallTimings.Listener listener) {
+            this.callTimingsListener = listener;
+            return this;
+        }
+
+        /**
+         * Idle connections kept open for reuse; defaults to 32. Size this to
+         * the typical number of concurrent calls so bursts don't reconnect.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /** How long an idle connection stays in the pool; defaults to 5 minutes. */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /** Maximum concurrent async calls across all hosts; defaults to 256. */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /** Maximum concurrent async calls to the engine; defaults to 128. */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /** Defaults to 30 seconds. */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Maximum gap between reads of a response; defaults to 5 minutes,
+         * since a long report only starts answering once it has finished.
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /** Defaults to 30 seconds. */
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Upper bound on a whole call, including retries of 429 responses;
+         * none by default. Streams count as one call until closed.
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * Builds on an existing {@link OkHttpClient}, sharing its connection
+         * pool and dispatcher. Its interceptors and settings are kept;
+         * options set on this builder override them.
+         */
+        public Builder httpClient(OkHttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Shares another client's connection pool, dispatcher, and timeouts,
+         * but not its default headers, retry behavior, or caches. Use this
+         * to run one client per tenant header set over a single pool.
+         */
+        public Builder sharedWith(DatalatheClient other) {
+            this.httpClient = other.transport;
+            return this;
+        }
+
+        public DatalatheClient build() {
+            return new DatalatheClient(this);
+        }
+    }
+
+    /**
+     * Returns the non-blocking view of this client. Calls made through it
+     * share this client's connection pool, default headers, and retry
+     * behavior, and return {@link CompletableFuture}s instead of blocking
+     * the calling thread.
+     *
+     * @return the async client backed by this instance
+     */
+    public AsyncDatalatheClient async() {
+        return async;
+    }
+
     /**
      * Creates a chip from a source request
      *
@@ -221,21 +593,8 @@ public class DatalatheClient {
      * @throws IllegalArgumentException if sourceType is not set on the source
      */
     public String createChip(ChipSource source, String chipId, Map<String, String> tags) throws IOException {
-        if (source.getSourceType() == null) {
-            throw new IllegalArgumentException("sourceType must be set on the Source");
-        }
-        CreateChipRequest request = new CreateChipRequest();
-        request.setSourceType(source.getSourceType());
-        request.setSource(source);
-        request.setChipId(chipId);
-        request.setStorageConfig(source.getStorageConfig());
-        request.setTags(tags);
-        request.setFailIfEmpty(source.getFailIfEmpty());
-        CreateChipResponse response = post("/lathe/stage/data", request, CreateChipResponse.class);
-        if (response.getError() != null) {
-            throw new IOException("Failed to stage data: " + response.getError());
-        }
-        return response.getChipId();
+        CreateChipRequest request = createChipRequest(source, chipId, tags);
+        return stagedChipId(post("/lathe/stage/data", request, CreateChipResponse.class));
     }
 
     /**
@@ -258,9 +617,14 @@ public class DatalatheClient {
      * Each Source must have sourceType set. If storageConfig is set on a Source, it
      * will be used.
      *
+     * <p>Sources are staged one at a time, stopping at the first failure;
+     * chips already created are kept. Use
+     * {@link #createChips(List, String, CreateChipsOptions)} for parallel
+     * staging, rollback, and per-source results.</p>
+     *
      * @param sources List of fully configured sources
      * @param chipId  Optional chip ID to use for all sources
-     * @return List of chip IDs
+     * @return List of chip IDs, in source order
      * @throws IOException              if any API call fails
      * @throws IllegalArgumentException if sourceType is not set on any source
      */
@@ -285,6 +649,50 @@ public class DatalatheClient {
         return chipIds;
     }
 
+    /**
+     * Creates chips from many sources in parallel, at most
+     * {@code options.maxConcurrency} at a time, and reports each source's
+     * outcome instead of stopping at the first failure.
+     *
+     * @param sources List of fully configured sources
+     * @param chipId  Optional chip ID to use for all sources
+     * @param options Concurrency, rollback, and tags; see {@link CreateChipsOptions}
+     * @return Per-source results in source order
+     * @throws IOException              if interrupted while waiting
+     * @throws IllegalArgumentException if sourceType is not set on any source,
+     *                                  or maxConcurrency is below 1
+     */
+    public CreateChipsResult createChips(List<ChipSource> sources, String chipId, CreateChipsOptions options)
+            throws IOException {
+        validateBatch(sources, options);
+        try {
+            return async().createChips(sources, chipId, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while creating chips");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    static void validateBatch(List<ChipSource> sources, CreateChipsOptions options) {
+        if (options.getMaxConcurrency() < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        for (ChipSource source : sources) {
+            if (source.getSourceType() == null) {
+                throw new IllegalArgumentException("sourceType must be set on each Source");
+            }
+        }
+    }
+
     /**
      * Creates a chip from a file source (CSV, Parquet, etc.)
      *
@@ -506,6 +914,17 @@ public class DatalatheClient {
      */
     public IngestJobHandle createChipAsync(ChipSource source, String chipId, Map<String, String> tags)
             throws IOException {
+        CreateChipRequest request = createChipRequest(source, chipId, tags);
+        request.setAsync(true);
+        return post("/lathe/stage/data", request, IngestJobHandle.class);
+    }
+
+    /**
+     * Builds the staging request for a pre-built source.
+     *
+     * @throws IllegalArgumentException if sourceType is not set on the source
+     */
+    static CreateChipRequest createChipRequest(ChipSource source, String chipId, Map<String, String> tags) {
         if (source.getSourceType() == null) {
             throw new IllegalArgumentException("sourceType must be set on the Source");
         }
@@ -516,8 +935,14 @@ public class DatalatheClient {
         request.setStorageConfig(source.getStorageConfig());
         request.setTags(tags);
         request.setFailIfEmpty(source.getFailIfEmpty());
-        request.setAsync(true);
-        return post("/lathe/stage/data", request, IngestJobHandle.class);
+        return request;
+    }
+
+    static String stagedChipId(CreateChipResponse response) throws IOException {
+        if (response.getError() != null) {
+            throw new IOException("Failed to stage data: " + response.getError());
+        }
+        return response.getChipId();
     }
 
     /**
@@ -528,7 +953,8 @@ public class DatalatheClient {
      * @throws IOException if the API call fails
      */
     public IngestJob getIngestJob(String jobId) throws IOException {
-        return get("/lathe/jobs/" + URLEncoder.encode(jobId, StandardCharsets.UTF_8), IngestJob.class);
+        String path = "/lathe/jobs/" + URLEncoder.encode(jobId, StandardCharsets.UTF_8);
+        return hedged("getIngestJob", getRequest(path), jsonHandler("GET", path, IngestJob.class));
     }
 
     /**
@@ -548,11 +974,15 @@ public class DatalatheClient {
      * @throws IOException if the API call fails
      */
     public List<IngestJob> listIngestJobs(String status) throws IOException {
+        return Arrays.asList(get(ingestJobsPath(status), IngestJob[].class));
+    }
+
+    static String ingestJobsPath(String status) {
         String path = "/lathe/jobs";
         if (status != null) {
             path += "?status=" + URLEncoder.encode(status, StandardCharsets.UTF_8);
         }
-        return Arrays.asList(get(path, IngestJob[].class));
+        return path;
     }
 
     /**
@@ -606,7 +1036,11 @@ public class DatalatheClient {
      * @throws IOException if the API call fails
      */
     public void deleteChip(String chipId) throws IOException {
-        httpDelete("/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8));
+        try {
+            httpDelete("/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8));
+        } finally {
+            invalidateCachedReports(chipId);
+        }
     }
 
     // --- Connection management ---
@@ -684,6 +1118,10 @@ public class DatalatheClient {
      * @throws IOException if the API call fails
      */
     public SearchChipsResponse listChips(Integer limit, Integer offset) throws IOException {
+        return get(listChipsPath(limit, offset), SearchChipsResponse.class);
+    }
+
+    static String listChipsPath(Integer limit, Integer offset) {
         List<String> params = new ArrayList<>();
         if (limit != null) {
             params.add("limit=" + limit);
@@ -691,8 +1129,7 @@ public class DatalatheClient {
         if (offset != null) {
             params.add("offset=" + offset);
         }
-        String path = "/lathe/chips" + (params.isEmpty() ? "" : "?" + String.join("&", params));
-        return get(path, SearchChipsResponse.class);
+        return "/lathe/chips" + (params.isEmpty() ? "" : "?" + String.join("&", params));
     }
 
     /**
@@ -704,8 +1141,9 @@ public class DatalatheClient {
      * @throws IOException for other API failures.
      */
     public SearchChipsResponse getChip(String chipId) throws IOException {
-        return get("/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8),
-                SearchChipsResponse.class);
+        String path = "/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8);
+        return coalesce("GET " + path,
+                () -> hedged("getChip", getRequest(path), jsonHandler("GET", path, SearchChipsResponse.class)));
     }
 
     /**
@@ -757,9 +1195,21 @@ public class DatalatheClient {
      */
     public SearchChipsResponse searchChips(String tableName, String partitionValue,
             String tagKey, String tagValue) throws IOException {
+        String path = searchChipsPath(tableName, partitionValue, tagKey, tagValue);
+        Request httpRequest = new Request.Builder()
+                .url(baseUrl + path)
+                .get()
+                .build();
+
+        logger.debug("Searching chips: {}", httpRequest.url());
+
+        return coalesce("GET " + path, () -> hedged("searchChips", httpRequest, searchChipsHandler(path)));
+    }
+
+    static String searchChipsPath(String tableName, String partitionValue, String tagKey, String tagValue) {
         String tag = (tagKey != null && tagValue != null) ? tagKey + ":" + tagValue : null;
 
-        StringBuilder url = new StringBuilder(baseUrl).append("/lathe/chips/search");
+        StringBuilder path = new StringBuilder("/lathe/chips/search");
         List<String> params = new ArrayList<>();
         if (tableName != null) {
             params.add("table_name=" + URLEncoder.encode(tableName, StandardCharsets.UTF_8));
@@ -771,23 +1221,18 @@ public class DatalatheClient {
             params.add("tag=" + URLEncoder.encode(tag, StandardCharsets.UTF_8));
         }
         if (!params.isEmpty()) {
-            url.append("?").append(String.join("&", params));
+            path.append("?").append(String.join("&", params));
         }
+        return path.toString();
+    }
 
-        Request httpRequest = new Request.Builder()
-                .url(url.toString())
-                .get()
-                .build();
-
-        logger.debug("Searching chips: {}", httpRequest.url());
-
-        try (Response response = client.newCall(httpRequest).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
+    private ResponseHandler<SearchChipsResponse> searchChipsHandler(String path) {
+        return response -> {
             if (!response.isSuccessful()) {
-                throw new IOException("Failed to search chips: " + response.code() + " " + responseBody);
+                throw new IOException("Failed to search chips: " + response.code() + " " + bodyString(response));
             }
-            return parseBody("GET", url.toString(), response.code(), responseBody, SearchChipsResponse.class);
-        }
+            return parseBody("GET", path, response, SearchChipsResponse.class);
+        };
     }
 
     /**
@@ -805,7 +1250,26 @@ public class DatalatheClient {
      * @throws IOException           if the API call fails
      */
     public ChipQueryResult queryChips(List<String> chipIds, String query) throws IOException {
-        return post("/lathe/chips/query", new ChipQueryRequest(chipIds, query), ChipQueryResult.class);
+        ChipQueryRequest request = new ChipQueryRequest(chipIds, query);
+        if (!hedgeQueryChips) {
+            return post("/lathe/chips/query", request, ChipQueryResult.class);
+        }
+        return hedged("queryChips", postRequest("/lathe/chips/query", request),
+                jsonHandler("POST", "/lathe/chips/query", ChipQueryResult.class));
+    }
+
+    CompletableFuture<ChipQueryResult> queryChipsAsync(List<String> chipIds, String query) {
+        ChipQueryRequest request = new ChipQueryRequest(chipIds, query);
+        if (!hedgeQueryChips) {
+            return postAsync("/lathe/chips/query", request, ChipQueryResult.class);
+        }
+        Request httpRequest;
+        try {
+            httpRequest = postRequest("/lathe/chips/query", request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return hedgedAsync("queryChips", httpRequest, jsonHandler("POST", "/lathe/chips/query", ChipQueryResult.class));
     }
 
     /**
@@ -821,7 +1285,7 @@ public class DatalatheClient {
 
         Request httpRequest = new Request.Builder()
                 .url(baseUrl + "/lathe/chips/" + URLEncoder.encode(chipId, StandardCharsets.UTF_8) + "/tags")
-                .post(RequestBody.create(objectMapper.writeValueAsString(body), JSON))
+                .post(jsonBody(body))
                 .build();
 
         logger.debug("Adding tags to chip: {}", chipId);
@@ -853,12 +1317,7 @@ public class DatalatheClient {
      * @throws IOException if the API call fails
      */
     public List<String> extractTables(String query) throws IOException {
-        ExtractTablesRequest request = new ExtractTablesRequest(query, null);
-        ExtractTablesResponse response = post("/lathe/query/tables", request, ExtractTablesResponse.class);
-        if (response.getError() != null) {
-            throw new IOException("Failed to extract tables: " + response.getError());
-        }
-        return response.getTables();
+        return extractTables(new ExtractTablesRequest(query, null)).getTables();
     }
 
     /**
@@ -874,8 +1333,19 @@ public class DatalatheClient {
      */
     public ExtractTablesResponse extractTablesWithTransform(String query, boolean transform)
             throws IOException {
-        ExtractTablesRequest request = new ExtractTablesRequest(query, transform);
-        ExtractTablesResponse response = post("/lathe/query/tables", request, ExtractTablesResponse.class);
+        return extractTables(new ExtractTablesRequest(query, transform));
+    }
+
+    private ExtractTablesResponse extractTables(ExtractTablesRequest request) throws IOException {
+        return coalesce(extractTablesKey(request),
+                () -> extractedTables(post("/lathe/query/tables", request, ExtractTablesResponse.class)));
+    }
+
+    static Object extractTablesKey(ExtractTablesRequest request) {
+        return Arrays.asList("POST /lathe/query/tables", request.getQuery(), request.getTransform());
+    }
+
+    static ExtractTablesResponse extractedTables(ExtractTablesResponse response) throws IOException {
         if (response.getError() != null) {
             throw new IOException("Failed to extract tables: " + response.getError());
         }
@@ -934,15 +1404,100 @@ public class DatalatheClient {
     public GenerateReportResult generateReport(List<String> chipIds, List<String> queries,
             Boolean transformQuery, Boolean returnTransformedQuery, boolean raiseOnQueryError)
             throws IOException {
+        ReportCache.Key key = reportCacheKey(chipIds, queries, transformQuery, returnTransformedQuery);
+        GenerateReportResult cached = cachedReport(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = reportCacheGeneration();
+        GenerateReportRequest request = reportRequest(chipIds, queries, transformQuery, returnTransformedQuery);
+        Timed<GenerateReportResponse> response = coalesce(reportKey(request), () -> timedReport(request));
+        GenerateReportResult result = reportResult(response.value, response.timings, raiseOnQueryError);
+        cacheReport(key, result, generation);
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of the report cache's counters. All zero when the
+     * cache is disabled.
+     */
+    public ReportCacheStats getReportCacheStats() {
+        return reportCache != null ? reportCache.stats() : new ReportCacheStats(0, 0, 0, 0, 0, 0);
+    }
+
+    /** Drops every cached report. A no-op when the cache is disabled. */
+    public void clearReportCache() {
+        if (reportCache != null) {
+            reportCache.clear();
+        }
+    }
+
+    /** The cache key for a report, or null when caching is off or the request can't be keyed. */
+    ReportCache.Key reportCacheKey(List<String> chipIds, List<String> queries, Boolean transformQuery,
+            Boolean returnTransformedQuery) {
+        if (reportCache == null || chipIds == null || queries == null) {
+            return null;
+        }
+        for (String chipId : chipIds) {
+            if (chipId == null) {
+                return null;
+            }
+        }
+        return new ReportCache.Key(chipIds, queries, transformQuery, returnTransformedQuery);
+    }
+
+    GenerateReportResult cachedReport(ReportCache.Key key) {
+        return key != null ? reportCache.get(key) : null;
+    }
+
+    long reportCacheGeneration() {
+        return reportCache != null ? reportCache.generation() : 0;
+    }
+
+    /** Caches a fetched report unless any of its queries failed. */
+    void cacheReport(ReportCache.Key key, GenerateReportResult result, long generation) {
+        if (key == null) {
+            return;
+        }
+        for (GenerateReportResponse.Result entry : result.getResults().values()) {
+            if (entry.getError() != null) {
+                return;
+            }
+        }
+        reportCache.put(key, result, generation);
+    }
+
+    void invalidateCachedReports(String chipId) {
+        if (reportCache != null) {
+            reportCache.invalidateChip(chipId);
+        }
+    }
+
+    /** Single-flight key for a report request; each caller escalates query errors itself. */
+    static Object reportKey(GenerateReportRequest request) {
+        return Arrays.asList("POST /lathe/report",
+                request.getChipIds() != null ? new ArrayList<>(request.getChipIds()) : null,
+                new ArrayList<>(request.getQueryRequest().getQuery()),
+                request.getTransformQuery(), request.getReturnTransformedQuery());
+    }
+
+    static GenerateReportRequest reportRequest(List<String> chipIds, List<String> queries,
+            Boolean transformQuery, Boolean returnTransformedQuery) {
         GenerateReportRequest request = new GenerateReportRequest();
         request.setSourceType(SourceType.CHIP);
         request.setQueryRequest(new GenerateReportRequest.Queries(queries));
         request.setChipIds(chipIds);
         request.setTransformQuery(transformQuery);
         request.setReturnTransformedQuery(returnTransformedQuery);
+        return request;
+    }
 
-        GenerateReportResponse response = post("/lathe/report", request, GenerateReportResponse.class);
-
+    /**
+     * Re-keys the engine's string-indexed results and, when requested,
+     * escalates per-query execution errors.
+     */
+    static GenerateReportResult reportResult(GenerateReportResponse response, CallTimings callTimings,
+            boolean raiseOnQueryError) throws DatalatheQueryException {
         Map<Integer, GenerateReportResponse.Result> results = new HashMap<>();
         if (response.getResult() != null) {
             for (Map.Entry<String, GenerateReportResponse.Result> entry : response
@@ -965,7 +1520,96 @@ public class DatalatheClient {
             }
         }
 
-        return new GenerateReportResult(results, response.getTiming());
+        return new GenerateReportResult(results, response.getTiming(), callTimings);
+    }
+
+    /** Sends a report request with a phase recorder attached to its call. */
+    private Timed<GenerateReportResponse> timedReport(GenerateReportRequest request) throws IOException {
+        PhaseRecorder recorder = new PhaseRecorder(callTimingsListener);
+        GenerateReportResponse response = execute(PhaseRecorder.tag(postRequest("/lathe/report", request), recorder),
+                jsonHandler("POST", "/lathe/report", GenerateReportResponse.class));
+        return new Timed<>(response, recorder.timings());
+    }
+
+    CompletableFuture<Timed<GenerateReportResponse>> timedReportAsync(GenerateReportRequest request) {
+        PhaseRecorder recorder = new PhaseRecorder(callTimingsListener);
+        Request httpRequest;
+        try {
+            httpRequest = PhaseRecorder.tag(postRequest("/lathe/report", request), recorder);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return enqueue(httpRequest, jsonHandler("POST", "/lathe/report", GenerateReportResponse.class))
+                .thenApply(response -> new Timed<>(response, recorder.timings()));
+    }
+
+    /** A response and the phase timings of the call that fetched it. */
+    static final class Timed<T> {
+        final T value;
+        final CallTimings timings;
+
+        Timed(T value, CallTimings timings) {
+            this.value = value;
+            this.timings = timings;
+        }
+    }
+
+    /**
+     * Executes queries against a list of chip IDs and decodes each result
+     * into primitive column arrays instead of {@code List<List<String>>}.
+     *
+     * <p>Each column is decoded once, while the response is read, according
+     * to its schema type ({@code Int32} to {@code int[]}, {@code Int64} to
+     * {@code long[]}, {@code Float32}/{@code Float64} to {@code double[]},
+     * {@code Boolean} to a bitset). The result sets returned by
+     * {@link ColumnarResult#getResultSet()} read typed values straight from
+     * those arrays, which suits large numeric reports that are read with
+     * {@code getInt}/{@code getLong}/{@code getDouble}.</p>
+     *
+     * @param chipIds                List of chip IDs to query
+     * @param queries                List of SQL queries to execute
+     * @param transformQuery         If true, translate MariaDB-syntax queries
+     *                               for the engine
+     * @param returnTransformedQuery If true, include the transformed query in
+     *                               results
+     * @param raiseOnQueryError      If true, throw {@link DatalatheQueryException}
+     *                               when a query fails at execution time
+     * @return ColumnarReportResult containing results map and timing metadata
+     * @throws IOException             if the API call fails
+     * @throws DatalatheQueryException if a query fails and raiseOnQueryError is true
+     */
+    public ColumnarReportResult generateColumnarReport(List<String> chipIds, List<String> queries,
+            Boolean transformQuery, Boolean returnTransformedQuery, boolean raiseOnQueryError)
+            throws IOException {
+        Request httpRequest = postRequest("/lathe/report",
+                reportRequest(chipIds, queries, transformQuery, returnTransformedQuery));
+        return columnarReportResult(execute(httpRequest, columnarReportHandler()), raiseOnQueryError);
+    }
+
+    CompletableFuture<ColumnarReportResult> generateColumnarReportAsync(GenerateReportRequest request) {
+        Request httpRequest;
+        try {
+            httpRequest = postRequest("/lathe/report", request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return enqueue(httpRequest, columnarReportHandler());
+    }
+
+    static ColumnarReportResult columnarReportResult(ColumnarReportResult result, boolean raiseOnQueryError)
+            throws DatalatheQueryException {
+        if (raiseOnQueryError) {
+            Map<Integer, String> queryErrors = new HashMap<>();
+            for (Map.Entry<Integer, ColumnarResult> entry : result.getResults().entrySet()) {
+                if (entry.getValue().getError() != null) {
+                    queryErrors.put(entry.getKey(), entry.getValue().getError());
+                }
+            }
+            if (!queryErrors.isEmpty()) {
+                throw new DatalatheQueryException(queryErrors);
+            }
+        }
+        return result;
     }
 
     /**
@@ -982,7 +1626,8 @@ public class DatalatheClient {
      *
      * <p>Only a single query is supported; the engine rejects multi-query
      * streaming with a 400, so this method rejects it client-side with an
-     * {@link IllegalArgumentException}.</p>
+     * {@link IllegalArgumentException}. Use {@link #generateReportStreams}
+     * to stream several queries concurrently.</p>
      *
      * @param chipIds List of chip IDs to query
      * @param query   The single SQL query to execute
@@ -1013,25 +1658,113 @@ public class DatalatheClient {
      */
     public DatalatheStreamingResultSet generateReportStream(List<String> chipIds, String query,
             Boolean transformQuery, Boolean returnTransformedQuery) throws IOException {
+        return generateReportStream(chipIds, query, transformQuery, returnTransformedQuery, 0);
+    }
+
+    /**
+     * Streams a single query's rows with frames decoded ahead of the caller
+     * on a background reader thread.
+     *
+     * <p>The reader keeps up to {@code prefetchDepth} row batches (one batch
+     * per NDJSON {@code rows} frame) decoded and queued, so per-row work in
+     * the caller overlaps with network reads. When the queue is full the
+     * reader stops reading from the connection until the caller catches up.
+     * Closing the result set stops the reader.</p>
+     *
+     * @param chipIds                List of chip IDs to query
+     * @param query                  The single SQL query to execute
+     * @param transformQuery         If true, translate MariaDB-syntax queries
+     *                               for the engine
+     * @param returnTransformedQuery If true, include the transformed query on
+     *                               the result set
+     * @param prefetchDepth          Row batches to decode ahead; 0 decodes on
+     *                               the calling thread
+     * @return a forward-only streaming result set over the query's rows
+     * @throws IOException if the request fails before the first frame
+     */
+    public DatalatheStreamingResultSet generateReportStream(List<String> chipIds, String query,
+            Boolean transformQuery, Boolean returnTransformedQuery, int prefetchDepth) throws IOException {
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("prefetchDepth must not be negative");
+        }
         if (query == null) {
             throw new IllegalArgumentException("query must not be null");
         }
 
-        GenerateReportRequest request = new GenerateReportRequest();
-        request.setSourceType(SourceType.CHIP);
-        request.setQueryRequest(new GenerateReportRequest.Queries(List.of(query)));
-        request.setChipIds(chipIds);
-        request.setTransformQuery(transformQuery);
-        request.setReturnTransformedQuery(returnTransformedQuery);
+        Call call = client.newCall(streamRequest(chipIds, query, transformQuery, returnTransformedQuery));
+        return openStream(call, call.execute(), prefetchDepth, null);
+    }
+
+    /**
+     * Streams several queries at once by opening one single-query stream per
+     * query concurrently, so wall time tracks the slowest query instead of
+     * the sum. Unlike {@link #generateReport}, rows are not buffered; each
+     * stream is a {@link DatalatheStreamingResultSet} read at the caller's
+     * pace.
+     *
+     * <p>At most {@code maxConcurrency} streams are open at once; further
+     * queries are started, in order, as earlier streams are closed. See
+     * {@link MultiReportStream} for ordered and completion-ordered
+     * access.</p>
+     *
+     * @param chipIds                List of chip IDs to query
+     * @param queries                SQL queries to stream, one stream each
+     * @param transformQuery         If true, translate MariaDB-syntax queries
+     *                               for the engine
+     * @param returnTransformedQuery If true, include the transformed query on
+     *                               each result set
+     * @param maxConcurrency         Maximum number of streams open at once
+     * @return the set of streams; close it to release any left open
+     */
+    public MultiReportStream generateReportStreams(List<String> chipIds, List<String> queries,
+            Boolean transformQuery, Boolean returnTransformedQuery, int maxConcurrency) {
+        return generateReportStreams(chipIds, queries, transformQuery, returnTransformedQuery, maxConcurrency, 0);
+    }
+
+    /**
+     * Like {@link #generateReportStreams(List, List, Boolean, Boolean, int)},
+     * with each stream decoding up to {@code prefetchDepth} row batches ahead
+     * on its own reader thread.
+     */
+    public MultiReportStream generateReportStreams(List<String> chipIds, List<String> queries,
+            Boolean transformQuery, Boolean returnTransformedQuery, int maxConcurrency, int prefetchDepth) {
+        if (queries == null || queries.isEmpty()) {
+            throw new IllegalArgumentException("queries must not be empty");
+        }
+        for (String query : queries) {
+            if (query == null) {
+                throw new IllegalArgumentException("query must not be null");
+            }
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("prefetchDepth must not be negative");
+        }
+        return new MultiReportStream(this, chipIds, List.copyOf(queries), transformQuery, returnTransformedQuery,
+                maxConcurrency, prefetchDepth);
+    }
+
+    private Request streamRequest(List<String> chipIds, String query, Boolean transformQuery,
+            Boolean returnTransformedQuery) throws IOException {
+        GenerateReportRequest request = reportRequest(chipIds, List.of(query), transformQuery,
+                returnTransformedQuery);
         request.setStream(true);
 
-        Request httpRequest = new Request.Builder()
+        return new Request.Builder()
                 .url(baseUrl + "/lathe/report")
                 .header("Accept", "application/x-ndjson")
-                .post(RequestBody.create(objectMapper.writeValueAsString(request), JSON))
+                .post(jsonBody(request))
                 .build();
+    }
 
-        Response response = client.newCall(httpRequest).execute();
+    /**
+     * Wraps a streaming response in a result set, which takes ownership of
+     * it. Failed responses are closed and surfaced as the usual exceptions.
+     */
+    private DatalatheStreamingResultSet openStream(Call call, Response response, int prefetchDepth,
+            Runnable onClose) throws IOException {
         if (!response.isSuccessful()) {
             String responseBody;
             try (Response r = response) {
@@ -1041,13 +1774,82 @@ public class DatalatheClient {
         }
 
         try {
-            return new DatalatheStreamingResultSet(response);
+            return new DatalatheStreamingResultSet(response, call, prefetchDepth, onClose);
         } catch (java.sql.SQLException e) {
             response.close();
             throw new IOException("Failed to open streaming report", e);
         }
     }
 
+    /**
+     * Opens a single-query stream on OkHttp's dispatcher. The future
+     * completes once the schema frame has arrived; {@code onClose} runs when
+     * the returned result set is closed.
+     */
+    CompletableFuture<DatalatheStreamingResultSet> generateReportStreamAsync(List<String> chipIds, String query,
+            Boolean transformQuery, Boolean returnTransformedQuery, int prefetchDepth, Runnable onClose) {
+        Request httpRequest;
+        try {
+            httpRequest = streamRequest(chipIds, query, transformQuery, returnTransformedQuery);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<DatalatheStreamingResultSet> future = new CompletableFuture<>();
+        AtomicReference<Call> current = new AtomicReference<>();
+        future.whenComplete((value, ex) -> {
+            Call call = current.get();
+            if (future.isCancelled() && call != null) {
+                call.cancel();
+            }
+        });
+        sendStream(httpRequest, future, current, 0, prefetchDepth, onClose);
+        return future;
+    }
+
+    /**
+     * One attempt of {@link #generateReportStreamAsync}. A 429 is re-sent
+     * from the retry timer, as in {@link #send}, so no dispatcher thread
+     * sleeps through the wait.
+     */
+    private void sendStream(Request httpRequest, CompletableFuture<DatalatheStreamingResultSet> future,
+            AtomicReference<Call> current, int attempt, int prefetchDepth, Runnable onClose) {
+        dispatch(retryInterceptor != null ? RetryInterceptor.tag(httpRequest, attempt) : httpRequest,
+                future, current, new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                long retryDelay = retryInterceptor != null
+                        ? retryInterceptor.asyncRetryDelay(response, attempt) : -1;
+                if (retryDelay >= 0) {
+                    response.close();
+                    retryInterceptor.schedule(httpRequest, attempt + 1,
+                            () -> sendStream(httpRequest, future, current, attempt + 1, prefetchDepth, onClose),
+                            retryDelay);
+                    return;
+                }
+                DatalatheStreamingResultSet rs;
+                try {
+                    rs = openStream(c, response, prefetchDepth, onClose);
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                    return;
+                }
+                if (!future.complete(rs)) {
+                    // Cancelled while the schema frame was in flight
+                    try {
+                        rs.close();
+                    } catch (java.sql.SQLException ignored) {
+                        // best effort
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Convenience overload of {@link #generateReportStream(List, String)} that
      * rejects a multi-query list client-side, mirroring the engine's 400 for
@@ -1266,81 +2068,310 @@ public class DatalatheClient {
 
     // --- HTTP helpers ---
 
+    /**
+     * Turns a completed HTTP response into a value. Handlers run while the
+     * response is open; the caller closes it afterwards.
+     */
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
     private <T> T get(String path, Class<T> responseType) throws IOException {
-        Request httpRequest = new Request.Builder()
-                .url(baseUrl + path)
-                .get()
-                .build();
+        return execute(getRequest(path), jsonHandler("GET", path, responseType));
+    }
 
-        try (Response response = client.newCall(httpRequest).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
-            if (!response.isSuccessful()) {
-                throwForFailure("GET", path, response.code(), responseBody);
-            }
-            return parseBody("GET", path, response.code(), responseBody, responseType);
+    private <T> T post(String path, Object body, Class<T> responseType) throws IOException {
+        Request httpRequest = postRequest(path, body);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("POST {}: {}", path, ((JsonRequestBody) httpRequest.body()).preview(DEBUG_PREVIEW_BYTES));
         }
+
+        return execute(httpRequest, jsonHandler("POST", path, responseType));
     }
 
-    private <T> T post(String path, Object body, Class<T> responseType) throws IOException {
+    private <T> T put(String path, Object body, Class<T> responseType) throws IOException {
         Request httpRequest = new Request.Builder()
                 .url(baseUrl + path)
-                .post(RequestBody.create(objectMapper.writeValueAsString(body), JSON))
+                .put(jsonBody(body))
                 .build();
 
-        logger.debug("POST {}: {}", path, objectMapper.writeValueAsString(body));
+        return execute(httpRequest, jsonHandler("PUT", path, responseType));
+    }
 
-        try (Response response = client.newCall(httpRequest).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
-            if (!response.isSuccessful()) {
-                throwForFailure("POST", path, response.code(), responseBody);
-            }
-            return parseBody("POST", path, response.code(), responseBody, responseType);
+    private void httpDelete(String path) throws IOException {
+        execute(deleteRequest(path), deleteHandler(path));
+    }
+
+    /** Runs a read through the single-flight gate when coalescing is enabled. */
+    private <T> T coalesce(Object key, SingleFlight.Call<T> call) throws IOException {
+        return singleFlight != null ? singleFlight.execute(key, call) : call.call();
+    }
+
+    <T> CompletableFuture<T> coalesceAsync(Object key, Supplier<CompletableFuture<T>> call) {
+        return singleFlight != null ? singleFlight.executeAsync(key, call) : call.get();
+    }
+
+    <T> CompletableFuture<T> getAsync(String path, Class<T> responseType) {
+        return enqueue(getRequest(path), jsonHandler("GET", path, responseType));
+    }
+
+    <T> CompletableFuture<T> postAsync(String path, Object body, Class<T> responseType) {
+        Request httpRequest;
+        try {
+            httpRequest = postRequest(path, body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return enqueue(httpRequest, jsonHandler("POST", path, responseType));
     }
 
-    private <T> T put(String path, Object body, Class<T> responseType) throws IOException {
-        Request httpRequest = new Request.Builder()
+    CompletableFuture<Void> deleteAsync(String path) {
+        return enqueue(deleteRequest(path), deleteHandler(path));
+    }
+
+    CompletableFuture<SearchChipsResponse> searchChipsAsync(String path) {
+        return coalesceAsync("GET " + path, () -> hedgedAsync("searchChips", getRequest(path), searchChipsHandler(path)));
+    }
+
+    /**
+     * Runs an idempotent read through the hedger when hedging is enabled,
+     * waiting on the calling thread; interrupting it cancels every attempt.
+     */
+    private <T> T hedged(String kind, Request httpRequest, ResponseHandler<T> handler) throws IOException {
+        if (hedger == null) {
+            return execute(httpRequest, handler);
+        }
+        CompletableFuture<T> future = hedgedAsync(kind, httpRequest, handler);
+        try {
+            return SingleFlight.await(future, "a hedged request");
+        } catch (InterruptedIOException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    <T> CompletableFuture<T> hedgedGetAsync(String kind, String path, Class<T> responseType) {
+        return hedgedAsync(kind, getRequest(path), jsonHandler("GET", path, responseType));
+    }
+
+    private <T> CompletableFuture<T> hedgedAsync(String kind, Request httpRequest, ResponseHandler<T> handler) {
+        return hedger != null ? hedger.hedge(kind, () -> enqueue(httpRequest, handler)) : enqueue(httpRequest, handler);
+    }
+
+    private Request getRequest(String path) {
+        return new Request.Builder()
                 .url(baseUrl + path)
-                .put(RequestBody.create(objectMapper.writeValueAsString(body), JSON))
+                .get()
                 .build();
+    }
 
-        try (Response response = client.newCall(httpRequest).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
-            if (!response.isSuccessful()) {
-                throwForFailure("PUT", path, response.code(), responseBody);
-            }
-            return parseBody("PUT", path, response.code(), responseBody, responseType);
-        }
+    private Request postRequest(String path, Object body) throws IOException {
+        return new Request.Builder()
+                .url(baseUrl + path)
+                .post(jsonBody(body))
+                .build();
     }
 
-    private void httpDelete(String path) throws IOException {
-        Request httpRequest = new Request.Builder()
+    private RequestBody jsonBody(Object body) throws IOException {
+        return JsonRequestBody.of(body);
+    }
+
+    private Request deleteRequest(String path) {
+
+        return new Request.Builder()
                 .url(baseUrl + path)
                 .delete()
                 .build();
+    }
 
-        try (Response response = client.newCall(httpRequest).execute()) {
+    private <T> ResponseHandler<T> jsonHandler(String method, String path, Class<T> responseType) {
+        return response -> {
+            if (!response.isSuccessful()) {
+                throwForFailure(method, path, response.code(), bodyString(response));
+            }
+            return parseBody(method, path, response, responseType);
+        };
+    }
+
+    private ResponseHandler<ColumnarReportResult> columnarReportHandler() {
+        return response -> {
             if (!response.isSuccessful()) {
-                String responseBody = response.body() != null ? response.body().string() : "";
-                throwForFailure("DELETE", path, response.code(), responseBody);
+                throwForFailure("POST", "/lathe/report", response.code(), bodyString(response));
             }
+            return parseBody("POST", "/lathe/report", response, ColumnarReportReader::read);
+        };
+    }
+
+    private ResponseHandler<Void> deleteHandler(String path) {
+        return response -> {
+            if (!response.isSuccessful()) {
+                throwForFailure("DELETE", path, response.code(), bodyString(response));
+            }
+            return null;
+        };
+    }
+
+    private <T> T execute(Request httpRequest, ResponseHandler<T> handler) throws IOException {
+        try (Response response = client.newCall(httpRequest).execute()) {
+            return handler.handle(response);
         }
     }
 
-    private <T> T parseBody(String method, String path, int status, String body, Class<T> responseType)
+    /**
+     * Sends the request on OkHttp's dispatcher and completes the returned
+     * future from the callback, so no caller thread is parked while the
+     * call is in flight. 429s are retried by re-sending from the retry
+     * timer rather than sleeping on the dispatcher. Cancelling the future
+     * cancels the HTTP call, or the pending retry.
+     */
+    private <T> CompletableFuture<T> enqueue(Request httpRequest, ResponseHandler<T> handler) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicReference<Call> current = new AtomicReference<>();
+        future.whenComplete((value, ex) -> {
+            Call call = current.get();
+            if (future.isCancelled() && call != null) {
+                call.cancel();
+            }
+        });
+        send(httpRequest, handler, future, current, 0);
+        return future;
+    }
+
+    private <T> void send(Request httpRequest, ResponseHandler<T> handler, CompletableFuture<T> future,
+            AtomicReference<Call> current, int attempt) {
+        dispatch(retryInterceptor != null ? RetryInterceptor.tag(httpRequest, attempt) : httpRequest,
+                future, current, new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                long retryDelay = retryInterceptor != null
+                        ? retryInterceptor.asyncRetryDelay(response, attempt) : -1;
+                if (retryDelay >= 0) {
+                    response.close();
+                    retryInterceptor.schedule(httpRequest, attempt + 1,
+                            () -> send(httpRequest, handler, future, current, attempt + 1), retryDelay);
+                    return;
+                }
+                try (Response r = response) {
+                    future.complete(handler.handle(r));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Enqueues {@code httpRequest} once the concurrency limiter grants it a
+     * slot. The wait happens off the dispatcher, so a queued call holds no
+     * OkHttp thread; a rejected wait fails {@code owner}, and completing
+     * {@code owner} early gives up the place in the queue.
+     */
+    private void dispatch(Request httpRequest, CompletableFuture<?> owner, AtomicReference<Call> current,
+            Callback callback) {
+        CompletableFuture<Request> slot = concurrencyLimiter != null
+                ? concurrencyLimiter.acquireAsync(httpRequest) : CompletableFuture.completedFuture(httpRequest);
+        if (!slot.isDone()) {
+            owner.whenComplete((value, ex) -> slot.cancel(false));
+        }
+        slot.whenComplete((granted, ex) -> {
+            if (ex != null) {
+                owner.completeExceptionally(ex);
+                return;
+            }
+            Call call = client.newCall(granted);
+            current.set(call);
+            if (owner.isDone()) {
+                call.cancel();
+                ConcurrencyLimiter.releaseUnused(granted);
+                return;
+            }
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call c, IOException e) {
+                    // Cancelled before the interceptor took over the slot
+                    ConcurrencyLimiter.releaseUnused(granted);
+                    callback.onFailure(c, e);
+                }
+
+                @Override
+                public void onResponse(Call c, Response response) throws IOException {
+                    callback.onResponse(c, response);
+                }
+            });
+        });
+    }
+
+    /**
+     * Deserializes a successful response straight from the body's byte
+     * stream, so large payloads (reports, search dumps) never exist as an
+     * intermediate String. Only a bounded prefix is read into memory when
+     * the body turns out not to be JSON, for the error message. A JSON
+     * {@code null} or scalar body is handed to the reader like any other.
+     */
+    private <T> T parseBody(String method, String path, Response response, Class<T> responseType)
+            throws IOException {
+        return parseBody(method, path, response, parser -> JsonCodec.reader(responseType).readValue(parser));
+    }
+
+    private <T> T parseBody(String method, String path, Response response, BodyReader<T> reader)
             throws IOException {
-        if (body == null || body.trim().isEmpty()) {
+        int status = response.code();
+        BufferedSource source = response.body() != null ? response.body().source() : null;
+        if (source == null || !skipWhitespace(source)) {
             throw new IOException(method + " " + path + " returned " + status
                     + " with an empty response body");
         }
-        try {
-            return objectMapper.readValue(body, responseType);
+        if (!startsJsonValue(source.getBuffer().getByte(0))) {
+            source.request(NON_JSON_PREVIEW_BYTES);
+            String preview = source.getBuffer().readUtf8(
+                    Math.min(source.getBuffer().size(), NON_JSON_PREVIEW_BYTES));
+            throw new IOException(method + " " + path + " returned " + status
+                    + " with a non-JSON response body: " + preview);
+        }
+        try (JsonParser parser = JsonCodec.factory().createParser(source.inputStream())) {
+            return reader.read(parser);
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             throw new IOException(method + " " + path + " returned " + status
-                    + " with a non-JSON response body: " + body, e);
+                    + " with a malformed JSON response body: " + e.getOriginalMessage(), e);
         }
     }
 
+    /** Whether a body starting with {@code b} can be JSON at all: a container, string, number, or literal. */
+    private static boolean startsJsonValue(byte b) {
+        return b == '{' || b == '[' || b == '"' || b == '-' || (b >= '0' && b <= '9')
+                || b == 't' || b == 'f' || b == 'n';
+    }
+
+    /** Reads a value from a parser positioned at the start of the body. */
+    @FunctionalInterface
+    interface BodyReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /** Consumes leading whitespace; returns false when the body is exhausted. */
+    private static boolean skipWhitespace(BufferedSource source) throws IOException {
+        while (source.request(1)) {
+            byte b = source.getBuffer().getByte(0);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return true;
+            }
+            source.skip(1);
+        }
+        return false;
+    }
+
+    /** Reads the whole body as text; only used on the error path. */
+    private static String bodyString(Response response) throws IOException {
+        return response.body() != null ? response.body().string() : "";
+    }
+
     /**
      * Inspects a failed HTTP response and throws the most specific exception
      * available. Falls through to a generic IOException for unrecognized errors.
@@ -1350,7 +2381,7 @@ public class DatalatheClient {
         String message = method + " " + path + " failed: " + statusCode + " " + body;
         if (body != null && !body.isEmpty()) {
             try {
-                JsonNode node = objectMapper.readTree(body);
+                JsonNode node = JsonCodec.mapper().readTree(body);
                 String errorCode = textOrNull(node.get("error_code"));
                 if (statusCode == 404 && "chip_not_found".equals(errorCode)) {
                     String chipId = textOrNull(node.get("chip_id"));
@@ -0,0 +1,27 @@
+package com.datalathe.client;
+
+import java.util.List;
+
+/**
+ * How the client groups engine endpoints for concurrency limits and
+ * circuit breaking. Report and staged-data calls do heavy engine work and
+ * can fail or slow down independently of metadata lookups.
+ */
+public enum EndpointClass {
+    /** {@code /lathe/report} and {@code /lathe/stage/data}. */
+    HEAVY,
+    /** Every other endpoint. */
+    LIGHT;
+
+    private static final List<String> HEAVY_PATHS = List.of("/lathe/report", "/lathe/stage/data");
+
+    /** Classifies a request path; a base URL path prefix is ignored. */
+    public static EndpointClass of(String path) {
+        for (String prefix : HEAVY_PATHS) {
+            if (path.contains(prefix)) {
+                return HEAVY;
+            }
+        }
+        return LIGHT;
+    }
+}
@@ -4,6 +4,7 @@ import com.datalathe.client.types.GenerateReportResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.Duration;
 import java.util.Map;
 
 @Data
@@ -11,4 +12,27 @@ import java.util.Map;
 public class GenerateReportResult {
     private Map<Integer, GenerateReportResponse.Result> results;
     private GenerateReportResponse.ReportTiming timing;
+    /**
+     * Client-side phases of the HTTP call. A report cache hit carries the
+     * timings of the call that filled the entry.
+     */
+    private CallTimings callTimings;
+
+    public GenerateReportResult(Map<Integer, GenerateReportResponse.Result> results,
+            GenerateReportResponse.ReportTiming timing) {
+        this(results, timing, null);
+    }
+
+    /**
+     * Time to first byte not accounted for by the engine's own
+     * {@code totalMs}: network round trip plus any queueing in front of the
+     * engine's timer. Null when either side's timing is missing.
+     */
+    public Duration unaccountedWait() {
+        if (callTimings == null || timing == null) {
+            return null;
+        }
+        Duration wait = callTimings.getTimeToFirstByte().minusMillis(timing.getTotalMs());
+        return wait.isNegative() ? Duration.ZERO : wait;
+    }
 }
@@ -0,0 +1,106 @@
+package com.datalathe.client;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Applies {@link HedgingConfig}. The first attempt to complete, successfully
+ * or not, decides the result: a fast error such as a 404 is as final as a
+ * fast answer. The returned future cancels every attempt still running once
+ * it completes or is cancelled.
+ */
+final class Hedger {
+    private final HedgingConfig config;
+    private final RequestBudget budget;
+    private final ConcurrentHashMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    LongSupplier clock = () -> System.nanoTime() / 1_000_000;
+
+    Hedger(HedgingConfig config) {
+        this.config = config;
+        this.budget = new RequestBudget(config.getMaxHedgeRatio(), config.getHedgeBurst());
+    }
+
+    /** Runs {@code call}, racing a second copy of it if the first is slow. */
+    <T> CompletableFuture<T> hedge(String kind, Supplier<CompletableFuture<T>> call) {
+        LatencyWindow window = latencies.computeIfAbsent(kind, k -> new LatencyWindow(config.getWindowSize()));
+        budget.deposit();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        result.whenComplete((value, ex) -> attempts.forEach(attempt -> attempt.cancel(true)));
+
+        race(call, result, attempts, window);
+        long delay = window.percentile(config.getPercentile(), config.getMinSamples());
+        if (delay >= 0) {
+            ClientTimer.schedule(() -> {
+                if (!result.isDone() && budget.withdraw()) {
+                    race(call, result, attempts, window);
+                }
+            }, Math.max(delay, config.getMinDelayMillis()));
+        }
+        return result;
+    }
+
+    private <T> void race(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result,
+            List<CompletableFuture<T>> attempts, LatencyWindow window) {
+        long start = clock.getAsLong();
+        CompletableFuture<T> attempt = call.get();
+        attempts.add(attempt);
+        if (result.isDone()) {
+            attempt.cancel(true);
+            return;
+        }
+        attempt.whenComplete((value, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                window.record(clock.getAsLong() - start);
+                result.complete(value);
+            }
+        });
+    }
+
+    /** The last {@code size} latencies of one kind of call. */
+    static final class LatencyWindow {
+        // Re-sorting on every call would be wasted work; percentiles drift slowly.
+        private static final int RECOMPUTE_EVERY = 16;
+
+        private final long[] samples;
+        private int count;
+        private int next;
+        private int sinceComputed = RECOMPUTE_EVERY;
+        private double computedFor = Double.NaN;
+        private long cached;
+
+        LatencyWindow(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            sinceComputed++;
+        }
+
+        /** The given percentile in millis, or -1 with fewer than {@code minSamples} samples. */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count == 0 || count < minSamples) {
+                return -1;
+            }
+            if (sinceComputed >= RECOMPUTE_EVERY || percentile != computedFor) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile * count) - 1;
+                cached = sorted[Math.max(0, Math.min(count - 1, index))];
+                computedFor = percentile;
+                sinceComputed = 0;
+            }
+            return cached;
+        }
+    }
+}
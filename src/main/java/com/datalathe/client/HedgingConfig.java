@@ -0,0 +1,54 @@
+package com.datalathe.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Controls optional request hedging for idempotent reads: {@code getChip},
+ * {@code searchChips}, {@code getIngestJob}, and optionally
+ * {@code queryChips}. When a call is still unanswered after the
+ * {@code percentile} latency of recent calls of the same kind, an
+ * identical request is sent and whichever answers first wins; the other
+ * is cancelled.
+ *
+ * <p>No hedges are sent until {@code minSamples} calls of a kind have
+ * completed. Hedges draw on a budget: every hedgeable call adds
+ * {@code maxHedgeRatio} of a token, every hedge spends one, and at most
+ * {@code hedgeBurst} are banked, so hedging can't add more than that share
+ * of load when the engine is uniformly slow.</p>
+ */
+@Value
+@Builder
+public class HedgingConfig {
+    public static final HedgingConfig DISABLED = HedgingConfig.builder().enabled(false).build();
+
+    @Builder.Default
+    boolean enabled = true;
+
+    @Builder.Default
+    double percentile = 0.95;
+
+    /** Never hedge sooner than this, however fast recent calls were. */
+    @Builder.Default
+    long minDelayMillis = 10;
+
+    @Builder.Default
+    int minSamples = 20;
+
+    /** Recent latencies kept per kind of call. */
+    @Builder.Default
+    int windowSize = 200;
+
+    @Builder.Default
+    double maxHedgeRatio = 0.05;
+
+    @Builder.Default
+    int hedgeBurst = 10;
+
+    /**
+     * Also hedge {@code queryChips}. It is read-only but its cost depends
+     * on the query, so only enable this when chip queries are small.
+     */
+    @Builder.Default
+    boolean hedgeQueryChips = false;
+}
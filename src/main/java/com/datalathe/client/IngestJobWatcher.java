@@ -0,0 +1,294 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.IngestJob;
+import com.datalathe.client.types.IngestJobHandle;
+import com.datalathe.client.types.IngestJobStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks many asynchronous ingest jobs from one scheduler thread and
+ * completes a future per job, instead of parking a thread per job in
+ * {@link DatalatheClient#waitForIngest}.
+ *
+ * <p>Each poll lists the engine's {@code queued} and {@code running} jobs
+ * (two requests however many jobs are tracked) and fetches individually
+ * only the tracked jobs missing from both lists, i.e. the ones that just
+ * finished. Jobs are polled on their own adaptive schedule: a job making
+ * no progress backs off exponentially up to the maximum interval, and a
+ * job reporting chunk progress is next checked at about half its estimated
+ * remaining time. Engines that can't list jobs fall back to one
+ * {@code GET} per due job.</p>
+ *
+ * <pre>{@code
+ * try (IngestJobWatcher watcher = new IngestJobWatcher(client)) {
+ *     List<CompletableFuture<IngestJob>> jobs = new ArrayList<>();
+ *     for (ChipSource source : sources) {
+ *         jobs.add(watcher.watch(client.createChipAsync(source)));
+ *     }
+ *     CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).join();
+ * }
+ * }</pre>
+ *
+ * <p>A future fails with {@link IngestFailedException} when its job ends
+ * {@code failed} or {@code cancelled}. Watchers are thread-safe; share one
+ * per client.</p>
+ */
+public class IngestJobWatcher implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(IngestJobWatcher.class);
+    private static final int MAX_POLL_ERRORS = 3;
+
+    private final DatalatheClient client;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final ConcurrentHashMap<String, Tracked> jobs = new ConcurrentHashMap<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+    private volatile boolean listUnsupported;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    /** Creates a watcher polling between 1 and 30 seconds. */
+    public IngestJobWatcher(DatalatheClient client) {
+        this(client, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param minInterval shortest time between polls of the same job, and the
+     *                    scheduler's tick
+     * @param maxInterval longest time between polls of the same job
+     */
+    public IngestJobWatcher(DatalatheClient client, Duration minInterval, Duration maxInterval) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("Require 0 < minInterval <= maxInterval");
+        }
+        this.client = client;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = maxInterval.toMillis();
+    }
+
+    /**
+     * Starts tracking a job. The future completes with the job's final
+     * record when it succeeds, or fails with {@link IngestFailedException}.
+     * Watching a job that is already tracked returns the same future.
+     */
+    public CompletableFuture<IngestJob> watch(String jobId) {
+        Tracked tracked;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IOException("Ingest job watcher is closed"));
+            }
+            tracked = jobs.computeIfAbsent(jobId, id -> new Tracked(id, clock.getAsLong(), minIntervalMillis));
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "datalathe-ingest-watcher");
+                    t.setDaemon(true);
+                    return t;
+                });
+                scheduler.scheduleWithFixedDelay(this::tick, minIntervalMillis, minIntervalMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        return tracked.result;
+    }
+
+    /** Same as {@link #watch(String)} for the handle's job. */
+    public CompletableFuture<IngestJob> watch(IngestJobHandle handle) {
+        return watch(handle.getJobId());
+    }
+
+    /** Number of jobs currently being tracked. */
+    public int trackedCount() {
+        return jobs.size();
+    }
+
+    /**
+     * Stops polling. Futures of jobs still being tracked fail with an
+     * {@link IOException}; the jobs themselves keep running on the engine.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        IOException closedError = new IOException("Ingest job watcher is closed");
+        for (Tracked tracked : jobs.values()) {
+            finish(tracked, null, closedError);
+        }
+    }
+
+    private void tick() {
+        long now = clock.getAsLong();
+        List<Tracked> due = new ArrayList<>();
+        for (Tracked tracked : jobs.values()) {
+            if (tracked.nextPollAt <= now) {
+                due.add(tracked);
+            }
+        }
+        if (due.isEmpty() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<Void> round = listUnsupported ? pollEach(due) : pollListed(due);
+        round.whenComplete((v, ex) -> {
+            if (ex != null) {
+                log.debug("Ingest job poll round failed", ex);
+            }
+            polling.set(false);
+        });
+    }
+
+    /**
+     * Lists queued and running jobs; fetches tracked jobs absent from both
+     * one by one, since those have just reached a terminal state.
+     */
+    private CompletableFuture<Void> pollListed(List<Tracked> due) {
+        CompletableFuture<List<IngestJob>> queued = client.async().listIngestJobs("queued");
+        CompletableFuture<List<IngestJob>> running = client.async().listIngestJobs("running");
+        return queued.thenCombine(running, (q, r) -> {
+            Map<String, IngestJob> active = new HashMap<>();
+            for (IngestJob job : q) {
+                active.put(job.getJobId(), job);
+            }
+            for (IngestJob job : r) {
+                active.put(job.getJobId(), job);
+            }
+            return active;
+        }).thenCompose(active -> {
+            long now = clock.getAsLong();
+            List<Tracked> finished = new ArrayList<>();
+            for (Tracked tracked : jobs.values()) {
+                IngestJob job = active.get(tracked.jobId);
+                if (job == null) {
+                    finished.add(tracked);
+                } else if (tracked.nextPollAt <= now) {
+                    onStatus(tracked, job, now);
+                }
+            }
+            return pollEach(finished);
+        }).exceptionallyCompose(ex -> {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof DatalatheApiException api && (api.getStatusCode() == 404 || api.getStatusCode() == 405)) {
+                log.info("Engine can't list ingest jobs; polling each job individually");
+                listUnsupported = true;
+            }
+            return pollEach(due);
+        });
+    }
+
+    private CompletableFuture<Void> pollEach(List<Tracked> due) {
+        List<CompletableFuture<?>> polls = new ArrayList<>();
+        for (Tracked tracked : due) {
+            polls.add(client.async().getIngestJob(tracked.jobId).handle((job, ex) -> {
+                if (ex != null) {
+                    onPollError(tracked, unwrap(ex));
+                } else {
+                    onStatus(tracked, job, clock.getAsLong());
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new));
+    }
+
+    private void onPollError(Tracked tracked, Throwable ex) {
+        if (++tracked.pollErrors >= MAX_POLL_ERRORS) {
+            finish(tracked, null, ex);
+        } else {
+            log.debug("Polling ingest job {} failed; retrying", tracked.jobId, ex);
+            tracked.nextPollAt = clock.getAsLong() + tracked.interval;
+        }
+    }
+
+    private void onStatus(Tracked tracked, IngestJob job, long now) {
+        tracked.pollErrors = 0;
+        IngestJobStatus status = job.getStatus();
+        if (status == IngestJobStatus.SUCCEEDED) {
+            finish(tracked, job, null);
+            return;
+        }
+        if (status != null && status.isTerminal()) {
+            finish(tracked, null, new IngestFailedException(tracked.jobId, status, job.getError()));
+            return;
+        }
+        Integer done = job.getChunksDone();
+        int progressed = done != null && tracked.chunksDone != null ? done - tracked.chunksDone : 0;
+        tracked.interval = nextInterval(tracked.interval, progressed, now - tracked.progressAt,
+                done, job.getChunksTotal(), minIntervalMillis, maxIntervalMillis);
+        if (progressed > 0 || tracked.chunksDone == null) {
+            tracked.progressAt = now;
+        }
+        if (done != null) {
+            tracked.chunksDone = done;
+        }
+        tracked.nextPollAt = now + tracked.interval;
+    }
+
+    /**
+     * Next poll interval for a still-active job: half the estimated time to
+     * completion when chunks progressed, otherwise double the last interval.
+     */
+    static long nextInterval(long interval, int progressed, long sinceProgressMillis,
+                             Integer chunksDone, Integer chunksTotal, long min, long max) {
+        long next;
+        if (progressed > 0 && chunksDone != null && chunksTotal != null && chunksTotal > chunksDone) {
+            long perChunk = sinceProgressMillis / progressed;
+            next = perChunk * (chunksTotal - chunksDone) / 2;
+        } else if (progressed > 0) {
+            next = interval;
+        } else {
+            next = interval * 2;
+        }
+        return Math.max(min, Math.min(max, next));
+    }
+
+    private void finish(Tracked tracked, IngestJob job, Throwable ex) {
+        jobs.remove(tracked.jobId, tracked);
+        if (ex != null) {
+            tracked.result.completeExceptionally(ex);
+        } else {
+            tracked.result.complete(job);
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static final class Tracked {
+        final String jobId;
+        final CompletableFuture<IngestJob> result = new CompletableFuture<>();
+        // Only touched from poll callbacks, which never overlap
+        volatile long nextPollAt;
+        volatile long interval;
+        volatile long progressAt;
+        volatile Integer chunksDone;
+        volatile int pollErrors;
+
+        Tracked(String jobId, long now, long interval) {
+            this.jobId = jobId;
+            this.nextPollAt = now;
+            this.progressAt = now;
+            this.interval = interval;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.datalathe.client;
+
+import com.datalathe.client.jfr.EngineRequestEvent;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Emits an {@link EngineRequestEvent} per attempt. Always installed as the
+ * innermost application interceptor; when no recording has the event
+ * enabled it costs one {@code isEnabled()} check.
+ */
+final class JfrInterceptor implements Interceptor {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        EngineRequestEvent event = new EngineRequestEvent();
+        if (!event.isEnabled()) {
+            return chain.proceed(request);
+        }
+        event.begin();
+        Response response = null;
+        try {
+            response = chain.proceed(request);
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.method();
+                event.route = Routes.template(request.url().encodedPath());
+                event.requestBytes = request.body() != null ? request.body().contentLength() : 0;
+                event.status = response != null ? response.code() : 0;
+                event.responseBytes = response != null && response.body() != null
+                        ? response.body().contentLength() : -1;
+                event.commit();
+            }
+        }
+    }
+}
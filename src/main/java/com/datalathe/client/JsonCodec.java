@@ -0,0 +1,87 @@
+package com.datalathe.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The client's single JSON configuration. Every package reads and writes
+ * through one {@link ObjectMapper}, and readers and writers are resolved
+ * once per type and reused, so per-call work skips the serializer lookup.
+ *
+ * <p>When {@code jackson-module-blackbird} is on the classpath it is
+ * registered automatically, replacing reflective property access with
+ * generated lambdas. It is an optional dependency.</p>
+ */
+public final class JsonCodec {
+    private static final Logger logger = LogManager.getLogger(JsonCodec.class);
+    private static final String BLACKBIRD = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+    private static final ObjectMapper MAPPER = configure(new ObjectMapper());
+    private static final boolean BLACKBIRD_ENABLED = register(MAPPER, BLACKBIRD);
+
+    private static final ConcurrentHashMap<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Type, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private JsonCodec() {
+    }
+
+    /** The shared mapper. Don't reconfigure it; readers and writers are already built from it. */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /** Factory whose parsers have the shared mapper as their codec. */
+    public static JsonFactory factory() {
+        return MAPPER.getFactory();
+    }
+
+    /** A reader for {@code type}, built on first use and cached. */
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.computeIfAbsent(type, t -> MAPPER.readerFor(type));
+    }
+
+    /** A reader for a generic type, built on first use and cached. */
+    public static ObjectReader reader(TypeReference<?> type) {
+        return READERS.computeIfAbsent(type.getType(), t -> MAPPER.readerFor(type));
+    }
+
+    /** A writer for {@code type}, built on first use and cached. */
+    public static ObjectWriter writer(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, t -> MAPPER.writerFor(type));
+    }
+
+    /** Whether Blackbird was found and registered. */
+    public static boolean isBlackbirdEnabled() {
+        return BLACKBIRD_ENABLED;
+    }
+
+    /** Applies the client's settings: unknown response fields are ignored. */
+    static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /** Registers the named module if it is on the classpath. */
+    static boolean register(ObjectMapper mapper, String moduleClass) {
+        try {
+            Class<?> type = Class.forName(moduleClass, true, JsonCodec.class.getClassLoader());
+            mapper.registerModule((Module) type.getDeclaredConstructor().newInstance());
+            logger.debug("Registered Jackson module {}", moduleClass);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Could not register Jackson module {}; using reflection", moduleClass, e);
+            return false;
+        }
+    }
+}
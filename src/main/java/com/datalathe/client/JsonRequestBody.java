@@ -0,0 +1,61 @@
+package com.datalathe.client;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A JSON request body serialized once, straight into an okio buffer, so no
+ * intermediate String or byte array is built. Writing copies the buffer's
+ * segments by reference, so retries, hedges and gzip can all replay it.
+ */
+final class JsonRequestBody extends RequestBody {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final Buffer buffer;
+
+    private JsonRequestBody(Buffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static JsonRequestBody of(Object value) throws IOException {
+        Buffer buffer = new Buffer();
+        try (OutputStream out = buffer.outputStream()) {
+            JsonCodec.writer(value.getClass()).writeValue(out, value);
+        }
+        return new JsonRequestBody(buffer);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.size();
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return false;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        buffer.copyTo(sink.getBuffer(), 0, buffer.size());
+        sink.emitCompleteSegments();
+    }
+
+    /** The first {@code maxBytes} of the body as text, marked when cut short. */
+    String preview(int maxBytes) {
+        if (buffer.size() <= maxBytes) {
+            return buffer.snapshot().utf8();
+        }
+        return buffer.snapshot(maxBytes).utf8() + "... (" + buffer.size() + " bytes)";
+    }
+}
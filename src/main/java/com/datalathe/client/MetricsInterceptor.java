@@ -0,0 +1,38 @@
+package com.datalathe.client;
+
+import com.datalathe.client.metrics.ClientMetrics;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Reports request counts, latency, and in-flight calls to
+ * {@link ClientMetrics}. Installed as the innermost application
+ * interceptor, so it times each attempt against the engine and excludes
+ * retry waits and concurrency-limiter queueing.
+ */
+final class MetricsInterceptor implements Interceptor {
+    private final ClientMetrics metrics;
+
+    MetricsInterceptor(ClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String route = Routes.template(request.url().encodedPath());
+        metrics.requestStarted(request.method(), route);
+        long start = System.nanoTime();
+        int status = 0;
+        try {
+            Response response = chain.proceed(request);
+            status = response.code();
+            return response;
+        } finally {
+            metrics.requestCompleted(request.method(), route, status, System.nanoTime() - start);
+        }
+    }
+}
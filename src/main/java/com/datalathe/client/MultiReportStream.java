@@ -0,0 +1,204 @@
+package com.datalathe.client;
+
+import com.datalathe.client.results.DatalatheStreamingResultSet;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A set of single-query streams opened concurrently, one per query, for
+ * reports the engine cannot stream as a whole. Returned by
+ * {@link DatalatheClient#generateReportStreams}.
+ *
+ * <p>At most {@code maxConcurrency} streams are open at a time; the next
+ * query's stream is opened as soon as an earlier one is closed (or fails to
+ * open), in query order. Each stream holds a live connection, so close
+ * streams as you finish them — a caller that waits on {@link #get(int)} for
+ * a query beyond the cap without closing earlier streams will wait
+ * forever.</p>
+ *
+ * <p>Streams can be consumed in query order with {@link #get(int)}, or in
+ * the order their first frame arrives with {@link #nextReady()}:</p>
+ *
+ * <pre>{@code
+ * try (MultiReportStream streams = client.generateReportStreams(chipIds, queries, null, null, 8)) {
+ *     int idx;
+ *     while ((idx = streams.nextReady()) >= 0) {
+ *         try (DatalatheStreamingResultSet rs = streams.get(idx)) {
+ *             while (rs.next()) { ... }
+ *         }
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Closing the set closes every opened stream and cancels those still
+ * being opened. After that, {@link #nextReady()} keeps returning the
+ * remaining indices, and {@link #get(int)} fails for them.</p>
+ */
+public class MultiReportStream implements AutoCloseable {
+    private final DatalatheClient client;
+    private final List<String> chipIds;
+    private final List<String> queries;
+    private final Boolean transformQuery;
+    private final Boolean returnTransformedQuery;
+    private final int maxConcurrency;
+    private final int prefetchDepth;
+
+    private final List<CompletableFuture<DatalatheStreamingResultSet>> streams = new ArrayList<>();
+    // Calls holding a concurrency slot, by query index; dropped when the slot is released
+    private final Map<Integer, CompletableFuture<DatalatheStreamingResultSet>> opening = new HashMap<>();
+    private final List<AtomicBoolean> released = new ArrayList<>();
+    private final BlockingQueue<Integer> ready = new LinkedBlockingQueue<>();
+
+    private int nextToOpen = 0;
+    private int active = 0;
+    private int handedOut = 0;
+    private boolean closed = false;
+
+    MultiReportStream(DatalatheClient client, List<String> chipIds, List<String> queries, Boolean transformQuery,
+            Boolean returnTransformedQuery, int maxConcurrency, int prefetchDepth) {
+        this.client = client;
+        this.chipIds = chipIds;
+        this.queries = queries;
+        this.transformQuery = transformQuery;
+        this.returnTransformedQuery = returnTransformedQuery;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetchDepth = prefetchDepth;
+        for (int i = 0; i < queries.size(); i++) {
+            streams.add(new CompletableFuture<>());
+            released.add(new AtomicBoolean());
+        }
+        openMore();
+    }
+
+    /** Number of queries, and so of streams. */
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Returns the stream for the query at {@code index}, waiting until its
+     * schema frame has arrived.
+     *
+     * @throws IOException if that query's stream failed to open (including
+     *                     {@link ChipNotFoundException} and
+     *                     {@link DatalatheQueryException})
+     */
+    public DatalatheStreamingResultSet get(int index) throws IOException {
+        try {
+            return streams.get(index).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to open stream for query " + index, cause);
+        } catch (CancellationException e) {
+            throw new IOException("Stream for query " + index + " was cancelled", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for stream " + index, e);
+        }
+    }
+
+    /**
+     * Returns the future for the query at {@code index}, for callers that
+     * prefer to compose rather than block.
+     */
+    public CompletableFuture<DatalatheStreamingResultSet> future(int index) {
+        return streams.get(index);
+    }
+
+    /**
+     * Waits for the next stream to become ready (or to fail) and returns its
+     * query index, in completion order. Returns {@code -1} once every index
+     * has been returned. Pass the index to {@link #get(int)}.
+     */
+    public int nextReady() throws IOException {
+        synchronized (this) {
+            if (handedOut == queries.size()) {
+                return -1;
+            }
+            handedOut++;
+        }
+        try {
+            return ready.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the next stream", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<CompletableFuture<DatalatheStreamingResultSet>> toClose;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(streams);
+            for (CompletableFuture<DatalatheStreamingResultSet> call : opening.values()) {
+                call.cancel(true);
+            }
+            // Never opened; hand them to nextReady() so it doesn't wait on them
+            while (nextToOpen < queries.size()) {
+                ready.add(nextToOpen++);
+            }
+        }
+        for (CompletableFuture<DatalatheStreamingResultSet> future : toClose) {
+            if (!future.cancel(true) && !future.isCompletedExceptionally()) {
+                try {
+                    future.join().close();
+                } catch (SQLException | RuntimeException ignored) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    private synchronized void openMore() {
+        while (!closed && active < maxConcurrency && nextToOpen < queries.size()) {
+            int index = nextToOpen++;
+            active++;
+            CompletableFuture<DatalatheStreamingResultSet> call = client.generateReportStreamAsync(chipIds,
+                    queries.get(index), transformQuery, returnTransformedQuery, prefetchDepth, () -> release(index));
+            opening.put(index, call);
+            call.whenComplete((rs, ex) -> {
+                if (ex != null) {
+                    streams.get(index).completeExceptionally(ex);
+                    release(index);
+                } else if (!streams.get(index).complete(rs)) {
+                    // The set was closed while this stream was opening
+                    try {
+                        rs.close();
+                    } catch (SQLException ignored) {
+                        // best effort
+                    }
+                }
+                ready.add(index);
+            });
+        }
+    }
+
+    /** Frees a concurrency slot; runs once per stream, on close or open failure. */
+    private void release(int index) {
+        if (released.get(index).compareAndSet(false, true)) {
+            synchronized (this) {
+                active--;
+                opening.remove(index);
+            }
+            openMore();
+        }
+    }
+}
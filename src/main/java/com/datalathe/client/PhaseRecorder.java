@@ -0,0 +1,181 @@
+package com.datalathe.client;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Records {@link CallTimings} from OkHttp's call events. A recorder is
+ * created for every call when a {@link CallTimings.Listener} is set, and
+ * for calls that carry one as a request tag, such as reports, whose
+ * timings end up on the result.
+ */
+final class PhaseRecorder extends EventListener {
+    private static final Logger logger = LogManager.getLogger(PhaseRecorder.class);
+
+    private final CallTimings.Listener listener;
+
+    private long callStart;
+    private long dnsStart;
+    private long dnsEnd;
+    private long connectStart;
+    private long connectEnd;
+    private long secureConnectStart;
+    private long secureConnectEnd;
+    private long requestStart;
+    private long requestEnd;
+    private long responseStart;
+    private long responseEnd;
+    private long callEnd;
+
+    PhaseRecorder(CallTimings.Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Uses the recorder tagged on the call's request, else a fresh one if
+     * there is a listener. Events also reach the listener {@code existing}
+     * creates, so a tracing or metrics listener already set on the
+     * transport keeps working.
+     */
+    static EventListener.Factory factory(CallTimings.Listener listener, EventListener.Factory existing) {
+        return call -> {
+            PhaseRecorder recorder = call.request().tag(PhaseRecorder.class);
+            if (recorder == null && listener != null) {
+                recorder = new PhaseRecorder(listener);
+            }
+            EventListener other = existing.create(call);
+            return recorder != null ? TeeEventListener.of(recorder, other) : other;
+        };
+    }
+
+    /** Tags a request so its call reports to {@code recorder}. */
+    static Request tag(Request request, PhaseRecorder recorder) {
+        return request.newBuilder().tag(PhaseRecorder.class, recorder).build();
+    }
+
+    /**
+     * The phases so far. Read before the body is closed, the download and
+     * total run up to now.
+     */
+    synchronized CallTimings timings() {
+        long now = System.nanoTime();
+        long bodyEnd = responseEnd != 0 ? responseEnd : now;
+        long end = callEnd != 0 ? callEnd : now;
+        long tls = between(secureConnectStart, secureConnectEnd);
+        return new CallTimings(
+                Duration.ofNanos(between(dnsStart, dnsEnd)),
+                Duration.ofNanos(Math.max(0, between(connectStart, connectEnd) - tls)),
+                Duration.ofNanos(tls),
+                Duration.ofNanos(between(requestStart, requestEnd)),
+                Duration.ofNanos(between(requestEnd, responseStart)),
+                Duration.ofNanos(between(responseStart, bodyEnd)),
+                Duration.ofNanos(between(callStart, end)),
+                connectStart == 0);
+    }
+
+    private static long between(long start, long end) {
+        return start != 0 && end >= start ? end - start : 0;
+    }
+
+    @Override
+    public synchronized void callStart(Call call) {
+        // A tagged recorder is reused when an async call is re-sent after a 429.
+        dnsStart = dnsEnd = connectStart = connectEnd = secureConnectStart = secureConnectEnd = 0;
+        requestStart = requestEnd = responseStart = responseEnd = callEnd = 0;
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsEnd = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void secureConnectEnd(Call call, Handshake handshake) {
+        secureConnectEnd = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+            Protocol protocol) {
+        connectEnd = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+        responseStart = responseEnd = 0;
+    }
+
+    @Override
+    public synchronized void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void responseHeadersStart(Call call) {
+        responseStart = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void responseBodyEnd(Call call, long byteCount) {
+        responseEnd = System.nanoTime();
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finished(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        finished(call);
+    }
+
+    private void finished(Call call) {
+        synchronized (this) {
+            callEnd = System.nanoTime();
+        }
+        if (listener == null) {
+            return;
+        }
+        Request request = call.request();
+        try {
+            listener.onCall(request.method(), Routes.template(request.url().encodedPath()), timings());
+        } catch (RuntimeException e) {
+            logger.warn("Call timings listener failed", e);
+        }
+    }
+}
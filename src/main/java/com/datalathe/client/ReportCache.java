@@ -0,0 +1,302 @@
+package com.datalathe.client;
+
+import com.datalathe.client.results.Schema;
+import com.datalathe.client.types.GenerateReportResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Byte-bounded LRU cache of {@code generateReport} results with a per-entry
+ * TTL. All operations take the instance lock; lookups are a hash probe,
+ * inserts are weighed before taking it, and the critical sections never do
+ * I/O.
+ */
+class ReportCache {
+    // Rough JVM costs, used only to weigh entries against maxBytes.
+    private static final long STRING_OVERHEAD = 40;
+    private static final long LIST_OVERHEAD = 40;
+    private static final long REFERENCE = 8;
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final long maxBytes;
+    private final long ttlMillis;
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByChip = new HashMap<>();
+    private long bytes;
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    ReportCache(ReportCacheConfig config) {
+        this.maxBytes = config.getMaxBytes();
+        this.ttlMillis = config.getTtlMillis();
+    }
+
+    /**
+     * Invalidation counter; a result fetched while it changed may reflect
+     * a deleted chip and must not be stored.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized GenerateReportResult get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() >= entry.expiresAt) {
+            remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(entry.value);
+    }
+
+    /**
+     * Stores a result unless an invalidation happened since {@code generationAtFetch}.
+     * The result is weighed and copied before taking the lock, since weighing
+     * walks every cell and lookups would otherwise wait behind it.
+     */
+    void put(Key key, GenerateReportResult value, long generationAtFetch) {
+        long weight = weigh(value);
+        if (weight > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(copy(value), weight, clock.getAsLong() + ttlMillis);
+        synchronized (this) {
+            if (generationAtFetch == generation) {
+                insert(key, entry);
+            }
+        }
+    }
+
+    private void insert(Key key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        bytes += entry.weight;
+        for (String chipId : key.chipIds) {
+            keysByChip.computeIfAbsent(chipId, k -> new HashSet<>()).add(key);
+        }
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            eldest.remove();
+            bytes -= victim.getValue().weight;
+            unindex(victim.getKey());
+            evictions++;
+        }
+    }
+
+    /** Drops every entry that read from the given chip. */
+    synchronized void invalidateChip(String chipId) {
+        generation++;
+        Set<Key> keys = keysByChip.remove(chipId);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : new ArrayList<>(keys)) {
+            if (remove(key)) {
+                invalidations++;
+            }
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        keysByChip.clear();
+        bytes = 0;
+    }
+
+    synchronized ReportCacheStats stats() {
+        return new ReportCacheStats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    private boolean remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        bytes -= entry.weight;
+        unindex(key);
+        return true;
+    }
+
+    private void unindex(Key key) {
+        for (String chipId : key.chipIds) {
+            Set<Key> keys = keysByChip.get(chipId);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByChip.remove(chipId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands out a fresh results map so callers can't add or remove entries
+     * in the cached copy. The row lists themselves are shared.
+     */
+    private static GenerateReportResult copy(GenerateReportResult value) {
+        return new GenerateReportResult(new HashMap<>(value.getResults()), value.getTiming(),
+                value.getCallTimings());
+    }
+
+    static long weigh(GenerateReportResult value) {
+        long weight = ENTRY_OVERHEAD;
+        for (GenerateReportResponse.Result result : value.getResults().values()) {
+            weight += ENTRY_OVERHEAD + weighString(result.getError()) + weighString(result.getTransformedQuery());
+            weight += weighRows(result.getResult()) + weighRows(result.getData());
+            if (result.getSchema() != null) {
+                for (Schema column : result.getSchema()) {
+                    weight += 2 * REFERENCE + weighString(column.getName()) + weighString(column.getDataType());
+                }
+            }
+        }
+        return weight;
+    }
+
+    private static long weighRows(List<List<String>> rows) {
+        if (rows == null) {
+            return 0;
+        }
+        long weight = LIST_OVERHEAD;
+        for (List<String> row : rows) {
+            weight += REFERENCE + LIST_OVERHEAD;
+            for (String cell : row) {
+                weight += REFERENCE + weighString(cell);
+            }
+        }
+        return weight;
+    }
+
+    private static long weighString(String s) {
+        return s == null ? 0 : STRING_OVERHEAD + s.length();
+    }
+
+    /**
+     * Cache key: sorted, de-duplicated chip IDs; queries in order with
+     * whitespace outside quoted literals collapsed; and the transform flags.
+     */
+    static final class Key {
+        final List<String> chipIds;
+        final List<String> queries;
+        final Boolean transformQuery;
+        final Boolean returnTransformedQuery;
+        private final int hash;
+
+        Key(List<String> chipIds, List<String> queries, Boolean transformQuery, Boolean returnTransformedQuery) {
+            this.chipIds = List.copyOf(new TreeSet<>(chipIds));
+            List<String> normalized = new ArrayList<>(queries.size());
+            for (String query : queries) {
+                normalized.add(normalize(query));
+            }
+            this.queries = normalized;
+            this.transformQuery = transformQuery;
+            this.returnTransformedQuery = returnTransformedQuery;
+            this.hash = Objects.hash(this.chipIds, this.queries, transformQuery, returnTransformedQuery);
+        }
+
+        /**
+         * Trims the query and collapses whitespace runs to a single space,
+         * leaving quoted strings, identifiers and comments untouched. A
+         * {@code --} comment keeps its terminating newline, since that is
+         * what ends it. Queries with a backslash or {@code $} are only
+         * trimmed: escapes and dollar-quoting vary by dialect, and guessing
+         * wrong could give two different queries the same key.
+         */
+        static String normalize(String query) {
+            if (query == null) {
+                return null;
+            }
+            String trimmed = query.strip();
+            if (trimmed.indexOf('\\') >= 0 || trimmed.indexOf('$') >= 0) {
+                return trimmed;
+            }
+            StringBuilder out = new StringBuilder(trimmed.length());
+            boolean pendingSpace = false;
+            int i = 0;
+            while (i < trimmed.length()) {
+                char c = trimmed.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = out.length() > 0 && out.charAt(out.length() - 1) != '\n';
+                    i++;
+                    continue;
+                }
+                if (pendingSpace) {
+                    out.append(' ');
+                    pendingSpace = false;
+                }
+                int end;
+                if (c == '\'' || c == '"' || c == '`') {
+                    end = trimmed.indexOf(c, i + 1);
+                    end = end < 0 ? trimmed.length() : end + 1;
+                } else if (trimmed.startsWith("--", i)) {
+                    end = trimmed.indexOf('\n', i);
+                    end = end < 0 ? trimmed.length() : end + 1;
+                } else if (trimmed.startsWith("/*", i)) {
+                    end = trimmed.indexOf("*/", i + 2);
+                    end = end < 0 ? trimmed.length() : end + 2;
+                } else {
+                    end = i + 1;
+                }
+                out.append(trimmed, i, end);
+                i = end;
+            }
+            return out.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && chipIds.equals(other.chipIds)
+                    && queries.equals(other.queries)
+                    && Objects.equals(transformQuery, other.transformQuery)
+                    && Objects.equals(returnTransformedQuery, other.returnTransformedQuery);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final GenerateReportResult value;
+        final long weight;
+        final long expiresAt;
+
+        Entry(GenerateReportResult value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
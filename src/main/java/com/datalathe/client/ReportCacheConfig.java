@@ -0,0 +1,32 @@
+package com.datalathe.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Controls the optional client-side cache in front of
+ * {@code generateReport}. Chips are immutable snapshots, so a report over
+ * the same chips with the same queries returns the same rows until one of
+ * those chips is deleted.
+ *
+ * <p>Entries are keyed by the sorted chip IDs, the queries with
+ * insignificant whitespace collapsed, and the transform flags. The cache is
+ * bounded by the estimated in-memory size of the cached results
+ * ({@code maxBytes}), evicting least-recently-used entries first, and each
+ * entry expires {@code ttlMillis} after it was stored. Deleting a chip
+ * through the same client drops every entry that read from it.</p>
+ */
+@Value
+@Builder
+public class ReportCacheConfig {
+    public static final ReportCacheConfig DISABLED = ReportCacheConfig.builder().enabled(false).build();
+
+    @Builder.Default
+    boolean enabled = true;
+
+    @Builder.Default
+    long maxBytes = 64L * 1024 * 1024;
+
+    @Builder.Default
+    long ttlMillis = 5 * 60 * 1000L;
+}
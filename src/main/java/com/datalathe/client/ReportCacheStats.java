@@ -0,0 +1,23 @@
+package com.datalathe.client;
+
+import lombok.Value;
+
+/**
+ * Point-in-time counters for the report cache. Counters are cumulative
+ * since the client was created.
+ */
+@Value
+public class ReportCacheStats {
+    long hitCount;
+    long missCount;
+    long evictionCount;
+    long invalidationCount;
+    int entryCount;
+    long estimatedBytes;
+
+    /** Fraction of lookups served from the cache, or 0 before any lookup. */
+    public double hitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+}
@@ -0,0 +1,31 @@
+package com.datalathe.client;
+
+/**
+ * Token bucket capping extra requests (retries, hedges) at a fraction of
+ * regular traffic: every regular request adds {@code ratio} of a token,
+ * every extra request spends one, and the balance never exceeds
+ * {@code burst}. Starts full.
+ */
+final class RequestBudget {
+    private final double ratio;
+    private final double burst;
+    private double balance;
+
+    RequestBudget(double ratio, int burst) {
+        this.ratio = ratio;
+        this.burst = burst;
+        this.balance = burst;
+    }
+
+    synchronized void deposit() {
+        balance = Math.min(burst, balance + ratio);
+    }
+
+    synchronized boolean withdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+}
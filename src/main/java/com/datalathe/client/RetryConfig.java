@@ -11,7 +11,14 @@ import lombok.Value;
  * <p>Waits between attempts honor the {@code Retry-After} header (seconds),
  * capped at {@code maxWaitMillis}; when the header is missing or
  * unparseable, exponential backoff from {@code backoffBaseMillis} is used.
- * Every wait gets 0&ndash;250ms of random jitter.</p>
+ * Every wait gets 0&ndash;250ms of random jitter. Synchronous calls wait on
+ * the calling thread; async calls are re-sent from a timer, so no
+ * dispatcher thread sleeps.</p>
+ *
+ * <p>Retries draw on a budget so a 429 storm can't multiply load: every
+ * first attempt adds {@code retryBudgetRatio} of a token, every retry
+ * spends one, and the balance never exceeds {@code retryBudgetBurst}.
+ * Once it runs dry, 429s surface immediately until traffic refills it.</p>
  */
 @Value
 @Builder
@@ -30,4 +37,16 @@ public class RetryConfig {
 
     @Builder.Default
     long maxWaitMillis = 30_000;
+
+    /** Long-run ceiling on retries as a fraction of first attempts. */
+    @Builder.Default
+    double retryBudgetRatio = 0.2;
+
+    /** Retries available at once, and to a client that has sent little yet. */
+    @Builder.Default
+    int retryBudgetBurst = 20;
+
+    /** How much of a 429 body is held in memory across the wait. */
+    @Builder.Default
+    long maxPeekBytes = 64 * 1024;
 }
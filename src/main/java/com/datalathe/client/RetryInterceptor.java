@@ -1,40 +1,113 @@
 package com.datalathe.client;
 
+import com.datalathe.client.jfr.RetryWaitEvent;
+import com.datalathe.client.metrics.ClientMetrics;
 import okhttp3.Interceptor;
+import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 import java.io.IOException;
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Retries 429s within the call for synchronous requests. Requests tagged
+ * with an {@link Attempt} are async and pass straight through; their
+ * sender asks {@link #asyncRetryDelay} whether to retry and re-sends
+ * from {@link #schedule}'s timer. Both draw on one {@link RequestBudget}.
+ */
 final class RetryInterceptor implements Interceptor {
     private static final int MAX_JITTER_MILLIS = 250;
 
     private final RetryConfig config;
+    private final RequestBudget budget;
+    private final ClientMetrics metrics;
 
-    RetryInterceptor(RetryConfig config) {
+    RetryInterceptor(RetryConfig config, ClientMetrics metrics) {
         this.config = config;
+        this.metrics = metrics;
+        this.budget = new RequestBudget(config.getRetryBudgetRatio(), config.getRetryBudgetBurst());
     }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
+        Attempt attempt = chain.request().tag(Attempt.class);
+        if (attempt != null) {
+            if (attempt.number == 0) {
+                budget.deposit();
+            }
+            return chain.proceed(chain.request());
+        }
+        budget.deposit();
         Response response = chain.proceed(chain.request());
-        for (int attempt = 0; response.code() == 429 && attempt < config.getMaxRetries(); attempt++) {
-            long waitMillis = waitMillis(response, attempt);
-            ResponseBody buffered = response.peekBody(Long.MAX_VALUE);
+        for (int n = 0; response.code() == 429 && n < config.getMaxRetries() && budget.withdraw(); n++) {
+            long waitMillis = waitMillis(response, n);
+            ResponseBody buffered = response.peekBody(config.getMaxPeekBytes());
             response.close();
+            RetryWaitEvent event = waitEvent(chain.request(), n + 1, false);
             try {
                 Thread.sleep(waitMillis);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 return response.newBuilder().body(buffered).build();
+            } finally {
+                event.commit();
             }
             buffered.close();
+            retried(chain.request());
             response = chain.proceed(chain.request());
         }
         return response;
     }
 
+    /** Marks a request as attempt {@code number} of an async call. */
+    static Request tag(Request request, int number) {
+        return request.newBuilder().tag(Attempt.class, new Attempt(number)).build();
+    }
+
+    /**
+     * Milliseconds to wait before re-sending an async call that got this
+     * response on attempt {@code number}, or -1 to deliver the response.
+     */
+    long asyncRetryDelay(Response response, int number) {
+        if (response.code() != 429 || number >= config.getMaxRetries() || !budget.withdraw()) {
+            return -1;
+        }
+        retried(response.request());
+        return waitMillis(response, number);
+    }
+
+    private void retried(Request request) {
+        if (metrics != ClientMetrics.NOOP) {
+            metrics.retried(request.method(), Routes.template(request.url().encodedPath()));
+        }
+    }
+
+    /** Runs {@code retry}, attempt {@code number} of {@code request}, after the wait. */
+    void schedule(Request request, int number, Runnable retry, long delayMillis) {
+        RetryWaitEvent event = waitEvent(request, number, true);
+        ClientTimer.schedule(() -> {
+            event.commit();
+            retry.run();
+        }, delayMillis);
+    }
+
+    /**
+     * Begins a JFR event for the wait; committing it is a no-op unless a
+     * recording has it enabled.
+     */
+    private static RetryWaitEvent waitEvent(Request request, int number, boolean async) {
+        RetryWaitEvent event = new RetryWaitEvent();
+        if (event.isEnabled()) {
+            event.method = request.method();
+            event.route = Routes.template(request.url().encodedPath());
+            event.attempt = number;
+            event.async = async;
+            event.begin();
+        }
+        return event;
+    }
+
     private long waitMillis(Response response, int attempt) {
         long waitMillis = -1;
         String retryAfter = response.header("Retry-After");
@@ -52,4 +125,12 @@ final class RetryInterceptor implements Interceptor {
         }
         return waitMillis + ThreadLocalRandom.current().nextLong(MAX_JITTER_MILLIS + 1);
     }
+
+    static final class Attempt {
+        final int number;
+
+        Attempt(int number) {
+            this.number = number;
+        }
+    }
 }
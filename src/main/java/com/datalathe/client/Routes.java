@@ -0,0 +1,45 @@
+package com.datalathe.client;
+
+import java.util.Set;
+
+/**
+ * Maps request paths to low-cardinality route templates for metrics, e.g.
+ * {@code /lathe/chips/abc123/tags} to {@code /lathe/chips/{id}/tags}. A
+ * segment is kept when the template so far plus that segment is a known
+ * route prefix, and replaced by {@code {id}} otherwise.
+ */
+final class Routes {
+    private static final Set<String> KNOWN = Set.of(
+            "/lathe",
+            "/lathe/ai", "/lathe/ai/agent", "/lathe/ai/contexts", "/lathe/ai/credentials",
+            "/lathe/ai/query", "/lathe/ai/sessions",
+            "/lathe/chips", "/lathe/chips/query", "/lathe/chips/search", "/lathe/chips/{id}/tags",
+            "/lathe/connections", "/lathe/connections/{id}/test",
+            "/lathe/jobs", "/lathe/jobs/{id}/resume",
+            "/lathe/license",
+            "/lathe/query", "/lathe/query/tables",
+            "/lathe/report",
+            "/lathe/stage", "/lathe/stage/data", "/lathe/stage/databases", "/lathe/stage/schema");
+
+    private Routes() {
+    }
+
+    /** Template for an encoded request path; any base URL prefix before {@code /lathe} is dropped. */
+    static String template(String path) {
+        int start = path.indexOf("/lathe");
+        String rest = start >= 0 ? path.substring(start) : path;
+        StringBuilder template = new StringBuilder();
+        for (String segment : rest.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            int length = template.length();
+            template.append('/').append(segment);
+            if (!KNOWN.contains(template.toString())) {
+                template.setLength(length);
+                template.append("/{id}");
+            }
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.datalathe.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key (the
+ * leader) performs the call, and callers arriving while it is in flight
+ * wait for and share its result instead of issuing their own request. The
+ * key is forgotten as soon as the call completes, so nothing is cached.
+ */
+class SingleFlight {
+    private final ConcurrentHashMap<Object, CompletableFuture<?>> inflight = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface Call<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Runs {@code call} on the calling thread unless an identical call is
+     * already in flight, in which case waits for that one's outcome.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(Object key, Call<T> call) throws IOException {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> leader = (CompletableFuture<T>) inflight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader, "a coalesced request");
+        }
+        try {
+            T value = call.call();
+            mine.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Asynchronous form of {@link #execute}. Each caller gets its own
+     * dependent future, so cancelling one caller's future never cancels
+     * the shared call. A supplier that throws fails this call and its
+     * waiters without leaving the key behind.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> executeAsync(Object key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> leader = (CompletableFuture<T>) inflight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return leader.copy();
+        }
+        CompletableFuture<T> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException | Error e) {
+            inflight.remove(key, mine);
+            mine.completeExceptionally(e);
+            return mine.copy();
+        }
+        started.whenComplete((value, ex) -> {
+            inflight.remove(key, mine);
+            if (ex != null) {
+                mine.completeExceptionally(ex);
+            } else {
+                mine.complete(value);
+            }
+        });
+        return mine.copy();
+    }
+
+    /** Number of distinct calls currently in flight. */
+    int inflightCount() {
+        return inflight.size();
+    }
+
+    /** Waits for {@code future}, rethrowing its failure as the synchronous API would. */
+    static <T> T await(CompletableFuture<T> future, String what) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + what);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
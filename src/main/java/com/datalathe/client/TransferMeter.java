@@ -0,0 +1,167 @@
+package com.datalathe.client;
+
+import com.datalathe.client.metrics.ClientMetrics;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSource;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Counts decoded and on-the-wire body bytes, and applies
+ * {@link CompressionConfig}. Wire bytes come from OkHttp's call events, so
+ * a body that wasn't content-encoded is counted without wrapping its
+ * source: its wire bytes are its decoded bytes. Only encoded bodies, which
+ * OkHttp already runs through a decompressing source, get a counting
+ * source in the application interceptor. Decoded bytes are also reported
+ * per route to {@link ClientMetrics}.
+ */
+final class TransferMeter {
+    private final CompressionConfig config;
+    private final ClientMetrics metrics;
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder requestWireBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder responseWireBytes = new LongAdder();
+
+    TransferMeter(CompressionConfig config, ClientMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    TransferStats stats() {
+        return new TransferStats(requestBytes.sum(), requestWireBytes.sum(),
+                responseBytes.sum(), responseWireBytes.sum());
+    }
+
+    Interceptor application() {
+        return chain -> {
+            Request request = chain.request();
+            String method = request.method();
+            String route = metrics != ClientMetrics.NOOP ? Routes.template(request.url().encodedPath()) : null;
+            RequestBody body = request.body();
+            if (body != null) {
+                long length = body.contentLength();
+                if (length > 0) {
+                    requestBytes.add(length);
+                    if (route != null) {
+                        metrics.requestBytes(method, route, length);
+                    }
+                }
+                if (config.isGzipRequests() && length >= config.getMinRequestBytes()
+                        && request.header("Content-Encoding") == null) {
+                    request = request.newBuilder()
+                            .header("Content-Encoding", "gzip")
+                            .method(request.method(), gzip(body))
+                            .build();
+                }
+            }
+            if (!config.isCompressedResponses() && request.header("Accept-Encoding") == null) {
+                request = request.newBuilder().header("Accept-Encoding", "identity").build();
+            }
+            Response response = chain.proceed(request);
+            if (response.networkResponse() != null && !encoded(response.networkResponse())) {
+                return response;
+            }
+            return counted(response, responseBytes,
+                    route != null ? bytes -> metrics.responseBytes(method, route, bytes) : null);
+        };
+    }
+
+    /** Counts this call's wire bytes, and the decoded bytes of bodies that weren't encoded. */
+    EventListener listener(Call call) {
+        return new WireCounter(call.request());
+    }
+
+    /** Compresses into a buffer up front so the wire length is known. */
+    private static RequestBody gzip(RequestBody body) throws IOException {
+        Buffer compressed = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+            body.writeTo(sink);
+        }
+        MediaType type = body.contentType();
+        return RequestBody.create(compressed.readByteString(), type);
+    }
+
+    private static boolean encoded(Response response) {
+        String encoding = response.header("Content-Encoding");
+        return encoding != null && !"identity".equalsIgnoreCase(encoding);
+    }
+
+    /** Counts body bytes as they are read; {@code onClose}, if set, gets this body's total once. */
+    private static Response counted(Response response, LongAdder counter, LongConsumer onClose) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        Source source = new ForwardingSource(body.source()) {
+            private long total;
+            private boolean closed;
+
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read > 0) {
+                    counter.add(read);
+                    total += read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed && onClose != null) {
+                    closed = true;
+                    onClose.accept(total);
+                }
+                super.close();
+            }
+        };
+        ResponseBody wrapped = ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength());
+        return response.newBuilder().body(wrapped).build();
+    }
+
+    private final class WireCounter extends EventListener {
+        private final Request request;
+        private volatile boolean encoded;
+
+        WireCounter(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestWireBytes.add(byteCount);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            encoded = encoded(response);
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            responseWireBytes.add(byteCount);
+            if (encoded) {
+                return;
+            }
+            responseBytes.add(byteCount);
+            if (metrics != ClientMetrics.NOOP) {
+                metrics.responseBytes(request.method(), Routes.template(request.url().encodedPath()), byteCount);
+            }
+        }
+    }
+}
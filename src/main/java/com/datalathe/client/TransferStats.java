@@ -0,0 +1,28 @@
+package com.datalathe.client;
+
+import lombok.Value;
+
+/**
+ * Bytes this client has moved, both as the application sees them (decoded)
+ * and as they crossed the network (wire). Response bytes are counted as
+ * they are read, or for bodies that weren't compressed, once they are read
+ * to the end or closed; abandoned bodies only count what was consumed.
+ * Retried requests count once per attempt on the wire.
+ */
+@Value
+public class TransferStats {
+    long requestBytes;
+    long requestWireBytes;
+    long responseBytes;
+    long responseWireBytes;
+
+    /** Decoded response bytes per wire byte; 1.0 when nothing was compressed or read. */
+    public double responseCompressionRatio() {
+        return responseWireBytes == 0 ? 1.0 : (double) responseBytes / responseWireBytes;
+    }
+
+    /** Decoded request bytes per wire byte; 1.0 when nothing was compressed or sent. */
+    public double requestCompressionRatio() {
+        return requestWireBytes == 0 ? 1.0 : (double) requestBytes / requestWireBytes;
+    }
+}
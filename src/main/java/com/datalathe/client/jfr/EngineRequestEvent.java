@@ -0,0 +1,40 @@
+package com.datalathe.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP attempt against the engine, from sending the request until the
+ * response headers arrive. Body download is not included; streamed reports
+ * show up as {@link StreamFrameEvent}s instead.
+ */
+@Name("com.datalathe.client.EngineRequest")
+@Label("Engine Request")
+@Category({ "Datalathe", "Client" })
+@Description("An HTTP request to the datalathe engine, up to the response headers")
+@StackTrace(false)
+public final class EngineRequestEvent extends jdk.jfr.Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    @Description("Request path with IDs replaced by {id}")
+    public String route;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 when the request failed without a response")
+    public int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @Description("Declared Content-Length, or -1 when unknown")
+    @DataAmount
+    public long responseBytes;
+}
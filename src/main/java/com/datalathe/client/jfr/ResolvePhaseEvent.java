@@ -0,0 +1,41 @@
+package com.datalathe.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of a {@code ChipResolver} resolve: {@code search} for the
+ * tenant's chips, {@code diff} against the tables needed, {@code create}
+ * of one missing chip, or {@code evict} of one stale chip.
+ */
+@Name("com.datalathe.client.ResolvePhase")
+@Label("Chip Resolve Phase")
+@Category({ "Datalathe", "Chip Resolver" })
+@StackTrace(false)
+public final class ResolvePhaseEvent extends jdk.jfr.Event {
+    @Label("Phase")
+    public String phase;
+
+    @Label("Tenant")
+    @Description("Tenant tag as key:value")
+    public String tenant;
+
+    @Label("Table")
+    public String table;
+
+    @Label("Partition Value")
+    public String partitionValue;
+
+    @Label("Chip ID")
+    public String chipId;
+
+    @Label("Chip Count")
+    @Description("Chips found for search; chips missing for diff")
+    public int chipCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
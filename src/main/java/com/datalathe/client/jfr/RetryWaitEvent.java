@@ -0,0 +1,32 @@
+package com.datalathe.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The wait before a 429 is retried. Synchronous calls sleep through it on
+ * the calling thread; async calls hold no thread and commit the event from
+ * the timer when the retry is sent.
+ */
+@Name("com.datalathe.client.RetryWait")
+@Label("Retry Wait")
+@Category({ "Datalathe", "Client" })
+@Description("Backoff before retrying a throttled engine request")
+@StackTrace(false)
+public final class RetryWaitEvent extends jdk.jfr.Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    public String route;
+
+    @Label("Attempt")
+    @Description("Number of the retry that follows the wait, starting at 1")
+    public int attempt;
+
+    @Label("Async")
+    public boolean async;
+}
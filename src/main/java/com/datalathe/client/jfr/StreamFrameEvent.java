@@ -0,0 +1,27 @@
+package com.datalathe.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reading and decoding one NDJSON frame of a streamed report, including
+ * any wait for its bytes to arrive.
+ */
+@Name("com.datalathe.client.StreamFrame")
+@Label("Stream Frame Decode")
+@Category({ "Datalathe", "Client" })
+@StackTrace(false)
+public final class StreamFrameEvent extends jdk.jfr.Event {
+    @Label("Frame Type")
+    public String frameType;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,44 @@
+package com.datalathe.client.metrics;
+
+/**
+ * Receives measurements of every engine call a {@code DatalatheClient}
+ * makes; install one with {@code DatalatheClient.Builder.metrics}. All
+ * methods default to no-ops, so implementations override only what they
+ * record. Methods are called on request threads and must be quick and
+ * thread-safe.
+ *
+ * <p>{@code route} is the request path with IDs replaced by {@code {id}},
+ * e.g. {@code /lathe/chips/{id}}, so it is safe to use as a metric tag.
+ * Each attempt of a retried call is a separate request.</p>
+ *
+ * @see InMemoryClientMetrics
+ * @see MicrometerClientMetrics
+ */
+public interface ClientMetrics {
+    ClientMetrics NOOP = new ClientMetrics() {
+    };
+
+    /** A request is about to be sent. */
+    default void requestStarted(String method, String route) {
+    }
+
+    /**
+     * A request finished. {@code status} is the HTTP status, or 0 when the
+     * call failed without a response (connection error, timeout,
+     * cancellation).
+     */
+    default void requestCompleted(String method, String route, int status, long durationNanos) {
+    }
+
+    /** Decoded bytes of a request body, before any compression. */
+    default void requestBytes(String method, String route, long bytes) {
+    }
+
+    /** Decoded bytes of a response body that were read, reported when the body is closed. */
+    default void responseBytes(String method, String route, long bytes) {
+    }
+
+    /** A 429 response is about to be retried. */
+    default void retried(String method, String route) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.datalathe.client.metrics;
+
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dependency-free {@link ClientMetrics} that keeps per-endpoint counters
+ * and a fixed-bucket latency histogram in memory. Read it with
+ * {@link #snapshot()}, e.g. from a health endpoint or a periodic log line.
+ */
+public class InMemoryClientMetrics implements ClientMetrics {
+    /** Upper bounds of the latency buckets in milliseconds; a final bucket holds the rest. */
+    public static final long[] BUCKET_BOUNDS_MILLIS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000, 300_000 };
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestStarted(String method, String route) {
+        endpoint(method, route).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(String method, String route, int status, long durationNanos) {
+        Endpoint endpoint = endpoint(method, route);
+        endpoint.inFlight.decrementAndGet();
+        endpoint.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        endpoint.totalNanos.add(durationNanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        int bucket = Arrays.binarySearch(BUCKET_BOUNDS_MILLIS, millis);
+        endpoint.buckets.incrementAndGet(bucket >= 0 ? bucket : -bucket - 1);
+    }
+
+    @Override
+    public void requestBytes(String method, String route, long bytes) {
+        endpoint(method, route).requestBytes.add(bytes);
+    }
+
+    @Override
+    public void responseBytes(String method, String route, long bytes) {
+        endpoint(method, route).responseBytes.add(bytes);
+    }
+
+    @Override
+    public void retried(String method, String route) {
+        endpoint(method, route).retries.increment();
+    }
+
+    /** Current values keyed by {@code "METHOD route"}, sorted. */
+    public Map<String, EndpointMetrics> snapshot() {
+        Map<String, EndpointMetrics> snapshot = new TreeMap<>();
+        endpoints.forEach((key, endpoint) -> snapshot.put(key, endpoint.snapshot(key)));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private Endpoint endpoint(String method, String route) {
+        return endpoints.computeIfAbsent(method + " " + route, k -> new Endpoint());
+    }
+
+    private static final class Endpoint {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder retries = new LongAdder();
+
+        EndpointMetrics snapshot(String key) {
+            Map<Integer, Long> statusCounts = new TreeMap<>();
+            statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return new EndpointMetrics(key, Collections.unmodifiableMap(statusCounts), inFlight.get(),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()), counts,
+                    requestBytes.sum(), responseBytes.sum(), retries.sum());
+        }
+    }
+
+    /** Point-in-time metrics for one endpoint. */
+    @Value
+    public static class EndpointMetrics {
+        String endpoint;
+        /** Completed requests by HTTP status; 0 counts calls that got no response. */
+        Map<Integer, Long> statusCounts;
+        int inFlight;
+        long totalMillis;
+        /** Requests per latency bucket, aligned with {@link #BUCKET_BOUNDS_MILLIS}. */
+        long[] latencyBuckets;
+        long requestBytes;
+        long responseBytes;
+        long retryCount;
+
+        public long requestCount() {
+            long total = 0;
+            for (long count : latencyBuckets) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Estimated latency at the given percentile (0&ndash;1): the upper
+         * bound of the bucket it falls in, or -1 before any request and
+         * {@code Long.MAX_VALUE} past the last bound.
+         */
+        public long percentileMillis(double percentile) {
+            long total = requestCount();
+            if (total == 0) {
+                return -1;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile * total));
+            long seen = 0;
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                seen += latencyBuckets[i];
+                if (seen >= rank) {
+                    return i < BUCKET_BOUNDS_MILLIS.length ? BUCKET_BOUNDS_MILLIS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.datalathe.client.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ClientMetrics} backed by a Micrometer {@link MeterRegistry}.
+ * Micrometer is an optional dependency of this library: add
+ * {@code io.micrometer:micrometer-core} to your own build to use this
+ * class; nothing else in the client loads it.
+ *
+ * <p>Meters, all tagged {@code method} and {@code uri} (the route):</p>
+ * <ul>
+ *   <li>{@code datalathe.client.requests} timer, also tagged {@code status},
+ *       with a percentile histogram</li>
+ *   <li>{@code datalathe.client.requests.active} gauge</li>
+ *   <li>{@code datalathe.client.request.size} and
+ *       {@code datalathe.client.response.size} summaries, in bytes</li>
+ *   <li>{@code datalathe.client.retries} counter</li>
+ * </ul>
+ */
+public class MicrometerClientMetrics implements ClientMetrics {
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public MicrometerClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void requestStarted(String method, String route) {
+        active(method, route).incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(String method, String route, int status, long durationNanos) {
+        active(method, route).decrementAndGet();
+        Timer.builder("datalathe.client.requests")
+                .tags(tags(method, route).and("status", status == 0 ? "IO_ERROR" : Integer.toString(status)))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void requestBytes(String method, String route, long bytes) {
+        DistributionSummary.builder("datalathe.client.request.size")
+                .baseUnit("bytes")
+                .tags(tags(method, route))
+                .register(registry)
+                .record(bytes);
+    }
+
+    @Override
+    public void responseBytes(String method, String route, long bytes) {
+        DistributionSummary.builder("datalathe.client.response.size")
+                .baseUnit("bytes")
+                .tags(tags(method, route))
+                .register(registry)
+                .record(bytes);
+    }
+
+    @Override
+    public void retried(String method, String route) {
+        Counter.builder("datalathe.client.retries")
+                .tags(tags(method, route))
+                .register(registry)
+                .increment();
+    }
+
+    private AtomicInteger active(String method, String route) {
+        return active.computeIfAbsent(method + " " + route, k -> registry.gauge(
+                "datalathe.client.requests.active", tags(method, route), new AtomicInteger()));
+    }
+
+    private static Tags tags(String method, String route) {
+        return Tags.of("method", method, "uri", route);
+    }
+}
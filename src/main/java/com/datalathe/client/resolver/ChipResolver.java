@@ -3,15 +3,22 @@ package com.datalathe.client.resolver;
 import com.datalathe.client.ChipNotFoundException;
 import com.datalathe.client.DatalatheApiException;
 import com.datalathe.client.DatalatheClient;
+import com.datalathe.client.IngestFailedException;
+import com.datalathe.client.IngestJobWatcher;
 import com.datalathe.client.SearchChipsResponse;
+import com.datalathe.client.jfr.ResolvePhaseEvent;
 import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.ExtractTablesResponse;
+import com.datalathe.client.types.IngestJobStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * Resolves the set of chips needed for a report, creating any that are missing.
@@ -66,39 +73,49 @@ import java.util.function.LongSupplier;
  * those tags atomically when it creates the table's chips and, on every resolve,
  * deletes any matched chip whose tags are missing an entry or hold a different
  * value, then creates the replacement in the same pass — callers never see the
- * eviction. Semantics, convergence guarantee, and caveats (other writers'
+ * eviction. Deletes run concurrently on the executor (see
+ * {@link ChipResolverConfig#getEvictionConcurrency()}), and each replacement
+ * starts as soon as its own predecessor is gone. Semantics, convergence guarantee, and caveats (other writers'
  * untagged chips, partitioned-table mass re-stage, at-least-once eviction under
  * concurrent resolvers) are documented on {@link ChipFactory#freshnessTags}.</p>
+ *
+ * <h3>Async ingest</h3>
+ * <p>By default each creation blocks an executor thread on {@code createChip}.
+ * With {@link ChipResolverConfig#isAsyncIngest()} the resolver instead submits
+ * an asynchronous ingest job and tracks it with an {@link IngestJobWatcher}, so a
+ * small executor can drive hundreds of concurrent chip builds. A job that fails
+ * part way is resumed from its last committed chunk rather than restarted.</p>
  */
 public class ChipResolver {
 
     private static final Logger log = LogManager.getLogger(ChipResolver.class);
-    private static final long DEFAULT_TIMEOUT_MINUTES = 10;
-    private static final long DEFAULT_EMPTY_RECHECK_MINUTES = 30;
     private static final String LEGACY_EMPTY_MESSAGE = "No partitions to register";
 
     private final DatalatheClient client;
     private final ExecutorService executor;
     private final long timeoutMinutes;
     private final long emptyRecheckMinutes;
+    private final int evictionConcurrency;
     private final ConcurrentHashMap<String, CompletableFuture<String>> inflight =
             new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Long> emptySince = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> tablesByQuery;
+    private final TenantChipIndex tenantIndex;
+    private final IngestJobWatcher ingestWatcher;
+    private final int maxIngestResumes;
 
     LongSupplier clock = System::currentTimeMillis;
 
     public ChipResolver(DatalatheClient client) {
-        this(client, Executors.newFixedThreadPool(
-                Math.max(4, Runtime.getRuntime().availableProcessors()),
-                r -> {
-                    Thread t = new Thread(r, "chip-resolver");
-                    t.setDaemon(true);
-                    return t;
-                }), DEFAULT_TIMEOUT_MINUTES);
+        this(client, ChipResolverConfig.DEFAULT);
+    }
+
+    public ChipResolver(DatalatheClient client, ChipResolverConfig config) {
+        this(client, defaultExecutor(), config);
     }
 
     public ChipResolver(DatalatheClient client, ExecutorService executor, long timeoutMinutes) {
-        this(client, executor, timeoutMinutes, DEFAULT_EMPTY_RECHECK_MINUTES);
+        this(client, executor, ChipResolverConfig.builder().timeoutMinutes(timeoutMinutes).build());
     }
 
     /**
@@ -108,10 +125,44 @@ public class ChipResolver {
      */
     public ChipResolver(DatalatheClient client, ExecutorService executor, long timeoutMinutes,
                         long emptyRecheckMinutes) {
+        this(client, executor, ChipResolverConfig.builder()
+                .timeoutMinutes(timeoutMinutes)
+                .emptyRecheckMinutes(emptyRecheckMinutes)
+                .build());
+    }
+
+    /**
+     * @param executor runs chip creations and evictions
+     * @param config   timeouts and cache sizes; see {@link ChipResolverConfig}
+     */
+    public ChipResolver(DatalatheClient client, ExecutorService executor, ChipResolverConfig config) {
         this.client = client;
         this.executor = executor;
-        this.timeoutMinutes = timeoutMinutes;
-        this.emptyRecheckMinutes = emptyRecheckMinutes;
+        this.timeoutMinutes = config.getTimeoutMinutes();
+        this.emptyRecheckMinutes = config.getEmptyRecheckMinutes();
+        this.evictionConcurrency = Math.max(1, config.getEvictionConcurrency());
+        this.tablesByQuery = config.getExtractCacheSize() > 0
+                ? Collections.synchronizedMap(new LruMap<>(config.getExtractCacheSize()))
+                : null;
+        this.tenantIndex = config.getTenantIndexTtlMillis() > 0
+                ? new TenantChipIndex(config.getTenantIndexTtlMillis(), () -> clock.getAsLong())
+                : null;
+        this.ingestWatcher = config.isAsyncIngest()
+                ? new IngestJobWatcher(client, Duration.ofMillis(config.getIngestPollIntervalMillis()),
+                        Duration.ofMillis(Math.max(config.getIngestPollIntervalMillis(),
+                                config.getIngestMaxPollIntervalMillis())))
+                : null;
+        this.maxIngestResumes = config.getMaxIngestResumes();
+    }
+
+    private static ExecutorService defaultExecutor() {
+        return Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()),
+                r -> {
+                    Thread t = new Thread(r, "chip-resolver");
+                    t.setDaemon(true);
+                    return t;
+                });
     }
 
     public long getEmptyRecheckMinutes() {
@@ -120,7 +171,9 @@ public class ChipResolver {
 
     /**
      * Resolves chips from SQL queries. Extracts table names via
-     * {@code extractTables()}, then resolves.
+     * {@code extractTables()}, then resolves. Extracted tables are cached per
+     * SQL text, and the queries not yet in the cache are parsed in parallel
+     * as async client calls.
      *
      * @param reportQueries   SQL queries to parse for table names
      * @param partitionValues partition values for partitioned tables (e.g. months)
@@ -154,15 +207,46 @@ public class ChipResolver {
                                  String tagKey, String tagValue,
                                  ChipFactory factory,
                                  boolean transform) throws IOException {
+        return resolveForTables(extractTables(reportQueries, transform),
+                partitionValues, tagKey, tagValue, factory);
+    }
+
+    private Set<String> extractTables(List<String> reportQueries, boolean transform) throws IOException {
         Set<String> tables = new HashSet<>();
+        Map<String, CompletableFuture<List<String>>> misses = new LinkedHashMap<>();
         for (String query : reportQueries) {
-            if (transform) {
-                tables.addAll(client.extractTablesWithTransform(query, true).getTables());
-            } else {
-                tables.addAll(client.extractTables(query));
+            String cacheKey = (transform ? "T|" : "N|") + query;
+            List<String> cached = tablesByQuery != null ? tablesByQuery.get(cacheKey) : null;
+            if (cached != null) {
+                tables.addAll(cached);
+            } else if (!misses.containsKey(cacheKey)) {
+                // On the client's dispatcher, not the executor: misses must not queue behind chip creations
+                misses.put(cacheKey, transform
+                        ? client.async().extractTablesWithTransform(query, true)
+                                .thenApply(ExtractTablesResponse::getTables)
+                        : client.async().extractTables(query));
             }
         }
-        return resolveForTables(tables, partitionValues, tagKey, tagValue, factory);
+        for (var miss : misses.entrySet()) {
+            List<String> extracted;
+            try {
+                extracted = miss.getValue().join();
+            } catch (CompletionException e) {
+                for (var other : misses.values()) {
+                    other.cancel(false);
+                }
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw e;
+            }
+            extracted = extracted != null ? List.copyOf(extracted) : List.of();
+            if (tablesByQuery != null) {
+                tablesByQuery.put(miss.getKey(), extracted);
+            }
+            tables.addAll(extracted);
+        }
+        return tables;
     }
 
     /**
@@ -203,7 +287,13 @@ public class ChipResolver {
         }
 
         // Search existing chips by tag
-        SearchChipsResponse existing = client.searchChips(null, null, tagKey, tagValue);
+        String tenant = tagKey + ":" + tagValue;
+        ResolvePhaseEvent search = phaseEvent("search", tenant);
+        SearchChipsResponse existing = searchTenant(tagKey, tagValue);
+        search.chipCount = existing.getChips() != null ? existing.getChips().size() : 0;
+        search.succeeded = true;
+        search.commit();
+        ResolvePhaseEvent diff = phaseEvent("diff", tenant);
 
         // Index existing chips by table and (table|pv)
         Set<String> existingUnpartitionedTables = new HashSet<>();
@@ -223,7 +313,7 @@ public class ChipResolver {
                         .put(tag.getKey(), tag.getValue());
             }
         }
-        Set<String> evictedChipIds = new HashSet<>();
+        Evictions evictions = new Evictions(tenant);
 
         if (existing.getChips() != null) {
             for (var chip : existing.getChips()) {
@@ -231,7 +321,8 @@ public class ChipResolver {
 
                 if (unpartitionedTables.contains(table)
                         && chip.getChipId().equals(chip.getSubChipId())) {
-                    if (evictIfStale(chip, freshnessByTable.get(table), tagsByChip, evictedChipIds)) {
+                    if (isStale(chip, freshnessByTable.get(table), tagsByChip)) {
+                        evictions.schedule(chip, table + "|" + null);
                         continue;
                     }
                     if (existingUnpartitionedTables.add(table)) {
@@ -243,7 +334,8 @@ public class ChipResolver {
                     }
                 } else if (partitionedTables.contains(table)
                         && pvSet.contains(chip.getPartitionValue())) {
-                    if (evictIfStale(chip, freshnessByTable.get(table), tagsByChip, evictedChipIds)) {
+                    if (isStale(chip, freshnessByTable.get(table), tagsByChip)) {
+                        evictions.schedule(chip, table + "|" + chip.getPartitionValue());
                         continue;
                     }
                     if (existingPartitionedKeys.add(table + "|" + chip.getPartitionValue())) {
@@ -275,27 +367,36 @@ public class ChipResolver {
             }
         }
 
+        diff.chipCount = missingUnpartitioned.size() + missingPartitioned.size();
+        diff.succeeded = true;
+        diff.commit();
+
         if (missingUnpartitioned.isEmpty() && missingPartitioned.isEmpty()) {
+            evictions.await();
             return new ResolvedChips(existingUnpartitionedIds, existingPartitionedIds);
         }
 
-        // Create missing chips in parallel with dedup gate
+        // Create missing chips in parallel with dedup gate; a chip replacing
+        // a stale one starts as soon as that chip's eviction finishes
         List<CompletableFuture<String>> unpartitionedFutures = new ArrayList<>();
         for (String table : missingUnpartitioned) {
-            unpartitionedFutures.add(getOrCreate(table, null, tagKey, tagValue, factory,
-                    freshnessByTable.get(table)));
+            unpartitionedFutures.add(evictions.thenCreate(table + "|" + null,
+                    () -> getOrCreate(table, null, tagKey, tagValue, factory,
+                            freshnessByTable.get(table))));
         }
 
         List<CompletableFuture<String>> partitionedFutures = new ArrayList<>();
         for (PartitionGap gap : missingPartitioned) {
-            partitionedFutures.add(getOrCreate(gap.table(), gap.partitionValue(), tagKey, tagValue, factory,
-                    freshnessByTable.get(gap.table())));
+            partitionedFutures.add(evictions.thenCreate(gap.table() + "|" + gap.partitionValue(),
+                    () -> getOrCreate(gap.table(), gap.partitionValue(), tagKey, tagValue, factory,
+                            freshnessByTable.get(gap.table()))));
         }
 
         List<CompletableFuture<?>> allFutures = new ArrayList<>();
         allFutures.addAll(unpartitionedFutures);
         allFutures.addAll(partitionedFutures);
         CompletableFuture.allOf(allFutures.toArray(CompletableFuture[]::new)).join();
+        evictions.await();
 
         // Collect results
         List<String> unpartitionedIds = new ArrayList<>(existingUnpartitionedIds);
@@ -336,55 +437,160 @@ public class ChipResolver {
 
         return inflight.computeIfAbsent(key, k -> {
             log.info("Creating chip for table={} partition={}", table, partitionValue);
+            ResolvePhaseEvent create = phaseEvent("create", tagKey + ":" + tagValue);
+            create.table = table;
+            create.partitionValue = partitionValue;
 
-            return CompletableFuture
-                    .supplyAsync(() -> {
+            CompletableFuture<String> created = ingestWatcher != null
+                    ? createViaIngestJob(key, table, partitionValue, tagKey, tagValue, factory, tags)
+                    : CompletableFuture.supplyAsync(() -> {
                         try {
                             ChipSource source = factory.buildSource(table, partitionValue);
                             String id = client.createChip(source, null, tags);
-                            emptySince.remove(key);
+                            chipCreated(key, table, partitionValue, tagKey, tagValue, id, tags);
                             return id;
                         } catch (IOException e) {
                             handleCreateFailure(key, table, partitionValue, e);
                             return null;
                         }
-                    }, executor)
+                    }, executor);
+            return created
                     .orTimeout(timeoutMinutes, TimeUnit.MINUTES)
                     .whenComplete((id, ex) -> {
                         if (id == null || ex != null) inflight.remove(key);
+                        create.chipId = id;
+                        create.chipCount = id != null ? 1 : 0;
+                        create.succeeded = ex == null;
+                        create.commit();
                     });
         });
     }
 
     /**
-     * Deletes the chip when its tags don't carry every expected freshness
-     * entry. Returns true when the chip should be treated as missing (deleted
-     * here, already deleted concurrently, or evicted earlier in this pass).
-     * A failed delete keeps the stale chip in play — serving stale data beats
-     * creating a duplicate alongside a chip that wouldn't die.
+     * Submits the chip as an asynchronous ingest job and hands it to the
+     * shared watcher; no thread is held while the chip builds.
+     */
+    private CompletableFuture<String> createViaIngestJob(String key, String table, String partitionValue,
+                                                         String tagKey, String tagValue,
+                                                         ChipFactory factory, Map<String, String> tags) {
+        return CompletableFuture
+                .supplyAsync(() -> factory.buildSource(table, partitionValue), executor)
+                .thenCompose(source -> client.async().createChipAsync(source, null, tags))
+                .thenCompose(handle -> awaitIngest(handle.getJobId(), handle.getChipId(), maxIngestResumes))
+                .handle((id, ex) -> {
+                    if (ex == null) {
+                        chipCreated(key, table, partitionValue, tagKey, tagValue, id, tags);
+                        return id;
+                    }
+                    Throwable cause = unwrap(ex);
+                    if (cause instanceof IOException io) {
+                        handleCreateFailure(key, table, partitionValue, io);
+                        return null;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Waits for the ingest job, resuming it from its last committed chunk
+     * when it fails, up to {@code resumesLeft} times.
      */
-    private boolean evictIfStale(SearchChipsResponse.ChipRecord chip,
-                                 Map<String, String> expected,
-                                 Map<String, Map<String, String>> tagsByChip,
-                                 Set<String> evictedChipIds) {
+    private CompletableFuture<String> awaitIngest(String jobId, String chipId, int resumesLeft) {
+        return ingestWatcher.watch(jobId)
+                .thenApply(job -> job.getChipId() != null ? job.getChipId() : chipId)
+                .exceptionallyCompose(ex -> {
+                    Throwable cause = unwrap(ex);
+                    if (!(cause instanceof IngestFailedException failed)
+                            || failed.getStatus() != IngestJobStatus.FAILED || resumesLeft <= 0) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    log.info("Resuming ingest job {} ({} resume(s) left) after: {}",
+                            jobId, resumesLeft - 1, failed.getJobError());
+                    return client.async().resumeIngestJob(jobId)
+                            .exceptionallyCompose(resumeEx -> {
+                                failed.addSuppressed(unwrap(resumeEx));
+                                return CompletableFuture.failedFuture(failed);
+                            })
+                            .thenCompose(resumed -> awaitIngest(
+                                    resumed.getJobId() != null ? resumed.getJobId() : jobId,
+                                    chipId, resumesLeft - 1));
+                });
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private void chipCreated(String key, String table, String partitionValue,
+                             String tagKey, String tagValue, String id, Map<String, String> tags) {
+        emptySince.remove(key);
+        if (tenantIndex != null) {
+            tenantIndex.chipCreated(tagKey + ":" + tagValue, id, table, partitionValue, tags);
+        }
+    }
+
+    /**
+     * Searches the tenant's chips, answering from the tenant index while it
+     * is fresh.
+     */
+    private SearchChipsResponse searchTenant(String tagKey, String tagValue) throws IOException {
+        if (tenantIndex == null) {
+            return client.searchChips(null, null, tagKey, tagValue);
+        }
+        String tenant = tagKey + ":" + tagValue;
+        SearchChipsResponse cached = tenantIndex.get(tenant);
+        if (cached != null) {
+            return cached;
+        }
+        long version = tenantIndex.version(tenant);
+        SearchChipsResponse fresh = client.searchChips(null, null, tagKey, tagValue);
+        tenantIndex.put(tenant, fresh, version);
+        return fresh;
+    }
+
+    /**
+     * Starts timing a resolve phase for JFR. The event is only filled in
+     * and committed when a recording has it enabled.
+     */
+    private static ResolvePhaseEvent phaseEvent(String phase, String tenant) {
+        ResolvePhaseEvent event = new ResolvePhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase;
+            event.tenant = tenant;
+            event.begin();
+        }
+        return event;
+    }
+
+    /** Whether the chip's tags are missing, or differ from, any expected freshness entry. */
+    private static boolean isStale(SearchChipsResponse.ChipRecord chip,
+                                   Map<String, String> expected,
+                                   Map<String, Map<String, String>> tagsByChip) {
         if (expected == null) {
             return false;
         }
-        String chipId = chip.getChipId();
-        if (evictedChipIds.contains(chipId)) {
-            return true;
-        }
-        Map<String, String> chipTags = tagsByChip.getOrDefault(chipId, Map.of());
-        boolean stale = false;
+        Map<String, String> chipTags = tagsByChip.getOrDefault(chip.getChipId(), Map.of());
         for (var entry : expected.entrySet()) {
             if (!entry.getValue().equals(chipTags.get(entry.getKey()))) {
-                stale = true;
-                break;
+                return true;
             }
         }
-        if (!stale) {
-            return false;
-        }
+        return false;
+    }
+
+    /**
+     * Deletes a stale chip. Returns true when the chip is gone (deleted here
+     * or already deleted concurrently). A failed delete keeps the stale chip
+     * in play — serving stale data beats creating a duplicate alongside a
+     * chip that wouldn't die.
+     */
+    private boolean evict(String tenant, SearchChipsResponse.ChipRecord chip) {
+        String chipId = chip.getChipId();
+        ResolvePhaseEvent event = phaseEvent("evict", tenant);
+        event.table = chip.getTableName();
+        event.partitionValue = chip.getPartitionValue();
+        event.chipId = chipId;
+        event.chipCount = 1;
         try {
             client.deleteChip(chipId);
             log.info("Evicted stale chip {} for table={} partition={} (freshness tags changed)",
@@ -392,15 +598,81 @@ public class ChipResolver {
         } catch (ChipNotFoundException e) {
             log.info("Stale chip {} for table={} already deleted concurrently",
                     chipId, chip.getTableName());
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             log.warn("Failed to evict stale chip {} for table={}; keeping it this resolve",
                     chipId, chip.getTableName(), e);
+            event.commit();
             return false;
         }
-        evictedChipIds.add(chipId);
+        event.succeeded = true;
+        event.commit();
+        if (tenantIndex != null) {
+            tenantIndex.chipDeleted(tenant, chipId);
+        }
         return true;
     }
 
+    /**
+     * Stale-chip evictions for one resolve. Deletes run on the executor,
+     * spread over at most {@code evictionConcurrency} lanes that each delete
+     * one chip at a time.
+     */
+    private final class Evictions {
+        private final CompletableFuture<?>[] lanes = new CompletableFuture<?>[evictionConcurrency];
+        private int next;
+        private final Map<String, CompletableFuture<Boolean>> byChip = new HashMap<>();
+        private final Map<String, List<String>> chipsByKey = new HashMap<>();
+        private final String tenant;
+
+        Evictions(String tenant) {
+            this.tenant = tenant;
+        }
+
+        void schedule(SearchChipsResponse.ChipRecord chip, String key) {
+            String chipId = chip.getChipId();
+            List<String> chipIds = chipsByKey.computeIfAbsent(key, k -> new ArrayList<>());
+            if (!chipIds.contains(chipId)) {
+                chipIds.add(chipId);
+            }
+            byChip.computeIfAbsent(chipId, id -> {
+                int lane = next++ % lanes.length;
+                CompletableFuture<Boolean> eviction = lanes[lane] == null
+                        ? CompletableFuture.supplyAsync(() -> evict(tenant, chip), executor)
+                        : lanes[lane].thenApplyAsync(ignored -> evict(tenant, chip), executor);
+                lanes[lane] = eviction;
+                return eviction;
+            });
+        }
+
+        /**
+         * Runs {@code create} once every stale chip for {@code key} is gone;
+         * if one of them couldn't be deleted, resolves to that chip instead.
+         */
+        CompletableFuture<String> thenCreate(String key, Supplier<CompletableFuture<String>> create) {
+            List<String> chipIds = chipsByKey.get(key);
+            if (chipIds == null) {
+                return create.get();
+            }
+            List<CompletableFuture<Boolean>> pending = new ArrayList<>();
+            for (String chipId : chipIds) {
+                pending.add(byChip.get(chipId));
+            }
+            return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .thenCompose(ignored -> {
+                        for (int i = 0; i < pending.size(); i++) {
+                            if (!pending.get(i).join()) {
+                                return CompletableFuture.completedFuture(chipIds.get(i));
+                            }
+                        }
+                        return create.get();
+                    });
+        }
+
+        void await() {
+            CompletableFuture.allOf(byChip.values().toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
     private void handleCreateFailure(String key, String table, String partitionValue, IOException e) {
         if (isEmptySource(e)) {
             if (emptyRecheckMinutes > 0) {
@@ -448,4 +720,34 @@ public class ChipResolver {
     public int inflightCount() {
         return inflight.size();
     }
+
+    /**
+     * Drops the tenant's cached chip index so the next resolve searches the
+     * engine. Call this when chips may have changed behind the resolver's
+     * back, e.g. after a report fails with a missing chip.
+     */
+    public void invalidateTenant(String tagKey, String tagValue) {
+        if (tenantIndex != null) {
+            tenantIndex.invalidate(tagKey + ":" + tagValue);
+        }
+    }
+
+    /** Returns the number of SQL texts whose extracted tables are cached. */
+    public int extractCacheCount() {
+        return tablesByQuery != null ? tablesByQuery.size() : 0;
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
 }
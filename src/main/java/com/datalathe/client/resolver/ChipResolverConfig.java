@@ -0,0 +1,79 @@
+package com.datalathe.client.resolver;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Tuning for a {@link ChipResolver}. The defaults match the resolver's
+ * historical behavior, plus a table-extraction cache sized for a few
+ * hundred report templates.
+ */
+@Value
+@Builder
+public class ChipResolverConfig {
+    public static final ChipResolverConfig DEFAULT = ChipResolverConfig.builder().build();
+
+    /** How long a single chip creation may take before its future fails. */
+    @Builder.Default
+    long timeoutMinutes = 10;
+
+    /**
+     * How long a create that failed because the source was empty is
+     * remembered before the resolver retries it; 0 disables the cache.
+     */
+    @Builder.Default
+    long emptyRecheckMinutes = 30;
+
+    /**
+     * Maximum number of distinct SQL texts whose extracted table names are
+     * kept, least recently used first out; 0 disables the cache. Table
+     * references are a pure function of the SQL text, so entries never
+     * expire.
+     */
+    @Builder.Default
+    int extractCacheSize = 1024;
+
+    /**
+     * Maximum number of stale chips a single resolve deletes at once. Each
+     * replacement chip is created as soon as its own predecessor is gone.
+     */
+    @Builder.Default
+    int evictionConcurrency = 4;
+
+    /**
+     * How long a tenant's chip search results are reused across resolves;
+     * 0 (the default) searches on every resolve. Chips this resolver
+     * creates or evicts are patched into the index, but chips deleted by
+     * other writers stay visible until the TTL runs out or
+     * {@link ChipResolver#invalidateTenant} is called.
+     */
+    @Builder.Default
+    long tenantIndexTtlMillis = 0;
+
+    /**
+     * Create chips as asynchronous ingest jobs tracked by one shared watcher
+     * instead of blocking an executor thread per creation. Requires an
+     * engine with a chip-manager configured.
+     */
+    @Builder.Default
+    boolean asyncIngest = false;
+
+    /**
+     * Shortest interval between status checks of an in-flight ingest job;
+     * jobs making no progress back off towards
+     * {@code ingestMaxPollIntervalMillis}.
+     */
+    @Builder.Default
+    long ingestPollIntervalMillis = 2000;
+
+    /** Longest interval between status checks of an in-flight ingest job. */
+    @Builder.Default
+    long ingestMaxPollIntervalMillis = 30_000;
+
+    /**
+     * How many times a failed ingest job is resumed from its last committed
+     * chunk before the creation is given up.
+     */
+    @Builder.Default
+    int maxIngestResumes = 2;
+}
@@ -0,0 +1,159 @@
+package com.datalathe.client.resolver;
+
+import com.datalathe.client.SearchChipsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-tenant copy of the chip search results, kept for a short TTL and
+ * patched locally as the resolver creates and evicts chips, so hot tenants
+ * resolve without a search round trip.
+ *
+ * <p>Every local change bumps the tenant's version; a search that started
+ * before a change is not installed, so a slow reload can never resurrect a
+ * chip this resolver just deleted.</p>
+ */
+class TenantChipIndex {
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    TenantChipIndex(long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /** Returns a copy of the tenant's chips and tags, or null when not loaded or expired. */
+    SearchChipsResponse get(String tenant) {
+        Entry entry = entries.get(tenant);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            if (entry.chips == null || expired(entry)) {
+                return null;
+            }
+            SearchChipsResponse copy = new SearchChipsResponse();
+            copy.setChips(new ArrayList<>(entry.chips));
+            copy.setTags(new ArrayList<>(entry.tags));
+            return copy;
+        }
+    }
+
+    /** Version to pass to {@link #put} for a search about to be issued. */
+    long version(String tenant) {
+        Entry entry = entries.computeIfAbsent(tenant, k -> new Entry());
+        synchronized (entry) {
+            return entry.version;
+        }
+    }
+
+    /** Installs search results unless the tenant changed locally since {@code versionAtFetch}. */
+    void put(String tenant, SearchChipsResponse response, long versionAtFetch) {
+        long now = clock.getAsLong();
+        entries.values().removeIf(e -> {
+            synchronized (e) {
+                return e.chips != null && expired(e, now);
+            }
+        });
+        Entry entry = entries.computeIfAbsent(tenant, k -> new Entry());
+        synchronized (entry) {
+            if (entry.version != versionAtFetch) {
+                return;
+            }
+            entry.chips = response.getChips() != null ? new ArrayList<>(response.getChips()) : new ArrayList<>();
+            entry.tags = response.getTags() != null ? new ArrayList<>(response.getTags()) : new ArrayList<>();
+            entry.loadedAt = now;
+        }
+    }
+
+    void chipCreated(String tenant, String chipId, String table, String partitionValue,
+                     Map<String, String> tags) {
+        Entry entry = entries.get(tenant);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.version = VERSIONS.incrementAndGet();
+            if (entry.chips == null) {
+                return;
+            }
+            SearchChipsResponse.ChipRecord chip = new SearchChipsResponse.ChipRecord();
+            chip.setChipId(chipId);
+            chip.setSubChipId(chipId);
+            chip.setTableName(table);
+            chip.setPartitionValue(partitionValue);
+            entry.chips.add(chip);
+            for (var tag : tags.entrySet()) {
+                SearchChipsResponse.ChipTagRecord record = new SearchChipsResponse.ChipTagRecord();
+                record.setChipId(chipId);
+                record.setKey(tag.getKey());
+                record.setValue(tag.getValue());
+                entry.tags.add(record);
+            }
+        }
+    }
+
+    void chipDeleted(String tenant, String chipId) {
+        Entry entry = entries.get(tenant);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.version = VERSIONS.incrementAndGet();
+            if (entry.chips == null) {
+                return;
+            }
+            entry.chips.removeIf(chip -> chipId.equals(chip.getChipId()));
+            entry.tags.removeIf(tag -> chipId.equals(tag.getChipId()));
+        }
+    }
+
+    void invalidate(String tenant) {
+        Entry entry = entries.get(tenant);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.version = VERSIONS.incrementAndGet();
+            entry.chips = null;
+            entry.tags = null;
+        }
+    }
+
+    /** Number of tenants with loaded, unexpired chips. */
+    int size() {
+        long now = clock.getAsLong();
+        int size = 0;
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (entry.chips != null && !expired(entry, now)) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    private boolean expired(Entry entry) {
+        return expired(entry, clock.getAsLong());
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.loadedAt >= ttlMillis;
+    }
+
+    private static final class Entry {
+        long version = VERSIONS.incrementAndGet();
+        long loadedAt;
+        List<SearchChipsResponse.ChipRecord> chips;
+        List<SearchChipsResponse.ChipTagRecord> tags;
+    }
+}
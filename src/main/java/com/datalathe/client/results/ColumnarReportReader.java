@@ -0,0 +1,184 @@
+package com.datalathe.client.results;
+
+import com.datalathe.client.ColumnarReportResult;
+import com.datalathe.client.types.GenerateReportResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes a {@code /lathe/report} response body into {@link ColumnarResult}s
+ * token by token. Row cells go from the parser's character buffer straight
+ * into the typed column arrays; no {@code List<List<String>>} is built.
+ */
+public final class ColumnarReportReader {
+    private ColumnarReportReader() {
+    }
+
+    /**
+     * Reads one report object from the parser. The parser must have a codec
+     * (i.e. be created from an {@code ObjectMapper}'s factory) so the
+     * timing block can be bound.
+     */
+    public static ColumnarReportResult read(JsonParser parser) throws IOException {
+        Map<Integer, ColumnarResult> results = new HashMap<>();
+        GenerateReportResponse.ReportTiming timing = null;
+
+        expect(parser, parser.currentToken() != null ? parser.currentToken() : parser.nextToken(),
+                JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int idx = Integer.parseInt(parser.currentName());
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        results.put(idx, readResult(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("timing".equals(field) && value == JsonToken.START_OBJECT) {
+                timing = parser.readValueAs(GenerateReportResponse.ReportTiming.class);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new ColumnarReportResult(results, timing);
+    }
+
+    private static ColumnarResult readResult(JsonParser parser) throws IOException {
+        ColumnarResult.Builder builder = new ColumnarResult.Builder();
+        ColumnarResult.Builder fallback = null;
+        boolean sawResult = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "error":
+                    builder.error(text(parser));
+                    break;
+                case "transformed_query":
+                    builder.transformedQuery(text(parser));
+                    break;
+                case "idx":
+                    String idx = text(parser);
+                    builder.idx(idx == null ? null : Integer.valueOf(idx));
+                    break;
+                case "schema":
+                    List<Schema> schema = readSchema(parser);
+                    builder.schema(schema);
+                    if (fallback != null) {
+                        fallback.schema(schema);
+                    }
+                    break;
+                case "result":
+                    sawResult = true;
+                    readRows(parser, builder);
+                    break;
+                case "data":
+                    // Older engines send rows under "data"; only used when "result" is absent.
+                    if (!sawResult && value == JsonToken.START_ARRAY) {
+                        fallback = new ColumnarResult.Builder();
+                        if (builder.hasSchema()) {
+                            fallback.schema(builder.schemaList());
+                        }
+                        readRows(parser, fallback);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (!sawResult && fallback != null) {
+            builder.adoptRows(fallback);
+        }
+        return builder.build();
+    }
+
+    private static List<Schema> readSchema(JsonParser parser) throws IOException {
+        List<Schema> schema = new ArrayList<>();
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return schema;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            String dataType = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    name = text(parser);
+                } else if ("data_type".equals(field)) {
+                    dataType = text(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            schema.add(new Schema(name, dataType));
+        }
+        return schema;
+    }
+
+    private static void readRows(JsonParser parser, ColumnarResult.Builder builder) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            if (builder.hasSchema()) {
+                int column = 0;
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == JsonToken.VALUE_NULL) {
+                        builder.nullCell(column);
+                    } else if (token.isScalarValue()) {
+                        builder.cell(column, parser.getTextCharacters(), parser.getTextOffset(),
+                                parser.getTextLength());
+                    } else {
+                        throw new IOException("Unexpected nested value in report row: " + token);
+                    }
+                    column++;
+                }
+                builder.endRow(column);
+            } else {
+                List<String> row = new ArrayList<>();
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (!token.isScalarValue()) {
+                        throw new IOException("Unexpected nested value in report row: " + token);
+                    }
+                    row.add(token == JsonToken.VALUE_NULL ? null : parser.getText());
+                }
+                builder.pendingRow(row.toArray(new String[0]));
+            }
+        }
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " in report response but found " + actual
+                    + " at " + parser.currentLocation());
+        }
+    }
+}
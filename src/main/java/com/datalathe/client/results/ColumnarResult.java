@@ -0,0 +1,509 @@
+package com.datalathe.client.results;
+
+import com.fasterxml.jackson.core.io.NumberInput;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column-oriented form of a single report query result. Each column is
+ * decoded once, while the response is parsed, into a primitive array chosen
+ * from its {@link Schema#getDataType()}:
+ *
+ * <ul>
+ *   <li>{@code Int32} &rarr; {@code int[]}</li>
+ *   <li>{@code Int64} &rarr; {@code long[]}</li>
+ *   <li>{@code Float32}, {@code Float64} &rarr; {@code double[]}</li>
+ *   <li>{@code Boolean} &rarr; a {@link BitSet}</li>
+ *   <li>anything else &rarr; {@code String[]}</li>
+ * </ul>
+ *
+ * <p>Nulls (and empty strings, matching {@link DatalatheResultSet}) are
+ * tracked in a per-column null bitset. A cell's source text is kept
+ * only when the decoded value would not print back to it, such as
+ * {@code "88"} in a float column (which prints as {@code "88.0"}), or
+ * {@code "+5"} and {@code "TRUE"} in integer and boolean columns. A typed column that receives a
+ * value it cannot represent at all (for example {@code "712.17"} in an
+ * {@code Int32} column) falls back to string storage for that column, built
+ * from the original text, so no value is ever lost to decoding.</p>
+ *
+ * <p>Instances are immutable once built; {@link #getResultSet()} returns a
+ * fresh cursor on each call.</p>
+ */
+public class ColumnarResult {
+    private final Integer idx;
+    private final String error;
+    private final String transformedQuery;
+    private final List<Schema> schema;
+    private final Column[] columns;
+    private final int rowCount;
+
+    private ColumnarResult(Integer idx, String error, String transformedQuery, List<Schema> schema,
+                           Column[] columns, int rowCount) {
+        this.idx = idx;
+        this.error = error;
+        this.transformedQuery = transformedQuery;
+        this.schema = schema;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /** Index of the query this result answers, when the engine reported one. */
+    public Integer getIdx() {
+        return idx;
+    }
+
+    /** The query's execution error, or {@code null} when it succeeded. */
+    public String getError() {
+        return error;
+    }
+
+    /** The transformed query, when {@code returnTransformedQuery} was requested. */
+    public String getTransformedQuery() {
+        return transformedQuery;
+    }
+
+    public List<Schema> getSchema() {
+        return schema;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /** Returns a scrollable result set that reads straight from the column arrays. */
+    public ResultSet getResultSet() {
+        return new DatalatheColumnarResultSet(this);
+    }
+
+    Column column(int index) {
+        return columns[index];
+    }
+
+    enum Kind {
+        INT, LONG, DOUBLE, BOOLEAN, STRING
+    }
+
+    /**
+     * One decoded column. Exactly one of the value arrays is populated,
+     * according to {@link #kind}.
+     */
+    static final class Column {
+        private static final int INITIAL_CAPACITY = 16;
+
+        Kind kind;
+        final boolean float32;
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        BitSet booleans;
+        String[] strings;
+        /** Source text of typed cells that {@link #format} would not reproduce; lazily allocated. */
+        String[] texts;
+        final BitSet nulls = new BitSet();
+        int size;
+
+        private long parsedLong;
+
+        Column(String dataType) {
+            Kind k;
+            if (dataType == null) {
+                k = Kind.STRING;
+            } else {
+                switch (dataType) {
+                    case "Int32":
+                        k = Kind.INT;
+                        break;
+                    case "Int64":
+                        k = Kind.LONG;
+                        break;
+                    case "Float32":
+                    case "Float64":
+                        k = Kind.DOUBLE;
+                        break;
+                    case "Boolean":
+                        k = Kind.BOOLEAN;
+                        break;
+                    default:
+                        k = Kind.STRING;
+                }
+            }
+            this.kind = k;
+            this.float32 = "Float32".equals(dataType);
+            allocate(INITIAL_CAPACITY);
+        }
+
+        private void allocate(int capacity) {
+            switch (kind) {
+                case INT:
+                    ints = new int[capacity];
+                    break;
+                case LONG:
+                    longs = new long[capacity];
+                    break;
+                case DOUBLE:
+                    doubles = new double[capacity];
+                    break;
+                case BOOLEAN:
+                    booleans = new BitSet(capacity);
+                    break;
+                default:
+                    strings = new String[capacity];
+            }
+        }
+
+        private void ensureCapacity() {
+            switch (kind) {
+                case INT:
+                    if (size == ints.length) ints = Arrays.copyOf(ints, size * 2);
+                    break;
+                case LONG:
+                    if (size == longs.length) longs = Arrays.copyOf(longs, size * 2);
+                    break;
+                case DOUBLE:
+                    if (size == doubles.length) doubles = Arrays.copyOf(doubles, size * 2);
+                    break;
+                case STRING:
+                    if (size == strings.length) strings = Arrays.copyOf(strings, size * 2);
+                    break;
+                default:
+                    // BitSet grows on its own
+            }
+            if (texts != null && size == texts.length) {
+                texts = Arrays.copyOf(texts, size * 2);
+            }
+        }
+
+        /** Keeps the source text of the cell about to be appended at {@code size}. */
+        private void keepText(String text) {
+            if (texts == null) {
+                texts = new String[Math.max(INITIAL_CAPACITY, size * 2)];
+            }
+            texts[size] = text;
+        }
+
+        void appendNull() {
+            ensureCapacity();
+            nulls.set(size++);
+        }
+
+        /**
+         * Appends a cell from the parser's text buffer. Numeric columns parse
+         * the characters in place and keep the text only when formatting the
+         * value would not reproduce it, so the common case stores no String.
+         */
+        void append(char[] buf, int off, int len) {
+            if (len == 0) {
+                appendNull();
+                return;
+            }
+            ensureCapacity();
+            switch (kind) {
+                case INT:
+                    if (parseLong(buf, off, len) && parsedLong == (int) parsedLong) {
+                        if (!canonicalInteger(buf, off, len)) {
+                            keepText(new String(buf, off, len));
+                        }
+                        ints[size++] = (int) parsedLong;
+                        return;
+                    }
+                    break;
+                case LONG:
+                    if (parseLong(buf, off, len)) {
+                        if (!canonicalInteger(buf, off, len)) {
+                            keepText(new String(buf, off, len));
+                        }
+                        longs[size++] = parsedLong;
+                        return;
+                    }
+                    break;
+                case DOUBLE:
+                    double parsed;
+                    try {
+                        parsed = NumberInput.parseDouble(buf, off, len, true);
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                    if (!matchesExactly(buf, off, len,
+                            float32 ? Float.toString((float) parsed) : Double.toString(parsed))) {
+                        keepText(new String(buf, off, len));
+                    }
+                    doubles[size++] = parsed;
+                    return;
+                case BOOLEAN:
+                    boolean value = matches(buf, off, len, "true");
+                    if (value || matches(buf, off, len, "false")) {
+                        if (!matchesExactly(buf, off, len, value ? "true" : "false")) {
+                            keepText(new String(buf, off, len));
+                        }
+                        booleans.set(size++, value);
+                        return;
+                    }
+                    break;
+                default:
+                    strings[size++] = new String(buf, off, len);
+                    return;
+            }
+            demoteToStrings();
+            strings[size++] = new String(buf, off, len);
+        }
+
+        void append(String value) {
+            if (value == null) {
+                appendNull();
+            } else {
+                char[] chars = value.toCharArray();
+                append(chars, 0, chars.length);
+            }
+        }
+
+        /** Moves everything decoded so far to string storage, as its source text. */
+        private void demoteToStrings() {
+            String[] converted = new String[Math.max(INITIAL_CAPACITY, size * 2)];
+            for (int i = 0; i < size; i++) {
+                converted[i] = nulls.get(i) ? null : text(i);
+            }
+            kind = Kind.STRING;
+            ints = null;
+            longs = null;
+            doubles = null;
+            booleans = null;
+            texts = null;
+            strings = converted;
+        }
+
+        /** The cell exactly as the engine sent it. */
+        String text(int row) {
+            if (texts != null && texts[row] != null) {
+                return texts[row];
+            }
+            return format(row);
+        }
+
+        private String format(int row) {
+            switch (kind) {
+                case INT:
+                    return Integer.toString(ints[row]);
+                case LONG:
+                    return Long.toString(longs[row]);
+                case DOUBLE:
+                    return float32 ? Float.toString((float) doubles[row]) : Double.toString(doubles[row]);
+                case BOOLEAN:
+                    return Boolean.toString(booleans.get(row));
+                default:
+                    return strings[row];
+            }
+        }
+
+        void trim() {
+            switch (kind) {
+                case INT:
+                    ints = Arrays.copyOf(ints, size);
+                    break;
+                case LONG:
+                    longs = Arrays.copyOf(longs, size);
+                    break;
+                case DOUBLE:
+                    doubles = Arrays.copyOf(doubles, size);
+                    break;
+                case STRING:
+                    strings = Arrays.copyOf(strings, size);
+                    break;
+                default:
+            }
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, size);
+            }
+        }
+
+        private boolean parseLong(char[] buf, int off, int len) {
+            int i = off;
+            int end = off + len;
+            boolean negative = false;
+            if (buf[i] == '-' || buf[i] == '+') {
+                negative = buf[i] == '-';
+                i++;
+            }
+            int digits = end - i;
+            if (digits <= 0) {
+                return false;
+            }
+            if (digits > 18) {
+                try {
+                    parsedLong = Long.parseLong(new String(buf, off, len));
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int d = buf[i] - '0';
+                if (d < 0 || d > 9) {
+                    return false;
+                }
+                value = value * 10 + d;
+            }
+            parsedLong = negative ? -value : value;
+            return true;
+        }
+
+        /** Whether the digits are exactly what {@code Long.toString} would print: no sign prefix or leading zero. */
+        private static boolean canonicalInteger(char[] buf, int off, int len) {
+            int i = off;
+            if (buf[i] == '+') {
+                return false;
+            }
+            if (buf[i] == '-') {
+                i++;
+                if (len == 2 && buf[i] == '0') {
+                    return false;
+                }
+            }
+            return buf[i] != '0' || i == off + len - 1;
+        }
+
+        private static boolean matchesExactly(char[] buf, int off, int len, String word) {
+            if (len != word.length()) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (buf[off + i] != word.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean matches(char[] buf, int off, int len, String word) {
+            if (len != word.length()) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (Character.toLowerCase(buf[off + i]) != word.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Accumulates one result while the report is being parsed. Rows that
+     * arrive before the schema are held as strings and decoded once the
+     * schema is known.
+     */
+    static final class Builder {
+        private Integer idx;
+        private String error;
+        private String transformedQuery;
+        private List<Schema> schema;
+        private Column[] columns;
+        private int rowCount;
+        private List<String[]> pendingRows;
+
+        void idx(Integer idx) {
+            this.idx = idx;
+        }
+
+        void error(String error) {
+            this.error = error;
+        }
+
+        void transformedQuery(String transformedQuery) {
+            this.transformedQuery = transformedQuery;
+        }
+
+        boolean hasSchema() {
+            return schema != null;
+        }
+
+        List<Schema> schemaList() {
+            return schema;
+        }
+
+        /** Takes over the decoded rows of another builder (rows sent under {@code "data"}). */
+        void adoptRows(Builder other) {
+            if (other.schema == null && schema != null) {
+                other.schema(schema);
+            }
+            this.schema = other.schema;
+            this.columns = other.columns;
+            this.rowCount = other.rowCount;
+            this.pendingRows = other.pendingRows;
+        }
+
+        void schema(List<Schema> schema) {
+            this.schema = Collections.unmodifiableList(new ArrayList<>(schema));
+            this.columns = new Column[schema.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new Column(schema.get(i).getDataType());
+            }
+            if (pendingRows != null) {
+                for (String[] row : pendingRows) {
+                    for (int c = 0; c < columns.length; c++) {
+                        columns[c].append(c < row.length ? row[c] : null);
+                    }
+                    rowCount++;
+                }
+                pendingRows = null;
+            }
+        }
+
+        /** Appends a cell to the row being built; only valid once the schema is known. */
+        void cell(int column, char[] buf, int off, int len) {
+            if (column < columns.length) {
+                columns[column].append(buf, off, len);
+            }
+        }
+
+        void nullCell(int column) {
+            if (column < columns.length) {
+                columns[column].appendNull();
+            }
+        }
+
+        /** Pads a short row with nulls and counts it. */
+        void endRow(int cells) {
+            for (int c = cells; c < columns.length; c++) {
+                columns[c].appendNull();
+            }
+            rowCount++;
+        }
+
+        void pendingRow(String[] row) {
+            if (pendingRows == null) {
+                pendingRows = new ArrayList<>();
+            }
+            pendingRows.add(row);
+        }
+
+        ColumnarResult build() {
+            if (schema == null) {
+                int width = 0;
+                if (pendingRows != null) {
+                    for (String[] row : pendingRows) {
+                        width = Math.max(width, row.length);
+                    }
+                }
+                List<Schema> untyped = new ArrayList<>();
+                for (int i = 0; i < width; i++) {
+                    untyped.add(new Schema(null, null));
+                }
+                schema(untyped);
+            }
+            for (Column column : columns) {
+                column.trim();
+            }
+            return new ColumnarResult(idx, error, transformedQuery, schema, columns, rowCount);
+        }
+    }
+}
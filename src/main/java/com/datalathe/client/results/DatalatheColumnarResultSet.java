@@ -0,0 +1,531 @@
+package com.datalathe.client.results;
+
+import com.datalathe.client.results.ColumnarResult.Column;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Scrollable result set over a {@link ColumnarResult}. Typed getters read
+ * straight from the decoded column arrays, so {@code getInt}/{@code getLong}/
+ * {@code getDouble}/{@code getBoolean} on a column of the matching type
+ * neither parse nor allocate.
+ *
+ * <p>Every getter returns what {@link DatalatheResultSet} returns for the
+ * same cell: {@code getString} gives the engine's original text, and a
+ * conversion the typed value can't answer exactly (a fraction or an
+ * out-of-range value) parses that text the same way, so it truncates or
+ * throws {@link NumberFormatException} just as DatalatheResultSet does.</p>
+ */
+public class DatalatheColumnarResultSet extends AbstractResultSet {
+    private final ColumnarResult result;
+    private final List<Schema> schema;
+    private final int rowCount;
+    private int currentRow = -1;
+    private boolean wasNull = false;
+
+    public DatalatheColumnarResultSet(ColumnarResult result) {
+        this.result = result;
+        this.schema = result.getSchema();
+        this.rowCount = result.getRowCount();
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return ++currentRow < rowCount;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        // No resources to close
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return wasNull;
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return null;
+        }
+        return column.text(currentRow);
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return false;
+        }
+        switch (column.kind) {
+            case BOOLEAN:
+                return column.booleans.get(currentRow);
+            case STRING:
+                return Boolean.parseBoolean(column.strings[currentRow]);
+            default:
+                // Matches Boolean.parseBoolean on the textual form: numbers are never "true"
+                return false;
+        }
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return 0;
+        }
+        if (isIntegral(column)) {
+            long value = integral(column);
+            if (value == (byte) value) {
+                return (byte) value;
+            }
+        }
+        return Byte.parseByte(column.text(currentRow));
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return 0;
+        }
+        if (isIntegral(column)) {
+            long value = integral(column);
+            if (value == (short) value) {
+                return (short) value;
+            }
+        }
+        return Short.parseShort(column.text(currentRow));
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return 0;
+        }
+        if (isIntegral(column)) {
+            long value = integral(column);
+            if (value == (int) value) {
+                return (int) value;
+            }
+        }
+        String value = column.text(currentRow);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            // Handle float strings like "712.17" by truncating to int
+            return (int) Double.parseDouble(value);
+        }
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return 0L;
+        }
+        return isIntegral(column) ? integral(column) : Long.parseLong(column.text(currentRow));
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return 0.0f;
+        }
+        // Rounding the stored double to float could differ from parsing the text as a float
+        return isExactIntegral(column) ? (float) integral(column) : Float.parseFloat(column.text(currentRow));
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return 0.0;
+        }
+        if (column.kind == ColumnarResult.Kind.DOUBLE) {
+            return column.doubles[currentRow];
+        }
+        return isExactIntegral(column) ? integral(column) : Double.parseDouble(column.text(currentRow));
+    }
+
+    private static boolean isIntegral(Column column) {
+        return column.kind == ColumnarResult.Kind.INT || column.kind == ColumnarResult.Kind.LONG;
+    }
+
+    /** Integral with canonical text; {@code "-0"} parses to {@code -0.0} as a float, not {@code 0}. */
+    private boolean isExactIntegral(Column column) {
+        return isIntegral(column) && (column.texts == null || column.texts[currentRow] == null);
+    }
+
+    private long integral(Column column) {
+        return column.kind == ColumnarResult.Kind.INT ? column.ints[currentRow] : column.longs[currentRow];
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return new ResultSetMetaData() {
+            @Override
+            public int getColumnCount() throws SQLException {
+                return schema.size();
+            }
+
+            @Override
+            public boolean isAutoIncrement(int column) throws SQLException {
+                return false;
+            }
+
+            @Override
+            public boolean isCaseSensitive(int column) throws SQLException {
+                return true;
+            }
+
+            @Override
+            public boolean isSearchable(int column) throws SQLException {
+                return true;
+            }
+
+            @Override
+            public boolean isCurrency(int column) throws SQLException {
+                return false;
+            }
+
+            @Override
+            public int isNullable(int column) throws SQLException {
+                return columnNullable;
+            }
+
+            @Override
+            public boolean isSigned(int column) throws SQLException {
+                return true;
+            }
+
+            @Override
+            public int getColumnDisplaySize(int column) throws SQLException {
+                return 0;
+            }
+
+            @Override
+            public String getColumnLabel(int column) throws SQLException {
+                return getColumnName(column);
+            }
+
+            @Override
+            public String getColumnName(int column) throws SQLException {
+                return schema.get(column - 1).getName();
+            }
+
+            @Override
+            public String getSchemaName(int column) throws SQLException {
+                return "";
+            }
+
+            @Override
+            public int getPrecision(int column) throws SQLException {
+                return 0;
+            }
+
+            @Override
+            public int getScale(int column) throws SQLException {
+                return 0;
+            }
+
+            @Override
+            public String getTableName(int column) throws SQLException {
+                return "";
+            }
+
+            @Override
+            public String getCatalogName(int column) throws SQLException {
+                return "";
+            }
+
+            @Override
+            public int getColumnType(int column) throws SQLException {
+                switch (dataType(column)) {
+                    case "Int32":
+                    case "Int64":
+                        return Types.INTEGER;
+                    case "Float32":
+                    case "Float64":
+                        return Types.DOUBLE;
+                    case "Boolean":
+                        return Types.BOOLEAN;
+                    default:
+                        return Types.VARCHAR;
+                }
+            }
+
+            @Override
+            public String getColumnTypeName(int column) throws SQLException {
+                return schema.get(column - 1).getDataType();
+            }
+
+            @Override
+            public boolean isReadOnly(int column) throws SQLException {
+                return true;
+            }
+
+            @Override
+            public boolean isWritable(int column) throws SQLException {
+                return false;
+            }
+
+            @Override
+            public boolean isDefinitelyWritable(int column) throws SQLException {
+                return false;
+            }
+
+            @Override
+            public String getColumnClassName(int column) throws SQLException {
+                switch (dataType(column)) {
+                    case "Int32":
+                        return Integer.class.getName();
+                    case "Int64":
+                        return Long.class.getName();
+                    case "Float32":
+                        return Float.class.getName();
+                    case "Float64":
+                        return Double.class.getName();
+                    case "Boolean":
+                        return Boolean.class.getName();
+                    default:
+                        return String.class.getName();
+                }
+            }
+
+            @Override
+            public <T> T unwrap(Class<T> iface) throws SQLException {
+                throw new SQLFeatureNotSupportedException();
+            }
+
+            @Override
+            public boolean isWrapperFor(Class<?> iface) throws SQLException {
+                return false;
+            }
+        };
+    }
+
+    /** Column data type, or "" for untyped columns so it can be switched on. */
+    private String dataType(int column) {
+        String dataType = schema.get(column - 1).getDataType();
+        return dataType == null ? "" : dataType;
+    }
+
+    private Column column(int columnIndex) throws SQLException {
+        if (currentRow < 0 || currentRow >= rowCount) {
+            throw new SQLException("No current row");
+        }
+        if (columnIndex < 1 || columnIndex > schema.size()) {
+            throw new SQLException("Invalid column index: " + columnIndex);
+        }
+        return result.column(columnIndex - 1);
+    }
+
+    private boolean isNull(Column column) {
+        wasNull = column.nulls.get(currentRow);
+        return wasNull;
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        if (isNull(column)) {
+            return null;
+        }
+        switch (column.kind) {
+            case INT:
+                return column.ints[currentRow];
+            case LONG:
+                return column.longs[currentRow];
+            case DOUBLE:
+                return column.float32 ? (Object) Float.parseFloat(column.text(currentRow)) : column.doubles[currentRow];
+            case BOOLEAN:
+                return column.booleans.get(currentRow);
+            default:
+                break;
+        }
+        // String storage: either a text column, or a typed column holding a
+        // value it could not decode. Convert the same way DatalatheResultSet does.
+        String value = column.strings[currentRow];
+        String dataType = dataType(columnIndex);
+        try {
+            switch (dataType) {
+                case "Int32":
+                    return Integer.parseInt(value);
+                case "Int64":
+                    return Long.parseLong(value);
+                case "Float32":
+                    return Float.parseFloat(value);
+                case "Float64":
+                    return Double.parseDouble(value);
+                case "Boolean":
+                    return Boolean.parseBoolean(value);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            throw new SQLException("Cannot convert value to requested type: " + dataType, e);
+        }
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return getBoolean(findColumn(columnLabel));
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        return getByte(findColumn(columnLabel));
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        return getShort(findColumn(columnLabel));
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        return getLong(findColumn(columnLabel));
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        return getFloat(findColumn(columnLabel));
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        return getDouble(findColumn(columnLabel));
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        return getObject(findColumn(columnLabel));
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return getObject(findColumn(columnLabel), type);
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        Object value = getObject(columnIndex);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return type.cast(value);
+        } catch (ClassCastException e) {
+            throw new SQLException("Cannot convert value to requested type: " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        for (int i = 0; i < schema.size(); i++) {
+            if (columnLabel.equalsIgnoreCase(schema.get(i).getName())) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Column not found: " + columnLabel);
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        return currentRow == -1;
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        return rowCount > 0 && currentRow >= rowCount;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        return rowCount > 0 && currentRow == 0;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        return rowCount > 0 && currentRow == rowCount - 1;
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        currentRow = -1;
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        currentRow = rowCount;
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        if (rowCount == 0) {
+            return false;
+        }
+        currentRow = 0;
+        return true;
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        if (rowCount == 0) {
+            return false;
+        }
+        currentRow = rowCount - 1;
+        return true;
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        return currentRow + 1;
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        if (row < 0) {
+            row = rowCount + row + 1;
+        }
+        if (row < 1 || row > rowCount) {
+            currentRow = rowCount;
+            return false;
+        }
+        currentRow = row - 1;
+        return true;
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        return absolute(currentRow + 1 + rows);
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        if (currentRow <= 0) {
+            return false;
+        }
+        currentRow--;
+        return true;
+    }
+}
@@ -1,8 +1,11 @@
 package com.datalathe.client.results;
 
 import com.datalathe.client.DatalatheQueryException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.datalathe.client.JsonCodec;
+import com.datalathe.client.jfr.StreamFrameEvent;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import okhttp3.Call;
 import okhttp3.Response;
 import okio.BufferedSource;
 
@@ -12,8 +15,11 @@ import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * A forward-only ({@link java.sql.ResultSet#TYPE_FORWARD_ONLY}) result set that
@@ -22,43 +28,117 @@ import java.util.List;
  *
  * <p>Each call to {@link #next()} pulls and parses one or more frames from the
  * underlying OkHttp {@link BufferedSource} until a row is available, the stream
- * ends, or a terminal {@code error} frame arrives. Backward navigation
+ * ends, or a terminal {@code error} frame arrives. Frames are tokenized by a
+ * single incremental {@link JsonParser} over the body stream, so row cells are
+ * read straight into the row buffer without an intermediate line or tree. Backward navigation
  * ({@code previous}, {@code first}, {@code last}, {@code absolute},
  * {@code beforeFirst}, {@code relative} to a prior row) throws
  * {@link SQLFeatureNotSupportedException}.</p>
  *
+ * <p>Optionally, a background reader thread can decode frames ahead of the
+ * consumer into a bounded queue of row batches (see
+ * {@link #DatalatheStreamingResultSet(Response, int)}), so network reads
+ * overlap with per-row processing.</p>
+ *
  * <p>Closing the result set closes the HTTP response body, which aborts the
- * server-side stream. The instance is {@link AutoCloseable}, so it works in a
+ * server-side stream. With prefetching on, close stops the reader thread
+ * first and waits for it to exit. The instance is {@link AutoCloseable}, so it works in a
  * try-with-resources block.</p>
  */
 public class DatalatheStreamingResultSet extends AbstractResultSet {
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // How long close() waits for the reader thread after aborting its read
+    private static final long READER_JOIN_MILLIS = 5_000;
 
     private final Response response;
-    private final BufferedSource source;
+    private final Call call;
+    private final JsonParser parser;
 
     private List<Schema> schema;
     private String transformedQuery;
 
-    private List<List<String>> buffer = new ArrayList<>();
+    private List<String[]> buffer = new ArrayList<>();
     private int bufferIndex = 0;
-    private List<String> currentRow;
+    private String[] currentRow;
+    private final Frame frame = new Frame();
 
     private boolean schemaSeen = false;
     private boolean terminated = false;
-    private boolean closed = false;
+    private volatile boolean closed = false;
     private boolean wasNull = false;
 
     private long rowCount = -1;
     private long emittedRows = 0;
 
+    // Prefetch mode only: decoded batches handed from the reader thread.
+    private final BlockingQueue<Batch> prefetched;
+    private final Thread reader;
+    private final Runnable onClose;
+
     public DatalatheStreamingResultSet(Response response) throws SQLException {
+        this(response, 0);
+    }
+
+    /**
+     * Opens a streaming result set, optionally decoding ahead on a
+     * background reader thread.
+     *
+     * <p>With a {@code prefetchDepth} above zero, a reader thread (a virtual
+     * thread on runtimes that have them, a daemon platform thread otherwise)
+     * keeps decoding frames while the caller processes rows, holding up to
+     * {@code prefetchDepth} row batches. When the queue is full the reader
+     * stops pulling from the socket, so TCP flow control pushes back on the
+     * server. Zero decodes frames on the calling thread inside
+     * {@link #next()}.</p>
+     *
+     * @param response      the open NDJSON response; owned by the result set
+     * @param prefetchDepth number of row batches to decode ahead, or 0 to disable
+     */
+    public DatalatheStreamingResultSet(Response response, int prefetchDepth) throws SQLException {
+        this(response, prefetchDepth, null);
+    }
+
+    /**
+     * Like {@link #DatalatheStreamingResultSet(Response, int)}, and runs
+     * {@code onClose} once when the result set is closed, explicitly or
+     * because the stream terminated with an error.
+     */
+    public DatalatheStreamingResultSet(Response response, int prefetchDepth, Runnable onClose)
+            throws SQLException {
+        this(response, null, prefetchDepth, onClose);
+    }
+
+    /**
+     * Like {@link #DatalatheStreamingResultSet(Response, int, Runnable)}, for
+     * the {@code call} that produced {@code response}. Closing cancels the
+     * call, so a reader thread blocked on the socket fails at once instead
+     * of waiting for more bytes.
+     */
+    public DatalatheStreamingResultSet(Response response, Call call, int prefetchDepth, Runnable onClose)
+            throws SQLException {
+        this.call = call;
+        this.onClose = onClose;
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("prefetchDepth must not be negative");
+        }
         this.response = response;
         if (response.body() == null) {
             throw new SQLException("Streaming report response had no body");
         }
-        this.source = response.body().source();
+        BufferedSource source = response.body().source();
+        try {
+            this.parser = JsonCodec.factory().createParser(source.inputStream());
+        } catch (IOException e) {
+            throw new SQLException("Failed to open streaming report", e);
+        }
         readUntilSchema();
+        if (prefetchDepth > 0) {
+            this.prefetched = new ArrayBlockingQueue<>(prefetchDepth);
+            this.reader = newReaderThread(this::prefetch);
+            this.reader.start();
+        } else {
+            this.prefetched = null;
+            this.reader = null;
+        }
     }
 
     /**
@@ -79,110 +159,363 @@ public class DatalatheStreamingResultSet extends AbstractResultSet {
 
     private void readUntilSchema() throws SQLException {
         while (!schemaSeen) {
-            JsonNode frame = readFrame();
-            if (frame == null) {
+            if (!readFrame()) {
                 throw new SQLException(
                         "Streaming report ended before a schema frame was received");
             }
-            handleFrame(frame);
+            handleFrame();
         }
     }
 
-    private JsonNode readFrame() throws SQLException {
+    /**
+     * Tokenizes the next NDJSON frame into {@link #frame}. Fields may arrive
+     * in any order; row cells go straight into the (reused) row buffer.
+     * Returns false at end of stream.
+     */
+    private boolean readFrame() throws SQLException {
+        StreamFrameEvent event = new StreamFrameEvent();
+        long startOffset = 0;
+        if (event.isEnabled()) {
+            startOffset = parser.currentLocation().getByteOffset();
+            event.begin();
+        }
         try {
-            String line = source.readUtf8Line();
-            while (line != null && line.isEmpty()) {
-                line = source.readUtf8Line();
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return false;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new SQLException("Streaming report frame is not a JSON object: " + token
+                        + " at " + parser.currentLocation());
+            }
+            frame.reset();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type":
+                        frame.type = text(value);
+                        break;
+                    case "schema":
+                        frame.schema = readSchema(value);
+                        break;
+                    case "rows":
+                        readRows(value);
+                        break;
+                    case "row_count":
+                        if (value.isNumeric()) {
+                            frame.rowCount = parser.getLongValue();
+                        }
+                        break;
+                    case "error":
+                        frame.error = text(value);
+                        break;
+                    case "transformed_query":
+                        frame.transformedQuery = text(value);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
             }
-            if (line == null) {
-                return null;
+            if (event.isEnabled()) {
+                event.frameType = frame.type;
+                event.rows = frame.rows.size();
+                event.bytes = parser.currentLocation().getByteOffset() - startOffset;
+                event.commit();
             }
-            return MAPPER.readTree(line);
+            return true;
         } catch (IOException e) {
             throw new SQLException("Failed to read streaming report frame", e);
         }
     }
 
-    private void handleFrame(JsonNode frame) throws SQLException {
-        JsonNode typeNode = frame.get("type");
-        String type = typeNode != null ? typeNode.asText() : null;
+    private String text(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    private List<Schema> readSchema(JsonToken token) throws IOException {
+        List<Schema> parsed = new ArrayList<>();
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return parsed;
+        }
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String name = null;
+            String dataType = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("name".equals(field)) {
+                    name = text(value);
+                } else if ("data_type".equals(field)) {
+                    dataType = text(value);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            parsed.add(new Schema(name, dataType));
+        }
+        return parsed;
+    }
+
+    private void readRows(JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        List<String[]> batch = frame.rows;
+        int width = schema != null ? schema.size() : 8;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            String[] row = new String[width];
+            int cells = 0;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (cells == row.length) {
+                    row = Arrays.copyOf(row, Math.max(1, row.length * 2));
+                }
+                row[cells++] = text(token);
+            }
+            batch.add(cells == row.length ? row : Arrays.copyOf(row, cells));
+        }
+    }
+
+    private void handleFrame() throws SQLException {
+        String type = frame.type;
         if (type == null) {
-            throw new SQLException("Streaming report frame missing \"type\": " + frame);
+            throw invalidFrame(null);
         }
         switch (type) {
             case "schema":
-                handleSchema(frame);
+                handleSchema();
                 break;
             case "rows":
-                handleRows(frame);
+                handleRows();
                 break;
             case "end":
-                handleEnd(frame);
+                handleEnd(frame.rowCount);
                 break;
             case "error":
-                handleError(frame);
+                handleError(frame.error);
                 break;
             default:
-                throw new SQLException("Unknown streaming report frame type: " + type);
+                throw invalidFrame(type);
         }
     }
 
-    private void handleSchema(JsonNode frame) throws SQLException {
-        if (schemaSeen) {
-            throw new SQLException("Streaming report sent a second schema frame");
+    private SQLException invalidFrame(String type) {
+        if (type == null) {
+            return new SQLException("Streaming report frame missing \"type\" at "
+                    + parser.currentLocation());
         }
-        List<Schema> parsed = new ArrayList<>();
-        JsonNode schemaNode = frame.get("schema");
-        if (schemaNode != null && schemaNode.isArray()) {
-            for (JsonNode col : schemaNode) {
-                JsonNode nameNode = col.get("name");
-                JsonNode typeNode = col.get("data_type");
-                parsed.add(new Schema(
-                        nameNode != null ? nameNode.asText() : null,
-                        typeNode != null ? typeNode.asText() : null));
-            }
+        if ("schema".equals(type)) {
+            return new SQLException("Streaming report sent a second schema frame");
+        }
+        return new SQLException("Unknown streaming report frame type: " + type);
+    }
+
+    private void handleSchema() throws SQLException {
+        if (schemaSeen) {
+            throw invalidFrame("schema");
         }
-        this.schema = Collections.unmodifiableList(parsed);
-        JsonNode tq = frame.get("transformed_query");
-        if (tq != null && !tq.isNull()) {
-            this.transformedQuery = tq.asText();
+        this.schema = Collections.unmodifiableList(
+                frame.schema != null ? frame.schema : new ArrayList<>());
+        if (frame.transformedQuery != null) {
+            this.transformedQuery = frame.transformedQuery;
         }
         this.schemaSeen = true;
     }
 
-    private void handleRows(JsonNode frame) throws SQLException {
-        List<List<String>> batch = new ArrayList<>();
-        JsonNode rowsNode = frame.get("rows");
-        if (rowsNode != null && rowsNode.isArray()) {
-            for (JsonNode rowNode : rowsNode) {
-                List<String> row = new ArrayList<>();
-                for (JsonNode cell : rowNode) {
-                    row.add(cell.isNull() ? null : cell.asText());
-                }
-                batch.add(row);
-            }
-        }
+    private void handleRows() {
+        // The previous batch is fully consumed by now, so the frame's list
+        // becomes the buffer and the old buffer is recycled for the next frame.
+        List<String[]> batch = frame.rows;
+        frame.rows = buffer;
         this.buffer = batch;
         this.bufferIndex = 0;
     }
 
-    private void handleEnd(JsonNode frame) {
-        JsonNode rc = frame.get("row_count");
-        if (rc != null && rc.isNumber()) {
-            this.rowCount = rc.asLong();
+    private void handleEnd(long reportedRowCount) {
+        if (reportedRowCount >= 0) {
+            this.rowCount = reportedRowCount;
         }
         this.terminated = true;
     }
 
-    private void handleError(JsonNode frame) throws SQLException {
+    private void handleError(String error) throws SQLException {
         this.terminated = true;
-        JsonNode errNode = frame.get("error");
-        String message = errNode != null ? errNode.asText() : "unknown streaming error";
+        String message = error != null ? error : "unknown streaming error";
         closeQuietly();
         throw new SQLException(new DatalatheQueryException(
                 Collections.singletonMap(0, message)));
     }
 
+    private SQLException truncated() {
+        terminated = true;
+        currentRow = null;
+        closeQuietly();
+        return new SQLException(
+                "Streaming report ended without a terminal frame "
+                        + "(transport failure after " + emittedRows + " rows)");
+    }
+
+    // --- Prefetch ---
+
+    /**
+     * Reader-thread loop: decodes frames into batches until a terminal
+     * frame, a failure, or {@link #close()}. Only this thread touches the
+     * parser once prefetching has started.
+     */
+    private void prefetch() {
+        try {
+            while (true) {
+                if (!readFrame()) {
+                    prefetched.put(Batch.TRUNCATED);
+                    return;
+                }
+                String type = frame.type;
+                if ("rows".equals(type)) {
+                    prefetched.put(Batch.rows(frame.rows));
+                    frame.rows = new ArrayList<>();
+                } else if ("end".equals(type)) {
+                    prefetched.put(Batch.end(frame.rowCount));
+                    return;
+                } else if ("error".equals(type)) {
+                    prefetched.put(Batch.error(frame.error));
+                    return;
+                } else {
+                    prefetched.put(Batch.failure(invalidFrame(type)));
+                    return;
+                }
+            }
+        } catch (SQLException e) {
+            if (!closed) {
+                try {
+                    prefetched.put(Batch.failure(e));
+                } catch (InterruptedException ignored) {
+                    // closed while waiting for queue space
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() interrupts a reader blocked on a full queue
+        }
+    }
+
+    private Batch takeBatch() throws SQLException {
+        try {
+            return prefetched.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for streaming report rows", e);
+        }
+    }
+
+    private void applyBatch(Batch batch) throws SQLException {
+        switch (batch.kind) {
+            case ROWS:
+                this.buffer = batch.rows;
+                this.bufferIndex = 0;
+                break;
+            case END:
+                handleEnd(batch.rowCount);
+                break;
+            case ERROR:
+                handleError(batch.error);
+                break;
+            case TRUNCATED:
+                throw truncated();
+            default:
+                terminated = true;
+                currentRow = null;
+                closeQuietly();
+                throw batch.failure;
+        }
+    }
+
+    private static Thread newReaderThread(Runnable task) {
+        String name = "datalathe-stream-prefetch";
+        try {
+            // Thread.ofVirtual() is Java 21+; the client targets an older release.
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class).invoke(builder, name);
+            return (Thread) builderType.getMethod("unstarted", Runnable.class).invoke(builder, task);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /** One unit handed from the reader thread to the consumer. */
+    private static final class Batch {
+        enum Kind { ROWS, END, ERROR, TRUNCATED, FAILED }
+
+        static final Batch TRUNCATED = new Batch(Kind.TRUNCATED, null, -1, null, null);
+
+        final Kind kind;
+        final List<String[]> rows;
+        final long rowCount;
+        final String error;
+        final SQLException failure;
+
+        private Batch(Kind kind, List<String[]> rows, long rowCount, String error, SQLException failure) {
+            this.kind = kind;
+            this.rows = rows;
+            this.rowCount = rowCount;
+            this.error = error;
+            this.failure = failure;
+        }
+
+        static Batch rows(List<String[]> rows) {
+            return new Batch(Kind.ROWS, rows, -1, null, null);
+        }
+
+        static Batch end(long rowCount) {
+            return new Batch(Kind.END, null, rowCount, null, null);
+        }
+
+        static Batch error(String error) {
+            return new Batch(Kind.ERROR, null, -1, error, null);
+        }
+
+        static Batch failure(SQLException failure) {
+            return new Batch(Kind.FAILED, null, -1, null, failure);
+        }
+    }
+
+    /** Fields of the frame being decoded; reused across frames. */
+    private static final class Frame {
+        String type;
+        List<Schema> schema;
+        List<String[]> rows = new ArrayList<>();
+        long rowCount;
+        String error;
+        String transformedQuery;
+
+        void reset() {
+            type = null;
+            schema = null;
+            rows.clear();
+            rowCount = -1;
+            error = null;
+            transformedQuery = null;
+        }
+    }
+
     @Override
     public boolean next() throws SQLException {
         if (closed) {
@@ -198,16 +531,14 @@ public class DatalatheStreamingResultSet extends AbstractResultSet {
                 currentRow = null;
                 return false;
             }
-            JsonNode frame = readFrame();
-            if (frame == null) {
-                terminated = true;
-                currentRow = null;
-                closeQuietly();
-                throw new SQLException(
-                        "Streaming report ended without a terminal frame "
-                                + "(transport failure after " + emittedRows + " rows)");
+            if (prefetched != null) {
+                applyBatch(takeBatch());
+                continue;
+            }
+            if (!readFrame()) {
+                throw truncated();
             }
-            handleFrame(frame);
+            handleFrame();
         }
     }
 
@@ -215,7 +546,13 @@ public class DatalatheStreamingResultSet extends AbstractResultSet {
     public void close() throws SQLException {
         if (!closed) {
             closed = true;
-            response.close();
+            try {
+                stopReader();
+                closeParser();
+                response.close();
+            } finally {
+                notifyClosed();
+            }
         }
     }
 
@@ -223,10 +560,52 @@ public class DatalatheStreamingResultSet extends AbstractResultSet {
         if (!closed) {
             closed = true;
             try {
+                stopReader();
+                closeParser();
                 response.close();
             } catch (RuntimeException ignored) {
                 // best effort
             }
+            notifyClosed();
+        }
+    }
+
+    private void closeParser() {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // the response is closed next anyway
+        }
+    }
+
+    private void notifyClosed() {
+        if (onClose != null) {
+            onClose.run();
+        }
+    }
+
+    /**
+     * Aborts the reader's read, by cancelling the call or else closing the
+     * response, then waits for the reader to exit so it never touches the
+     * parser after close returns. The interrupt covers a reader blocked on
+     * a full queue.
+     */
+    private void stopReader() {
+        if (reader == null || reader == Thread.currentThread()) {
+            return;
+        }
+        if (reader.isAlive()) {
+            if (call != null) {
+                call.cancel();
+            } else {
+                response.close();
+            }
+        }
+        reader.interrupt();
+        try {
+            reader.join(READER_JOIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -259,7 +638,7 @@ public class DatalatheStreamingResultSet extends AbstractResultSet {
         if (columnIndex < 1 || columnIndex > schema.size()) {
             throw new SQLException("Invalid column index: " + columnIndex);
         }
-        String value = currentRow.get(columnIndex - 1);
+        String value = columnIndex <= currentRow.length ? currentRow[columnIndex - 1] : null;
         if (value != null && value.isEmpty()) {
             return null;
         }
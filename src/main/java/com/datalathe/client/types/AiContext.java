@@ -1,9 +1,9 @@
 package com.datalathe.client.types;
 
+import com.datalathe.client.JsonCodec;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,7 +19,9 @@ import java.util.Map;
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AiContext {
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> CHIP_IDS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Map<String, String>>> COLUMN_DESCRIPTIONS =
+            new TypeReference<>() {};
 
     @JsonProperty("context_id")
     private String contextId;
@@ -47,7 +49,7 @@ public class AiContext {
             return Collections.emptyList();
         }
         try {
-            return MAPPER.readValue(chipIds, new TypeReference<List<String>>() {});
+            return JsonCodec.reader(CHIP_IDS).readValue(chipIds);
         } catch (Exception e) {
             return Collections.emptyList();
         }
@@ -62,8 +64,7 @@ public class AiContext {
             return Collections.emptyMap();
         }
         try {
-            return MAPPER.readValue(columnDescriptions,
-                    new TypeReference<Map<String, Map<String, String>>>() {});
+            return JsonCodec.reader(COLUMN_DESCRIPTIONS).readValue(columnDescriptions);
         } catch (Exception e) {
             return Collections.emptyMap();
         }
@@ -0,0 +1,153 @@
+package com.datalathe.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.IngestJob;
+import com.datalathe.client.types.IngestJobStatus;
+import com.datalathe.client.types.SourceType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncDatalatheClientTest {
+
+    private MockWebServer server;
+    private DatalatheClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private void enqueueJson(int code, String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+    }
+
+    @Test
+    void createChipCompletesWithChipId() throws Exception {
+        enqueueJson(200, "{\"chip_id\":\"chip-1\"}");
+
+        ChipSource source = ChipSource.builder()
+                .sourceType(SourceType.MYSQL)
+                .databaseName("db")
+                .tableName("users")
+                .query("SELECT * FROM users")
+                .build();
+        String chipId = client.async().createChip(source, null, Map.of("tenant", "42"))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("chip-1", chipId);
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/lathe/stage/data", request.getPath());
+        assertTrue(request.getBody().readUtf8().contains("\"tenant\":\"42\""));
+    }
+
+    @Test
+    void createChipRejectsSourceWithoutSourceType() {
+        CompletableFuture<String> future = client.async().createChip(ChipSource.builder().build());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    void manyReportsRunConcurrentlyWithoutCallerThreads() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setBodyDelay(100, TimeUnit.MILLISECONDS)
+                        .setBody("{\"result\":{\"0\":{\"result\":[[\"1\"]],"
+                                + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}}}");
+            }
+        });
+
+        List<CompletableFuture<GenerateReportResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(client.async().generateReport(List.of("chip1"), List.of("SELECT " + i),
+                    null, null, true));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        for (CompletableFuture<GenerateReportResult> f : futures) {
+            assertTrue(f.get().getResults().get(0).getResultSet().next());
+        }
+        assertEquals(20, server.getRequestCount());
+    }
+
+    @Test
+    void reportQueryErrorCompletesExceptionally() {
+        enqueueJson(200, "{\"result\":{\"0\":{\"error\":\"no such table\"}}}");
+
+        CompletableFuture<GenerateReportResult> future =
+                client.async().generateReport(List.of("chip1"), List.of("SELECT 1"), null, null, true);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DatalatheQueryException.class, e.getCause());
+    }
+
+    @Test
+    void structuredErrorSurfacesTypedException() {
+        enqueueJson(404, "{\"error\":\"gone\",\"error_code\":\"chip_not_found\",\"chip_id\":\"lost\"}");
+
+        CompletableFuture<?> future = client.async().getChip("lost");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        ChipNotFoundException cause = assertInstanceOf(ChipNotFoundException.class, e.getCause());
+        assertEquals("lost", cause.getChipId());
+    }
+
+    @Test
+    void getIngestJobAndSearchShareRequestShapeWithSyncClient() throws Exception {
+        enqueueJson(200, "{\"job_id\":\"job-1\",\"status\":\"running\"}");
+        enqueueJson(200, "{\"chips\":[],\"metadata\":[],\"tags\":[]}");
+
+        IngestJob job = client.async().getIngestJob("job-1").get(5, TimeUnit.SECONDS);
+        client.async().searchChips("users", null, "tenant", "42").get(5, TimeUnit.SECONDS);
+
+        assertEquals(IngestJobStatus.RUNNING, job.getStatus());
+        assertEquals("/lathe/jobs/job-1", server.takeRequest().getPath());
+        assertEquals("/lathe/chips/search?table_name=users&tag=tenant%3A42", server.takeRequest().getPath());
+    }
+
+    @Test
+    void cancellingFutureCancelsCall() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeadersDelay(1, TimeUnit.SECONDS)
+                .setBody("{\"chips\":[]}"));
+
+        CompletableFuture<?> future = client.async().listChips(null, null);
+        server.takeRequest(5, TimeUnit.SECONDS);
+        assertTrue(future.cancel(true));
+
+        assertTrue(future.isCancelled());
+    }
+}
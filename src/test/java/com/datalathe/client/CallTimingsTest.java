@@ -0,0 +1,126 @@
+package com.datalathe.client;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallTimingsTest {
+    private static final String REPORT = "{\"result\":{\"0\":{"
+            + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}],\"result\":[[\"7\"]]}},"
+            + "\"timing\":{\"total_ms\":100,\"chip_attach_ms\":10,\"query_execution_ms\":90}}";
+
+    private MockWebServer server;
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private DatalatheClient.Builder builder() {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""));
+    }
+
+    private void enqueueReport(long headersDelayMillis) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setHeadersDelay(headersDelayMillis, TimeUnit.MILLISECONDS)
+                .setBody(REPORT));
+    }
+
+    @Test
+    void reportResultsCarryPhaseTimings() throws Exception {
+        DatalatheClient client = builder().build();
+        enqueueReport(300);
+        enqueueReport(0);
+
+        GenerateReportResult first = client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        CallTimings timings = first.getCallTimings();
+        assertFalse(timings.isConnectionReused());
+        assertTrue(timings.getTimeToFirstByte().toMillis() >= 300);
+        assertTrue(timings.getTotal().compareTo(timings.getTimeToFirstByte()) >= 0);
+        assertTrue(first.unaccountedWait().toMillis() >= 200);
+        assertEquals(100, first.getTiming().getTotalMs());
+
+        GenerateReportResult second = client.async()
+                .generateReport(List.of("a"), List.of("SELECT 2"), null, null, true).get(5, TimeUnit.SECONDS);
+        assertTrue(second.getCallTimings().isConnectionReused());
+        assertEquals(Duration.ZERO, second.getCallTimings().getConnect());
+        assertEquals(Duration.ZERO, second.unaccountedWait());
+    }
+
+    @Test
+    void listenerSeesEveryCall() throws Exception {
+        DatalatheClient client = builder()
+                .callTimings((method, route, timings) -> calls.add(method + " " + route))
+                .build();
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"chips\":[]}"));
+        enqueueReport(0);
+
+        client.getChip("c1");
+        client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+
+        assertEquals(List.of("GET /lathe/chips/{id}", "POST /lathe/report"), calls);
+    }
+
+    @Test
+    void cachedReportsKeepTheFillingCallsTimings() throws Exception {
+        DatalatheClient client = builder().reportCache(ReportCacheConfig.builder().build()).build();
+        enqueueReport(0);
+
+        GenerateReportResult first = client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        GenerateReportResult cached = client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+
+        assertNotNull(first.getCallTimings());
+        assertSame(first.getCallTimings(), cached.getCallTimings());
+        assertEquals(first.unaccountedWait(), cached.unaccountedWait());
+    }
+
+    @Test
+    void suppliedClientsEventListenerStillReceivesEvents() throws Exception {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        OkHttpClient existing = new OkHttpClient.Builder()
+                .eventListener(new EventListener() {
+                    @Override
+                    public void callEnd(Call call) {
+                        events.add("callEnd " + call.request().url().encodedPath());
+                    }
+                })
+                .build();
+        DatalatheClient client = builder()
+                .httpClient(existing)
+                .callTimings((method, route, timings) -> calls.add(method + " " + route))
+                .build();
+        enqueueReport(0);
+
+        GenerateReportResult result = client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+
+        assertNotNull(result.getCallTimings());
+        assertEquals(List.of("POST /lathe/report"), calls);
+        assertEquals(List.of("callEnd /lathe/report"), events);
+    }
+}
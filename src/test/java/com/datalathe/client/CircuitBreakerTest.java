@@ -0,0 +1,147 @@
+package com.datalathe.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private static final String CHIPS = "{\"chips\":[],\"metadata\":[],\"tags\":[]}";
+    private static final String REPORT = "{\"result\":{\"0\":{"
+            + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}],\"result\":[[\"7\"]]}}}";
+
+    private MockWebServer server;
+    private final List<String> transitions = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private DatalatheClient client(long openMillis) {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .retryConfig(RetryConfig.DISABLED)
+                .circuitBreaker(CircuitBreakerConfig.builder()
+                        .windowSize(4)
+                        .minimumCalls(4)
+                        .openMillis(openMillis)
+                        .listener((endpointClass, from, to) -> transitions.add(endpointClass + ":" + from + "->" + to))
+                        .build())
+                .build();
+    }
+
+    private void enqueue(int code, String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+    }
+
+    private void tripLightCircuit(DatalatheClient client) {
+        enqueue(200, CHIPS);
+        enqueue(200, CHIPS);
+        enqueue(500, "{\"error\":\"down\"}");
+        enqueue(503, "{\"error\":\"down\"}");
+        for (int i = 0; i < 4; i++) {
+            try {
+                client.listChips();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Test
+    void opensAtFailureRateAndFailsFastPerEndpointClass() throws Exception {
+        DatalatheClient client = client(60_000);
+        tripLightCircuit(client);
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, () -> client.listChips());
+        assertEquals(EndpointClass.LIGHT, e.getEndpointClass());
+        assertTrue(e.getRetryAfterMillis() > 0);
+        assertEquals(4, server.getRequestCount());
+        Exception async = assertThrows(Exception.class, () -> client.async().getChip("c1").join());
+        assertTrue(async.getCause() instanceof CircuitOpenException);
+
+        enqueue(200, REPORT);
+        client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+
+        CircuitBreakerStats light = client.getCircuitBreakerStats(EndpointClass.LIGHT);
+        assertEquals(CircuitState.OPEN, light.getState());
+        assertEquals(0.5, light.getFailureRate());
+        assertEquals(2, light.getRejectedCount());
+        assertEquals(1, light.getOpenedCount());
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats(EndpointClass.HEAVY).getState());
+        assertEquals(List.of("LIGHT:CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    void successfulProbeClosesTheCircuit() throws Exception {
+        DatalatheClient client = client(100);
+        tripLightCircuit(client);
+        Thread.sleep(150);
+
+        enqueue(200, CHIPS);
+        client.listChips();
+
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats(EndpointClass.LIGHT).getState());
+        assertEquals(0, client.getCircuitBreakerStats(EndpointClass.LIGHT).getBufferedCalls());
+        assertEquals(List.of("LIGHT:CLOSED->OPEN", "LIGHT:OPEN->HALF_OPEN", "LIGHT:HALF_OPEN->CLOSED"),
+                transitions);
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws Exception {
+        DatalatheClient client = client(100);
+        tripLightCircuit(client);
+        Thread.sleep(150);
+
+        enqueue(502, "{\"error\":\"still down\"}");
+        assertThrows(IOException.class, () -> client.listChips());
+
+        assertEquals(CircuitState.OPEN, client.getCircuitBreakerStats(EndpointClass.LIGHT).getState());
+        assertEquals(2, client.getCircuitBreakerStats(EndpointClass.LIGHT).getOpenedCount());
+        assertThrows(CircuitOpenException.class, () -> client.listChips());
+    }
+
+    @Test
+    void connectionFailuresCountButThrottlingDoesNot() throws Exception {
+        DatalatheClient client = client(60_000);
+        for (int i = 0; i < 4; i++) {
+            enqueue(429, "{\"error_code\":\"admission_saturated\"}");
+            assertThrows(DatalatheApiException.class, () -> client.listChips());
+        }
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats(EndpointClass.LIGHT).getState());
+
+        server.shutdown();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IOException.class, () -> client.listChips());
+        }
+        assertThrows(CircuitOpenException.class, () -> client.listChips());
+    }
+
+    @Test
+    void disabledByDefault() throws Exception {
+        DatalatheClient client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+        for (int i = 0; i < 5; i++) {
+            enqueue(500, "{\"error\":\"down\"}");
+            assertThrows(IOException.class, () -> client.listChips());
+        }
+        assertEquals(5, server.getRequestCount());
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats(EndpointClass.LIGHT).getState());
+    }
+}
@@ -0,0 +1,132 @@
+package com.datalathe.client;
+
+import com.datalathe.client.metrics.ClientMetrics;
+import com.datalathe.client.metrics.InMemoryClientMetrics;
+import com.datalathe.client.metrics.MicrometerClientMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientMetricsTest {
+    private static final String CHIP = "{\"chips\":[{\"chip_id\":\"c1\",\"table_name\":\"t\"}]}";
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private DatalatheClient client(ClientMetrics metrics) {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .retryConfig(RetryConfig.builder().backoffBaseMillis(1).build())
+                .metrics(metrics)
+                .build();
+    }
+
+    private void enqueue(int code, String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+    }
+
+    private void exercise(DatalatheClient client) throws IOException {
+        enqueue(200, CHIP);
+        enqueue(429, "{\"error_code\":\"admission_saturated\"}");
+        enqueue(200, CHIP);
+        enqueue(500, "{\"error\":\"boom\"}");
+        enqueue(200, "{\"tables\":[\"t\"]}");
+
+        client.getChip("c1");
+        client.getChip("c2");
+        assertThrows(IOException.class, () -> client.getChip("c3"));
+        client.extractTables("SELECT * FROM t");
+    }
+
+    @Test
+    void recordsPerEndpointInMemory() throws Exception {
+        InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+        exercise(client(metrics));
+
+        Map<String, InMemoryClientMetrics.EndpointMetrics> snapshot = metrics.snapshot();
+        assertEquals(List.of("GET /lathe/chips/{id}", "POST /lathe/query/tables"), List.copyOf(snapshot.keySet()));
+
+        InMemoryClientMetrics.EndpointMetrics chips = snapshot.get("GET /lathe/chips/{id}");
+        assertEquals(Map.of(200, 2L, 429, 1L, 500, 1L), chips.getStatusCounts());
+        assertEquals(4, chips.requestCount());
+        assertEquals(1, chips.getRetryCount());
+        assertEquals(0, chips.getInFlight());
+        assertTrue(chips.getResponseBytes() >= 2L * CHIP.length());
+        assertTrue(chips.percentileMillis(0.99) > 0);
+
+        InMemoryClientMetrics.EndpointMetrics tables = snapshot.get("POST /lathe/query/tables");
+        assertTrue(tables.getRequestBytes() > 0);
+        assertEquals(Map.of(200, 1L), tables.getStatusCounts());
+    }
+
+    @Test
+    void recordsToMicrometer() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        exercise(client(new MicrometerClientMetrics(registry)));
+
+        assertEquals(2, registry.get("datalathe.client.requests")
+                .tags("method", "GET", "uri", "/lathe/chips/{id}", "status", "200").timer().count());
+        assertEquals(1, registry.get("datalathe.client.requests")
+                .tags("status", "500").timer().count());
+        assertEquals(1.0, registry.get("datalathe.client.retries").counter().count());
+        assertEquals(0.0, registry.get("datalathe.client.requests.active")
+                .tags("uri", "/lathe/chips/{id}").gauge().value());
+        assertTrue(registry.get("datalathe.client.request.size")
+                .tags("uri", "/lathe/query/tables").summary().totalAmount() > 0);
+    }
+
+    @Test
+    void connectionFailuresRecordStatusZero() throws Exception {
+        InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+        DatalatheClient client = client(metrics);
+        server.shutdown();
+
+        assertThrows(IOException.class, () -> client.getChip("c1"));
+
+        assertEquals(Map.of(0, 1L), metrics.snapshot().get("GET /lathe/chips/{id}").getStatusCounts());
+    }
+
+    @Test
+    void routesReplaceIdentifiers() {
+        assertEquals("/lathe/chips/{id}", Routes.template("/lathe/chips/abc%20123"));
+        assertEquals("/lathe/chips/{id}/tags", Routes.template("/lathe/chips/abc/tags"));
+        assertEquals("/lathe/chips/search", Routes.template("/lathe/chips/search"));
+        assertEquals("/lathe/jobs/{id}/resume", Routes.template("/api/lathe/jobs/j1/resume"));
+        assertEquals("/lathe/stage/schema/{id}", Routes.template("/lathe/stage/schema/db"));
+        assertEquals("/lathe/report", Routes.template("/lathe/report"));
+    }
+
+    @Test
+    void percentileIsTheBucketUpperBound() {
+        long[] buckets = new long[InMemoryClientMetrics.BUCKET_BOUNDS_MILLIS.length + 1];
+        buckets[3] = 90;   // <= 10ms
+        buckets[8] = 10;   // <= 500ms
+        InMemoryClientMetrics.EndpointMetrics metrics =
+                new InMemoryClientMetrics.EndpointMetrics("GET /x", Map.of(), 0, 0, buckets, 0, 0, 0);
+
+        assertEquals(10, metrics.percentileMillis(0.9));
+        assertEquals(500, metrics.percentileMillis(0.95));
+    }
+}
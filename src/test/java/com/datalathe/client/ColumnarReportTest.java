@@ -0,0 +1,243 @@
+package com.datalathe.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datalathe.client.results.ColumnarResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnarReportTest {
+
+    private MockWebServer server;
+    private DatalatheClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String TYPED_REPORT = "{\"result\":{\"0\":{"
+            + "\"schema\":["
+            + "{\"name\":\"id\",\"data_type\":\"Int32\"},"
+            + "{\"name\":\"total\",\"data_type\":\"Int64\"},"
+            + "{\"name\":\"score\",\"data_type\":\"Float64\"},"
+            + "{\"name\":\"active\",\"data_type\":\"Boolean\"},"
+            + "{\"name\":\"name\",\"data_type\":\"Utf8\"}],"
+            + "\"result\":["
+            + "[\"1\",\"9000000000\",\"95.5\",\"true\",\"John\"],"
+            + "[\"2\",\"-7\",\"88\",\"false\",\"Jane\"],"
+            + "[\"3\",\"\",null,\"true\",null]]}},"
+            + "\"timing\":{\"total_ms\":12,\"chip_attach_ms\":3,\"query_execution_ms\":9}}";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private void enqueueJson(String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+    }
+
+    @Test
+    void decodesColumnsByDataType() throws Exception {
+        enqueueJson(TYPED_REPORT);
+
+        ColumnarReportResult report = client.generateColumnarReport(List.of("chip-1"),
+                List.of("SELECT * FROM t"), null, null, true);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/lathe/report", request.getPath());
+        JsonNode body = mapper.readTree(request.getBody().readUtf8());
+        assertEquals("chip-1", body.get("chip_id").get(0).asText());
+        assertEquals("SELECT * FROM t", body.get("query_request").get("query").get(0).asText());
+
+        assertEquals(12, report.getTiming().getTotalMs());
+        ColumnarResult result = report.getResults().get(0);
+        assertEquals(3, result.getRowCount());
+        assertEquals(5, result.getColumnCount());
+
+        ResultSet rs = result.getResultSet();
+        assertTrue(rs.next());
+        assertEquals(1, rs.getInt("id"));
+        assertEquals(9_000_000_000L, rs.getLong("total"));
+        assertEquals(95.5, rs.getDouble("score"));
+        assertTrue(rs.getBoolean("active"));
+        assertEquals("John", rs.getString("name"));
+        assertEquals(Integer.valueOf(1), rs.getObject("id"));
+        assertEquals(Long.valueOf(9_000_000_000L), rs.getObject("total"));
+
+        assertTrue(rs.next());
+        assertEquals(-7L, rs.getLong(2));
+        assertEquals(-7, rs.getInt(2));
+        assertEquals("88", rs.getString(3));
+        assertFalse(rs.getBoolean(4));
+
+        assertTrue(rs.next());
+        assertEquals(0L, rs.getLong(2));
+        assertTrue(rs.wasNull());
+        assertEquals(0.0, rs.getDouble(3));
+        assertTrue(rs.wasNull());
+        assertNull(rs.getString(5));
+        assertTrue(rs.wasNull());
+        assertEquals(3, rs.getInt(1));
+        assertFalse(rs.wasNull());
+        assertFalse(rs.next());
+
+        assertTrue(rs.absolute(1));
+        assertEquals("1", rs.getString(1));
+        assertEquals(Types.INTEGER, rs.getMetaData().getColumnType(2));
+        assertEquals("score", rs.getMetaData().getColumnName(3));
+    }
+
+    @Test
+    void undecodableValueFallsBackToStringStorage() throws Exception {
+        enqueueJson("{\"result\":{\"0\":{"
+                + "\"schema\":[{\"name\":\"amount\",\"data_type\":\"Int32\"}],"
+                + "\"result\":[[\"5\"],[\"712.17\"],[\"3000000000\"]]}}}");
+
+        ColumnarReportResult report = client.generateColumnarReport(List.of("chip-1"),
+                List.of("SELECT amount FROM t"), null, null, true);
+
+        ResultSet rs = report.getResults().get(0).getResultSet();
+        assertTrue(rs.next());
+        assertEquals(5, rs.getInt(1));
+        assertEquals("5", rs.getString(1));
+        assertTrue(rs.next());
+        // Same truncation DatalatheResultSet applies to float strings
+        assertEquals(712, rs.getInt(1));
+        assertEquals("712.17", rs.getString(1));
+        assertTrue(rs.next());
+        assertEquals(3_000_000_000L, rs.getLong(1));
+    }
+
+    @FunctionalInterface
+    private interface Getter {
+        Object get(ResultSet rs, int column) throws Exception;
+    }
+
+    private static final List<Getter> GETTERS = List.of(
+            ResultSet::getString, ResultSet::getBoolean, ResultSet::getByte, ResultSet::getShort,
+            ResultSet::getInt, ResultSet::getLong, ResultSet::getFloat, ResultSet::getDouble,
+            ResultSet::getObject);
+
+    private static Object outcome(ResultSet rs, int column, Getter getter) {
+        try {
+            return getter.get(rs, column) + " wasNull=" + rs.wasNull();
+        } catch (Exception e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    void everyGetterMatchesDatalatheResultSet() throws Exception {
+        String report = "{\"result\":{\"0\":{"
+                + "\"schema\":["
+                + "{\"name\":\"a\",\"data_type\":\"Int32\"},"
+                + "{\"name\":\"b\",\"data_type\":\"Int64\"},"
+                + "{\"name\":\"c\",\"data_type\":\"Float64\"},"
+                + "{\"name\":\"d\",\"data_type\":\"Float32\"},"
+                + "{\"name\":\"e\",\"data_type\":\"Boolean\"},"
+                + "{\"name\":\"f\",\"data_type\":\"Int32\"},"
+                + "{\"name\":\"g\",\"data_type\":\"Utf8\"}],"
+                + "\"result\":["
+                + "[\"5\",\"9000000000\",\"88\",\"2.5\",\"true\",\"1\",\"12\"],"
+                + "[\"+5\",\"7\",\"95.5\",\"0.1\",\"TRUE\",\"+2\",\"x\"],"
+                + "[\"-0\",\"-7\",\"1e3\",\"88\",\"false\",\"712.17\",\"true\"],"
+                + "[\"300\",\"\",\"-0.0\",\"16777217\",\"False\",\"4\",\"1.5\"],"
+                + "[\"70000\",\"00\",\"3000000000.5\",null,\"true\",\"3000000000\",\"\"]]}}}";
+        enqueueJson(report);
+        enqueueJson(report);
+
+        ResultSet rowWise = client.generateReport(List.of("chip-1"), List.of("q"), null, null, true)
+                .getResults().get(0).getResultSet();
+        ResultSet columnar = client.generateColumnarReport(List.of("chip-1"), List.of("q"), null, null, true)
+                .getResults().get(0).getResultSet();
+
+        while (rowWise.next()) {
+            assertTrue(columnar.next());
+            for (int c = 1; c <= 7; c++) {
+                for (int g = 0; g < GETTERS.size(); g++) {
+                    assertEquals(outcome(rowWise, c, GETTERS.get(g)), outcome(columnar, c, GETTERS.get(g)),
+                            "row " + rowWise.getRow() + " column " + c + " getter " + g);
+                }
+            }
+        }
+        assertFalse(columnar.next());
+    }
+
+    @Test
+    void rowsBeforeSchemaAndLegacyDataFieldAreDecoded() throws Exception {
+        enqueueJson("{\"result\":{"
+                + "\"0\":{\"result\":[[\"4\",\"x\"]],"
+                + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int64\"},{\"name\":\"s\",\"data_type\":\"Utf8\"}]},"
+                + "\"1\":{\"data\":[[\"2.5\"]],"
+                + "\"schema\":[{\"name\":\"f\",\"data_type\":\"Float32\"}]}}}");
+
+        ColumnarReportResult report = client.generateColumnarReport(List.of("chip-1"),
+                List.of("q0", "q1"), null, null, true);
+
+        ResultSet first = report.getResults().get(0).getResultSet();
+        assertTrue(first.next());
+        assertEquals(4L, first.getLong("n"));
+        assertEquals("x", first.getString("s"));
+
+        ResultSet second = report.getResults().get(1).getResultSet();
+        assertTrue(second.next());
+        assertEquals(2.5f, second.getObject(1));
+        assertFalse(second.next());
+    }
+
+    @Test
+    void queryErrorRaisesUnlessDisabled() throws Exception {
+        String body = "{\"result\":{\"0\":{\"error\":\"Table not found\",\"result\":null}}}";
+        enqueueJson(body);
+        DatalatheQueryException e = assertThrows(DatalatheQueryException.class,
+                () -> client.generateColumnarReport(List.of("chip-1"), List.of("SELECT 1"), null, null, true));
+        assertEquals("Table not found", e.getErrors().get(0));
+
+        enqueueJson(body);
+        ColumnarReportResult report = client.generateColumnarReport(List.of("chip-1"),
+                List.of("SELECT 1"), null, null, false);
+        assertEquals("Table not found", report.getResults().get(0).getError());
+        assertEquals(0, report.getResults().get(0).getRowCount());
+    }
+
+    @Test
+    void asyncVariantDecodesTheSameWay() throws Exception {
+        enqueueJson(TYPED_REPORT);
+
+        ColumnarReportResult report = client.async().generateColumnarReport(List.of("chip-1"),
+                List.of("SELECT * FROM t"), null, null, true).get();
+
+        ResultSet rs = report.getResults().get(0).getResultSet();
+        assertTrue(rs.next());
+        assertEquals(1, rs.getInt(1));
+
+        enqueueJson("{\"result\":{\"0\":{\"error\":\"boom\"}}}");
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.async().generateColumnarReport(List.of("chip-1"), List.of("SELECT 1"),
+                        null, null, true).get());
+        assertTrue(e.getCause() instanceof DatalatheQueryException);
+    }
+}
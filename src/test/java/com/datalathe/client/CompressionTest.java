@@ -0,0 +1,184 @@
+package com.datalathe.client;
+
+import com.datalathe.client.results.DatalatheStreamingResultSet;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private DatalatheClient client(CompressionConfig config) {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .compression(config)
+                .build();
+    }
+
+    private static Buffer gzip(String text) throws IOException {
+        Buffer out = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(out))) {
+            sink.writeUtf8(text);
+        }
+        return out;
+    }
+
+    private void enqueueGzipped(String contentType, String body) throws IOException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", contentType)
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(gzip(body)));
+    }
+
+    private static String report(int rows) {
+        StringBuilder sb = new StringBuilder("{\"result\":{\"0\":{"
+                + "\"schema\":[{\"name\":\"name\",\"data_type\":\"Utf8\"}],\"result\":[");
+        for (int i = 0; i < rows; i++) {
+            sb.append(i > 0 ? "," : "").append("[\"customer-").append(i % 10).append("\"]");
+        }
+        return sb.append("]}}}").toString();
+    }
+
+    @Test
+    void gzipResponsesAreDecodedAndMetered() throws Exception {
+        DatalatheClient client = client(CompressionConfig.DEFAULT);
+        enqueueGzipped("application/json", report(2000));
+
+        GenerateReportResult result = client.generateReport(List.of("c"), List.of("SELECT 1"), null, null, true);
+
+        assertEquals(2000, result.getResults().get(0).getResult().size());
+        assertEquals("gzip", server.takeRequest().getHeader("Accept-Encoding"));
+        TransferStats stats = client.getTransferStats();
+        assertEquals(report(2000).length(), stats.getResponseBytes());
+        assertTrue(stats.getResponseWireBytes() < stats.getResponseBytes() / 5);
+        assertTrue(stats.responseCompressionRatio() > 5);
+    }
+
+    @Test
+    void gzipNdjsonStreamDecodesIncrementally() throws Exception {
+        DatalatheClient client = client(CompressionConfig.DEFAULT);
+        StringBuilder body = new StringBuilder(
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n");
+        for (int i = 0; i < 100; i++) {
+            body.append("{\"type\":\"rows\",\"rows\":[[\"").append(i).append("\"]]}\n");
+        }
+        body.append("{\"type\":\"end\",\"row_count\":100}\n");
+        enqueueGzipped("application/x-ndjson", body.toString());
+
+        int rows = 0;
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(List.of("c"), "SELECT n")) {
+            while (rs.next()) {
+                assertEquals(rows++, rs.getInt(1));
+            }
+        }
+        assertEquals(100, rows);
+        assertTrue(client.getTransferStats().responseCompressionRatio() > 1);
+    }
+
+    @Test
+    void gzipNdjsonRowsArriveBeforeTheStreamEnds() throws Exception {
+        DatalatheClient client = client(CompressionConfig.DEFAULT);
+        // Random padding keeps the first gzip chunk larger than the request, which
+        // MockWebServer reads with the same throttle
+        StringBuilder padding = new StringBuilder();
+        Random random = new Random(1);
+        for (int i = 0; i < 4096; i++) {
+            padding.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        Buffer wire = new Buffer();
+        BufferedSink sink = Okio.buffer(new GzipSink(wire));
+        sink.writeUtf8("{\"type\":\"schema\",\"padding\":\"" + padding
+                + "\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n"
+                + "{\"type\":\"rows\",\"rows\":[[\"0\"]]}\n");
+        sink.flush();
+        long firstFrames = wire.size();
+        sink.writeUtf8("{\"type\":\"rows\",\"rows\":[[\"1\"]]}\n{\"type\":\"end\",\"row_count\":2}\n");
+        sink.close();
+        // The rest of the gzip stream only follows a pause
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(wire)
+                .throttleBody(firstFrames, 1500, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(List.of("c"), "SELECT n")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertFalse(rs.next());
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1500);
+    }
+
+    @Test
+    void largeRequestBodiesAreGzippedWhenEnabled() throws Exception {
+        DatalatheClient client = client(CompressionConfig.builder().gzipRequests(true).build());
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(report(1)));
+        String query = "SELECT " + "col, ".repeat(500) + "1";
+
+        client.generateReport(List.of("c"), List.of(query), null, null, true);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        String decoded = Okio.buffer(new GzipSource(request.getBody())).readUtf8();
+        assertTrue(decoded.contains(query));
+        TransferStats stats = client.getTransferStats();
+        assertEquals(decoded.length(), stats.getRequestBytes());
+        assertTrue(stats.getRequestWireBytes() < stats.getRequestBytes() / 5);
+    }
+
+    @Test
+    void smallRequestBodiesAreSentAsIs() throws Exception {
+        DatalatheClient client = client(CompressionConfig.builder().gzipRequests(true).build());
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(report(1)));
+
+        client.generateReport(List.of("c"), List.of("SELECT 1"), null, null, true);
+
+        RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("Content-Encoding"));
+        assertTrue(request.getBody().readUtf8().contains("SELECT 1"));
+        assertEquals(1.0, client.getTransferStats().requestCompressionRatio());
+    }
+
+    @Test
+    void compressedResponsesCanBeDeclined() throws Exception {
+        DatalatheClient client = client(CompressionConfig.builder().compressedResponses(false).build());
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(report(1)));
+
+        client.generateReport(List.of("c"), List.of("SELECT 1"), null, null, true);
+
+        assertEquals("identity", server.takeRequest().getHeader("Accept-Encoding"));
+    }
+}
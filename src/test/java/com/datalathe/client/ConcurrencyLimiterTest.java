@@ -0,0 +1,223 @@
+package com.datalathe.client;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+    private static final String REPORT = "{\"result\":{\"0\":{"
+            + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}],\"result\":[[\"7\"]]}}}";
+
+    private MockWebServer server;
+    private final AtomicInteger reportsInFlight = new AtomicInteger();
+    private final AtomicInteger maxReportsInFlight = new AtomicInteger();
+    private volatile CountDownLatch reportGate = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (request.getPath().startsWith("/lathe/report")) {
+                    maxReportsInFlight.accumulateAndGet(reportsInFlight.incrementAndGet(), Math::max);
+                    try {
+                        reportGate.await(5, TimeUnit.SECONDS);
+                    } finally {
+                        reportsInFlight.decrementAndGet();
+                    }
+                    return json(200, REPORT);
+                }
+                return json(200, "{\"chips\":[]}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        reportGate.countDown();
+        server.shutdown();
+    }
+
+    private static MockResponse json(int code, String body) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    private DatalatheClient client(ConcurrencyLimitConfig config) {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .retryConfig(RetryConfig.DISABLED)
+                .concurrencyLimit(config)
+                .build();
+    }
+
+    @Test
+    void heavyCallsQueueWhileLightCallsProceed() throws Exception {
+        DatalatheClient client = client(ConcurrencyLimitConfig.builder()
+                .heavyInitialLimit(2).heavyMaxLimit(2).build());
+        reportGate = new CountDownLatch(1);
+
+        List<CompletableFuture<GenerateReportResult>> reports = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            reports.add(client.async().generateReport(List.of("a"), List.of("SELECT " + i), null, null, true));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.getConcurrencyLimitStats().getHeavyQueued() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        ConcurrencyLimitStats stats = client.getConcurrencyLimitStats();
+        assertEquals(2, stats.getHeavyInFlight());
+        assertEquals(4, stats.getHeavyQueued());
+        assertNotNull(client.searchChips("t", null));
+
+        reportGate.countDown();
+        for (CompletableFuture<GenerateReportResult> report : reports) {
+            assertEquals("7", report.get(5, TimeUnit.SECONDS).getResults().get(0).getResult().get(0).get(0));
+        }
+        assertEquals(2, maxReportsInFlight.get());
+        assertEquals(0, client.getConcurrencyLimitStats().getHeavyInFlight());
+    }
+
+    @Test
+    void overloadResponsesShrinkTheLimitAndBusySuccessesGrowIt() throws Exception {
+        DatalatheClient client = client(ConcurrencyLimitConfig.builder()
+                .heavyInitialLimit(4).backoffRatio(0.5).latencyTolerance(0).build());
+        server.setDispatcher(new Dispatcher() {
+            private final AtomicInteger calls = new AtomicInteger();
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return calls.getAndIncrement() < 2 ? json(503, "{\"error\":\"busy\"}") : json(200, REPORT);
+            }
+        });
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IOException.class,
+                    () -> client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true));
+        }
+        assertEquals(1, client.getConcurrencyLimitStats().getHeavyLimit());
+
+        for (int i = 0; i < 10; i++) {
+            client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        }
+        // Serial calls only grow the limit while they keep it at least half used.
+        assertEquals(2, client.getConcurrencyLimitStats().getHeavyLimit());
+        assertEquals(20, client.getConcurrencyLimitStats().getLightLimit());
+    }
+
+    @Test
+    void queuedCallFailsAfterMaxQueueWait() throws Exception {
+        DatalatheClient client = client(ConcurrencyLimitConfig.builder()
+                .heavyInitialLimit(1).heavyMaxLimit(1).maxQueueWaitMillis(200).build());
+        reportGate = new CountDownLatch(1);
+
+        CompletableFuture<GenerateReportResult> first =
+                client.async().generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reportsInFlight.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        IOException e = assertThrows(IOException.class,
+                () -> client.generateReport(List.of("a"), List.of("SELECT 2"), null, null, true));
+        assertTrue(e.getMessage().contains("heavy"));
+        assertEquals(1, client.getConcurrencyLimitStats().getRejectedCount());
+
+        reportGate.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void queuedAsyncCallsHoldNoDispatcherThread() throws Exception {
+        okhttp3.Dispatcher dispatcher = new okhttp3.Dispatcher();
+        dispatcher.setMaxRequestsPerHost(3);
+        DatalatheClient client = DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .httpClient(new OkHttpClient.Builder().dispatcher(dispatcher).build())
+                .retryConfig(RetryConfig.DISABLED)
+                .concurrencyLimit(ConcurrencyLimitConfig.builder().heavyInitialLimit(2).heavyMaxLimit(2).build())
+                .build();
+        reportGate = new CountDownLatch(1);
+
+        List<CompletableFuture<GenerateReportResult>> reports = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            reports.add(client.async().generateReport(List.of("a"), List.of("SELECT " + i), null, null, true));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.getConcurrencyLimitStats().getHeavyQueued() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, dispatcher.runningCallsCount());
+
+        // The one free dispatcher slot is still there for a light call
+        assertNotNull(client.async().listChips(null, null).get(2, TimeUnit.SECONDS));
+
+        reportGate.countDown();
+        for (CompletableFuture<GenerateReportResult> report : reports) {
+            report.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(0, client.getConcurrencyLimitStats().getHeavyInFlight());
+    }
+
+    @Test
+    void cancelledCallsLeaveTheLimitAlone() throws Exception {
+        okhttp3.Dispatcher dispatcher = new okhttp3.Dispatcher();
+        DatalatheClient client = DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .httpClient(new OkHttpClient.Builder().dispatcher(dispatcher).build())
+                .retryConfig(RetryConfig.DISABLED)
+                .concurrencyLimit(ConcurrencyLimitConfig.builder().heavyInitialLimit(4).backoffRatio(0.5).build())
+                .build();
+        reportGate = new CountDownLatch(1);
+
+        CompletableFuture<GenerateReportResult> report =
+                client.async().generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reportsInFlight.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        dispatcher.cancelAll();
+        assertThrows(Exception.class, () -> report.get(5, TimeUnit.SECONDS));
+        deadline = System.currentTimeMillis() + 5000;
+        while (client.getConcurrencyLimitStats().getHeavyInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        ConcurrencyLimitStats stats = client.getConcurrencyLimitStats();
+        assertEquals(0, stats.getHeavyInFlight());
+        assertEquals(4, stats.getHeavyLimit());
+    }
+
+    @Test
+    void classifiesEndpoints() {
+        assertEquals(EndpointClass.HEAVY, EndpointClass.of("/lathe/report"));
+        assertEquals(EndpointClass.HEAVY, EndpointClass.of("/api/lathe/stage/data"));
+        assertEquals(EndpointClass.LIGHT, EndpointClass.of("/lathe/chips/search"));
+        assertEquals(EndpointClass.LIGHT, EndpointClass.of("/lathe/jobs/j1"));
+    }
+
+    @Test
+    void disabledByDefault() throws Exception {
+        DatalatheClient client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+        client.searchChips("t", null);
+        assertEquals(0, client.getConcurrencyLimitStats().getLightLimit());
+    }
+}
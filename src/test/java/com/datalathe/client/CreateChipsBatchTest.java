@@ -0,0 +1,156 @@
+package com.datalathe.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.SourceType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CreateChipsBatchTest {
+
+    private static final Pattern TABLE = Pattern.compile("\"table_name\":\"(\\w+)\"");
+
+    private MockWebServer server;
+    private DatalatheClient client;
+    private final AtomicInteger staging = new AtomicInteger();
+    private final AtomicInteger maxStaging = new AtomicInteger();
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        // Staging answers chip-<table> after 50ms; tables named "bad*" fail.
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if ("DELETE".equals(request.getMethod())) {
+                    deleted.add(request.getPath().substring("/lathe/chips/".length()));
+                    return new MockResponse().setResponseCode(200).setBody("{}");
+                }
+                maxStaging.accumulateAndGet(staging.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } finally {
+                    staging.decrementAndGet();
+                }
+                Matcher m = TABLE.matcher(request.getBody().readUtf8());
+                m.find();
+                String table = m.group(1);
+                if (table.startsWith("bad")) {
+                    return new MockResponse().setResponseCode(500)
+                            .setBody("{\"error_code\":\"INTERNAL\",\"error\":\"boom\"}");
+                }
+                return new MockResponse().setResponseCode(200)
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"chip_id\":\"chip-" + table + "\"}");
+            }
+        });
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private static ChipSource source(String table) {
+        return ChipSource.builder()
+                .sourceType(SourceType.MYSQL)
+                .databaseName("db")
+                .tableName(table)
+                .query("SELECT * FROM " + table)
+                .build();
+    }
+
+    private static List<ChipSource> sources(String... tables) {
+        List<ChipSource> sources = new ArrayList<>();
+        for (String table : tables) {
+            sources.add(source(table));
+        }
+        return sources;
+    }
+
+    @Test
+    void stagesInParallelUpToTheCapAndKeepsSourceOrder() throws Exception {
+        List<ChipSource> sources = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            sources.add(source("t" + i));
+        }
+
+        CreateChipsResult result = client.createChips(sources, null,
+                CreateChipsOptions.builder().maxConcurrency(4).build());
+
+        assertTrue(result.allSucceeded());
+        assertEquals(12, result.chipIds().size());
+        assertEquals("chip-t0", result.chipIds().get(0));
+        assertEquals("chip-t11", result.chipIds().get(11));
+        assertEquals(4, maxStaging.get());
+    }
+
+    @Test
+    void failuresAreReportedPerSource() throws Exception {
+        CreateChipsResult result = client.createChips(sources("a", "bad", "c"), null, CreateChipsOptions.DEFAULT);
+
+        assertFalse(result.allSucceeded());
+        assertEquals(List.of("chip-a", "chip-c"), result.chipIds());
+        assertEquals(1, result.failures().size());
+        CreateChipsResult.Item failed = result.failures().get(0);
+        assertEquals(1, failed.getIndex());
+        assertNull(failed.getChipId());
+        assertTrue(failed.getError() instanceof DatalatheApiException);
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    void rollbackDeletesCreatedChipsAndSkipsTheRest() throws Exception {
+        CreateChipsResult result = client.createChips(sources("a", "bad", "c"), null,
+                CreateChipsOptions.builder().maxConcurrency(1).rollbackOnFailure(true).build());
+
+        assertTrue(result.chipIds().isEmpty());
+        assertTrue(result.getItems().get(0).isRolledBack());
+        assertTrue(result.getItems().get(2).getError() instanceof CancellationException);
+        assertEquals(Set.of("chip-a"), deleted);
+    }
+
+    @Test
+    void legacyCreateChipsIsSequentialAndStopsAtFirstFailure() {
+        DatalatheApiException e = assertThrows(DatalatheApiException.class,
+                () -> client.createChips(sources("a", "bad", "c"), "shared"));
+        assertEquals(500, e.getStatusCode());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, maxStaging.get());
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    void invalidBatchIsRejectedBeforeAnyRequest() {
+        List<ChipSource> sources = new ArrayList<>(sources("a"));
+        sources.add(ChipSource.builder().tableName("x").build());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> client.createChips(sources, null, CreateChipsOptions.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> client.createChips(sources("a"), null,
+                CreateChipsOptions.builder().maxConcurrency(0).build()));
+        assertEquals(0, server.getRequestCount());
+    }
+}
@@ -0,0 +1,123 @@
+package com.datalathe.client;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DatalatheClientBuilderTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    private String baseUrl() {
+        return server.url("/").toString().replaceAll("/$", "");
+    }
+
+    private void enqueueEmptySearchResponse() {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"chips\":[],\"metadata\":[],\"tags\":[]}"));
+    }
+
+    @Test
+    void defaultsMatchTheConstructors() {
+        OkHttpClient http = DatalatheClient.builder(baseUrl()).build().httpClient();
+
+        assertEquals(256, http.dispatcher().getMaxRequests());
+        assertEquals(128, http.dispatcher().getMaxRequestsPerHost());
+        assertEquals(30_000, http.connectTimeoutMillis());
+        assertEquals(300_000, http.readTimeoutMillis());
+        assertEquals(30_000, http.writeTimeoutMillis());
+        assertEquals(0, http.callTimeoutMillis());
+    }
+
+    @Test
+    void dispatcherAndTimeoutsAreConfigurable() {
+        OkHttpClient http = DatalatheClient.builder(baseUrl())
+                .maxRequests(512)
+                .maxRequestsPerHost(300)
+                .maxIdleConnections(64)
+                .keepAlive(Duration.ofMinutes(2))
+                .connectTimeout(Duration.ofSeconds(5))
+                .readTimeout(Duration.ofSeconds(60))
+                .writeTimeout(Duration.ofSeconds(10))
+                .callTimeout(Duration.ofMinutes(10))
+                .build()
+                .httpClient();
+
+        assertEquals(512, http.dispatcher().getMaxRequests());
+        assertEquals(300, http.dispatcher().getMaxRequestsPerHost());
+        assertEquals(5_000, http.connectTimeoutMillis());
+        assertEquals(60_000, http.readTimeoutMillis());
+        assertEquals(10_000, http.writeTimeoutMillis());
+        assertEquals(600_000, http.callTimeoutMillis());
+    }
+
+    @Test
+    void tenantClientsShareOnePoolButNotHeaders() throws Exception {
+        DatalatheClient tenantA = DatalatheClient.builder(baseUrl())
+                .defaultHeaders(Map.of("X-Tenant", "a"))
+                .maxIdleConnections(64)
+                .build();
+        DatalatheClient tenantB = DatalatheClient.builder(baseUrl())
+                .sharedWith(tenantA)
+                .build();
+
+        assertSame(tenantA.httpClient().connectionPool(), tenantB.httpClient().connectionPool());
+        assertSame(tenantA.httpClient().dispatcher(), tenantB.httpClient().dispatcher());
+
+        enqueueEmptySearchResponse();
+        enqueueEmptySearchResponse();
+        tenantA.searchChips(null, null, null, null);
+        tenantB.searchChips(null, null, null, null);
+        RecordedRequest a = server.takeRequest();
+        RecordedRequest b = server.takeRequest();
+        assertEquals("a", a.getHeader("X-Tenant"));
+        assertNull(b.getHeader("X-Tenant"));
+    }
+
+    @Test
+    void overridingThePoolOnASharedClientDetachesOnlyThePool() {
+        DatalatheClient shared = DatalatheClient.builder(baseUrl()).build();
+        DatalatheClient own = DatalatheClient.builder(baseUrl())
+                .sharedWith(shared)
+                .maxIdleConnections(4)
+                .build();
+
+        assertNotSame(shared.httpClient().connectionPool(), own.httpClient().connectionPool());
+        assertSame(shared.httpClient().dispatcher(), own.httpClient().dispatcher());
+    }
+
+    @Test
+    void externalHttpClientIsUsedAsTheBase() {
+        OkHttpClient base = new OkHttpClient.Builder().readTimeout(Duration.ofSeconds(7)).build();
+        OkHttpClient http = DatalatheClient.builder(baseUrl()).httpClient(base).build().httpClient();
+
+        assertSame(base.connectionPool(), http.connectionPool());
+        assertEquals(7_000, http.readTimeoutMillis());
+    }
+}
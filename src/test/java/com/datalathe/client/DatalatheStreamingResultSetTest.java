@@ -10,11 +10,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -229,4 +231,160 @@ class DatalatheStreamingResultSetTest {
             assertFalse(rs.next());
         }
     }
+
+    @Test
+    void frameFieldsAreReadInAnyOrder() throws Exception {
+        // "type" after the payload, blank lines between frames, and numeric/null cells.
+        String body = String.join("\n",
+                "{\"schema\":[{\"name\":\"id\",\"data_type\":\"Int64\"},"
+                        + "{\"name\":\"v\",\"data_type\":\"Utf8\"}],\"type\":\"schema\"}",
+                "",
+                "{\"rows\":[[1,\"a\"],[2,null]],\"extra\":{\"nested\":[1,2]},\"type\":\"rows\"}",
+                "{\"row_count\":2,\"type\":\"end\"}") + "\n";
+        server.enqueue(ndjson(body));
+
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT id, v FROM t")) {
+            assertTrue(rs.next());
+            assertEquals(1L, rs.getLong(1));
+            assertEquals("a", rs.getString(2));
+            assertTrue(rs.next());
+            assertEquals(2L, rs.getLong("id"));
+            assertNull(rs.getString(2));
+            assertTrue(rs.wasNull());
+            assertFalse(rs.next());
+            assertEquals(2L, rs.getRowCount());
+        }
+    }
+
+    @Test
+    void manyBatchesReuseTheRowBuffer() throws Exception {
+        StringBuilder body = new StringBuilder(
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n");
+        int batches = 50;
+        int perBatch = 100;
+        for (int b = 0; b < batches; b++) {
+            body.append("{\"type\":\"rows\",\"rows\":[");
+            for (int r = 0; r < perBatch; r++) {
+                body.append(r == 0 ? "" : ",").append("[\"").append(b * perBatch + r).append("\"]");
+            }
+            body.append("]}\n");
+        }
+        body.append("{\"type\":\"end\",\"row_count\":").append(batches * perBatch).append("}\n");
+        server.enqueue(ndjson(body.toString()));
+
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT n FROM t")) {
+            int expected = 0;
+            while (rs.next()) {
+                assertEquals(expected++, rs.getInt(1));
+            }
+            assertEquals(batches * perBatch, expected);
+        }
+    }
+
+    @Test
+    void prefetchDeliversAllRowsInOrder() throws Exception {
+        StringBuilder body = new StringBuilder(
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n");
+        for (int b = 0; b < 40; b++) {
+            body.append("{\"type\":\"rows\",\"rows\":[[\"").append(b * 2).append("\"],[\"")
+                    .append(b * 2 + 1).append("\"]]}\n");
+        }
+        body.append("{\"type\":\"end\",\"row_count\":80}\n");
+        server.enqueue(ndjson(body.toString()));
+
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT n FROM t", null, null, 2)) {
+            int expected = 0;
+            while (rs.next()) {
+                assertEquals(expected++, rs.getInt(1));
+            }
+            assertEquals(80, expected);
+            assertEquals(80L, rs.getRowCount());
+        }
+    }
+
+    @Test
+    void prefetchSurfacesErrorFrameAfterRows() throws Exception {
+        String body = String.join("\n",
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"id\",\"data_type\":\"Int32\"}]}",
+                "{\"type\":\"rows\",\"rows\":[[\"1\"]]}",
+                "{\"type\":\"error\",\"error\":\"Cast error mid-scan\"}") + "\n";
+        server.enqueue(ndjson(body));
+
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT id FROM t", null, null, 4)) {
+            assertTrue(rs.next());
+            SQLException ex = assertThrows(SQLException.class, rs::next);
+            assertTrue(ex.getCause() instanceof DatalatheQueryException);
+        }
+    }
+
+    @Test
+    void prefetchReportsTruncatedStream() throws Exception {
+        String body = String.join("\n",
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"id\",\"data_type\":\"Int32\"}]}",
+                "{\"type\":\"rows\",\"rows\":[[\"1\"]]}") + "\n";
+        server.enqueue(ndjson(body));
+
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT id FROM t", null, null, 4)) {
+            assertTrue(rs.next());
+            SQLException ex = assertThrows(SQLException.class, rs::next);
+            assertTrue(ex.getMessage().contains("terminal"));
+        }
+    }
+
+    @Test
+    void closingWithFullPrefetchQueueStopsReader() throws Exception {
+        StringBuilder body = new StringBuilder(
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n");
+        for (int b = 0; b < 100; b++) {
+            body.append("{\"type\":\"rows\",\"rows\":[[\"").append(b).append("\"]]}\n");
+        }
+        body.append("{\"type\":\"end\",\"row_count\":100}\n");
+        server.enqueue(ndjson(body.toString()));
+
+        DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT n FROM t", null, null, 1);
+        assertTrue(rs.next());
+        assertEquals(0, rs.getInt(1));
+        rs.close();
+        assertTrue(rs.isClosed());
+        assertThrows(SQLException.class, rs::next);
+    }
+
+    @Test
+    void closeStopsReaderBlockedOnTheSocket() throws Exception {
+        StringBuilder first = new StringBuilder(
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n");
+        // Longer than the request, which MockWebServer reads with the same throttle
+        while (first.length() < 4096) {
+            first.append("{\"type\":\"rows\",\"rows\":[[\"1\"]]}\n");
+        }
+        String rest = "{\"type\":\"rows\",\"rows\":[[\"2\"]]}\n{\"type\":\"end\",\"row_count\":0}\n";
+        server.enqueue(ndjson(first + rest).throttleBody(first.length(), 3, TimeUnit.SECONDS));
+
+        DatalatheStreamingResultSet rs = client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT n FROM t", null, null, 1000);
+        assertTrue(rs.next());
+        Field field = DatalatheStreamingResultSet.class.getDeclaredField("reader");
+        field.setAccessible(true);
+        Thread reader = (Thread) field.get(rs);
+        // Let the reader drain the first chunk and block waiting for the rest
+        Thread.sleep(200);
+        assertTrue(reader.isAlive());
+
+        long start = System.nanoTime();
+        rs.close();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+        assertFalse(reader.isAlive());
+    }
+
+    @Test
+    void negativePrefetchDepthRejected() {
+        assertThrows(IllegalArgumentException.class, () -> client.generateReportStream(
+                Arrays.asList("chip1"), "SELECT 1", null, null, -1));
+    }
 }
@@ -1,5 +1,6 @@
 package com.datalathe.client;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -33,4 +34,41 @@ class EmptyResponseBodyTest {
             assertTrue(ex.getMessage().contains("oops"), () -> "message was: " + ex.getMessage());
         }
     }
+
+    @Test
+    void whitespaceOnlyBodyOn200SurfacesAsEmptyBody() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("  \n\t "));
+            server.start();
+            DatalatheClient client = new DatalatheClient(
+                    server.url("/").toString().replaceAll("/$", ""));
+            IOException ex = assertThrows(IOException.class, () -> client.listChips());
+            assertTrue(ex.getMessage().contains("empty response body"), () -> "message was: " + ex.getMessage());
+        }
+    }
+
+    @Test
+    void truncatedJsonBodyOn200SurfacesAsIOException() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"chips\":[{\"chip_id\":"));
+            server.start();
+            DatalatheClient client = new DatalatheClient(
+                    server.url("/").toString().replaceAll("/$", ""));
+            IOException ex = assertThrows(IOException.class, () -> client.listChips());
+            assertTrue(ex.getMessage().contains("malformed JSON response body"),
+                    () -> "message was: " + ex.getMessage());
+            assertTrue(ex.getMessage().contains("200"), () -> "message was: " + ex.getMessage());
+        }
+    }
+
+    @Test
+    void nullJsonBodyOn200IsPassedToTheReader() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("null"));
+            server.start();
+            DatalatheClient client = new DatalatheClient(
+                    server.url("/").toString().replaceAll("/$", ""));
+            assertNull(client.getChip("c1"));
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.datalathe.client;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingTest {
+    private static final String CHIP = "{\"chips\":[{\"chip_id\":\"c1\",\"table_name\":\"t\"}]}";
+    private static final String QUERY = "{\"schema\":[],\"data\":[]}";
+
+    private MockWebServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    /** 1-based request numbers that answer after a second. */
+    private final Set<Integer> slow = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                int n = requests.incrementAndGet();
+                MockResponse response = new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "application/json");
+                if (request.getPath().startsWith("/lathe/chips/gone")) {
+                    return response.setResponseCode(404)
+                            .setBody("{\"error\":\"Chip not found\",\"error_code\":\"chip_not_found\",\"chip_id\":\"gone\"}");
+                }
+                if (slow.contains(n)) {
+                    response.setHeadersDelay(1, TimeUnit.SECONDS);
+                }
+                return response.setBody(request.getPath().startsWith("/lathe/chips/query") ? QUERY : CHIP);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private DatalatheClient client(HedgingConfig config) {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .hedging(config)
+                .build();
+    }
+
+    private static HedgingConfig.HedgingConfigBuilder config() {
+        return HedgingConfig.builder().minSamples(3).minDelayMillis(50);
+    }
+
+    private void warmUp(DatalatheClient client) throws IOException {
+        for (int i = 0; i < 3; i++) {
+            client.getChip("c1");
+        }
+    }
+
+    @Test
+    void slowCallIsHedgedAndTheFasterAnswerWins() throws Exception {
+        DatalatheClient client = client(config().build());
+        warmUp(client);
+        slow.add(4);
+
+        long start = System.nanoTime();
+        assertEquals("c1", client.getChip("c1").getChips().get(0).getChipId());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(800));
+        assertEquals(5, requests.get());
+
+        slow.add(6);
+        assertEquals("c1", client.async().getChip("c1").get(5, TimeUnit.SECONDS).getChips().get(0).getChipId());
+        assertEquals(7, requests.get());
+    }
+
+    @Test
+    void nothingIsHedgedBeforeEnoughSamples() throws Exception {
+        DatalatheClient client = client(config().build());
+        slow.add(1);
+
+        client.getChip("c1");
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void hedgeBudgetCapsExtraRequests() throws Exception {
+        DatalatheClient client = client(config().maxHedgeRatio(0).hedgeBurst(1).build());
+        warmUp(client);
+        slow.addAll(List.of(4, 6));
+
+        client.getChip("c1");
+        assertEquals(5, requests.get());
+        client.getChip("c1");
+        assertEquals(6, requests.get());
+    }
+
+    @Test
+    void fastFailureIsFinal() throws Exception {
+        DatalatheClient client = client(config().build());
+        warmUp(client);
+
+        assertThrows(ChipNotFoundException.class, () -> client.getChip("gone"));
+        Thread.sleep(150);
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void queryChipsIsHedgedOnlyWhenEnabled() throws Exception {
+        DatalatheClient plain = client(config().build());
+        for (int i = 0; i < 3; i++) {
+            plain.queryChips(List.of("c1"), "SELECT 1");
+        }
+        slow.add(4);
+        plain.queryChips(List.of("c1"), "SELECT 1");
+        assertEquals(4, requests.get());
+
+        DatalatheClient hedging = client(config().hedgeQueryChips(true).build());
+        for (int i = 0; i < 3; i++) {
+            hedging.queryChips(List.of("c1"), "SELECT 1");
+        }
+        slow.add(8);
+        hedging.async().queryChips(List.of("c1"), "SELECT 1").get(5, TimeUnit.SECONDS);
+        assertEquals(9, requests.get());
+    }
+
+    @Test
+    void percentileOfRecentLatencies() {
+        Hedger.LatencyWindow window = new Hedger.LatencyWindow(4);
+        assertEquals(-1, window.percentile(0.5, 1));
+        for (long millis : new long[] { 900, 10, 20, 30, 40 }) {
+            window.record(millis);
+        }
+        assertEquals(40, window.percentile(0.95, 4));
+        assertEquals(20, window.percentile(0.5, 4));
+        assertEquals(-1, window.percentile(0.5, 5));
+    }
+}
@@ -0,0 +1,165 @@
+package com.datalathe.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datalathe.client.types.IngestJob;
+import com.datalathe.client.types.IngestJobStatus;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IngestJobWatcherTest {
+
+    private MockWebServer server;
+    private DatalatheClient client;
+
+    // Job ID -> list rounds left while running; at 0 the job is finished
+    // and drops out of the running list.
+    private final Map<String, AtomicInteger> remaining = new ConcurrentHashMap<>();
+    private final Map<String, String> finalState = new ConcurrentHashMap<>();
+    private final AtomicInteger lists = new AtomicInteger();
+    private final AtomicInteger gets = new AtomicInteger();
+    private volatile boolean listSupported = true;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (path.startsWith("/lathe/jobs?status=")) {
+                    if (!listSupported) {
+                        return new MockResponse().setResponseCode(404);
+                    }
+                    lists.incrementAndGet();
+                    if (path.endsWith("queued")) {
+                        return json("[]");
+                    }
+                    StringBuilder body = new StringBuilder("[");
+                    for (var entry : remaining.entrySet()) {
+                        if (entry.getValue().getAndDecrement() > 0) {
+                            body.append(body.length() > 1 ? "," : "").append(job(entry.getKey(), "running"));
+                        }
+                    }
+                    return json(body.append("]").toString());
+                }
+                gets.incrementAndGet();
+                String id = path.substring("/lathe/jobs/".length());
+                AtomicInteger left = remaining.get(id);
+                if (left != null && left.getAndDecrement() > 0) {
+                    return json(job(id, "running"));
+                }
+                return json(job(id, finalState.getOrDefault(id, "succeeded")));
+            }
+        });
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private static String job(String id, String status) {
+        return "{\"job_id\":\"" + id + "\",\"chip_id\":\"chip-" + id + "\",\"status\":\"" + status + "\","
+                + "\"error\":\"" + (status.equals("failed") ? "disk full" : "") + "\"}";
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setResponseCode(200).setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private IngestJobWatcher watcher() {
+        return new IngestJobWatcher(client, Duration.ofMillis(10), Duration.ofMillis(40));
+    }
+
+    @Test
+    void manyJobsArePolledInBatches() throws Exception {
+        List<CompletableFuture<IngestJob>> futures = new ArrayList<>();
+        try (IngestJobWatcher watcher = watcher()) {
+            for (int i = 0; i < 50; i++) {
+                remaining.put("j" + i, new AtomicInteger(3 + i % 4));
+                futures.add(watcher.watch("j" + i));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertEquals(0, watcher.trackedCount());
+        }
+        assertEquals("chip-j7", futures.get(7).get().getChipId());
+        assertEquals(IngestJobStatus.SUCCEEDED, futures.get(7).get().getStatus());
+        assertEquals(50, gets.get(), "each job is fetched individually only once it finishes");
+        assertTrue(lists.get() < 50, "list rounds are shared by every tracked job");
+    }
+
+    @Test
+    void failedJobFailsItsFuture() throws Exception {
+        remaining.put("bad", new AtomicInteger(1));
+        finalState.put("bad", "failed");
+        try (IngestJobWatcher watcher = watcher()) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> watcher.watch("bad").get(5, TimeUnit.SECONDS));
+            IngestFailedException failed = (IngestFailedException) e.getCause();
+            assertEquals(IngestJobStatus.FAILED, failed.getStatus());
+            assertEquals("disk full", failed.getJobError());
+        }
+    }
+
+    @Test
+    void fallsBackToPerJobPollingWhenListingIsUnsupported() throws Exception {
+        listSupported = false;
+        remaining.put("j", new AtomicInteger(2));
+        try (IngestJobWatcher watcher = watcher()) {
+            assertEquals("chip-j", watcher.watch("j").get(5, TimeUnit.SECONDS).getChipId());
+        }
+        assertEquals(3, gets.get());
+    }
+
+    @Test
+    void watchingTheSameJobTwiceSharesOneFuture() {
+        remaining.put("j", new AtomicInteger(100));
+        try (IngestJobWatcher watcher = watcher()) {
+            assertTrue(watcher.watch("j") == watcher.watch("j"));
+            assertEquals(1, watcher.trackedCount());
+        }
+    }
+
+    @Test
+    void closeFailsPendingFutures() {
+        remaining.put("j", new AtomicInteger(1000));
+        IngestJobWatcher watcher = watcher();
+        CompletableFuture<IngestJob> future = watcher.watch("j");
+        watcher.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+        assertTrue(watcher.watch("k").isCompletedExceptionally());
+    }
+
+    @Test
+    void intervalBacksOffWithoutProgressAndTracksEstimatedCompletion() {
+        assertEquals(2000, IngestJobWatcher.nextInterval(1000, 0, 5000, 3, 10, 1000, 30_000));
+        assertEquals(30_000, IngestJobWatcher.nextInterval(20_000, 0, 5000, 3, 10, 1000, 30_000));
+        // 2 chunks in 4s -> 2s per chunk; 6 chunks left -> 12s; poll at half that
+        assertEquals(6000, IngestJobWatcher.nextInterval(1000, 2, 4000, 4, 10, 1000, 30_000));
+        assertEquals(1000, IngestJobWatcher.nextInterval(8000, 1, 100, 9, 10, 1000, 30_000));
+        // Progress without totals keeps the current interval
+        assertEquals(4000, IngestJobWatcher.nextInterval(4000, 1, 4000, 4, null, 1000, 30_000));
+    }
+}
@@ -0,0 +1,115 @@
+package com.datalathe.client;
+
+import com.datalathe.client.results.DatalatheStreamingResultSet;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+    private static final String CHIP = "{\"chips\":[{\"chip_id\":\"c1\",\"table_name\":\"t\"}]}";
+
+    private MockWebServer server;
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        recording = new Recording();
+        recording.enable("com.datalathe.client.EngineRequest").withoutThreshold();
+        recording.enable("com.datalathe.client.RetryWait").withoutThreshold();
+        recording.enable("com.datalathe.client.StreamFrame").withoutThreshold();
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        recording.close();
+        server.shutdown();
+    }
+
+    private String baseUrl() {
+        return server.url("/").toString().replaceAll("/$", "");
+    }
+
+    private List<RecordedEvent> events(String name) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("datalathe", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void engineRequestsAreRecordedPerAttempt() throws Exception {
+        DatalatheClient client = new DatalatheClient(baseUrl());
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(CHIP));
+
+        client.getChip("c1");
+
+        List<RecordedEvent> events = events("com.datalathe.client.EngineRequest");
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("GET", event.getString("method"));
+        assertEquals("/lathe/chips/{id}", event.getString("route"));
+        assertEquals(200, event.getInt("status"));
+        assertEquals(CHIP.length(), event.getLong("responseBytes"));
+    }
+
+    @Test
+    void retryWaitsAreRecorded() throws Exception {
+        DatalatheClient client = new DatalatheClient(baseUrl(), Map.of(),
+                RetryConfig.builder().backoffBaseMillis(1).build());
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(CHIP));
+
+        client.getChip("c1");
+
+        List<RecordedEvent> waits = events("com.datalathe.client.RetryWait");
+        assertEquals(1, waits.size());
+        assertEquals(1, waits.get(0).getInt("attempt"));
+        assertFalse(waits.get(0).getBoolean("async"));
+    }
+
+    @Test
+    void streamFramesAreRecordedWithRowCounts() throws Exception {
+        DatalatheClient client = new DatalatheClient(baseUrl());
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody("{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n"
+                        + "{\"type\":\"rows\",\"rows\":[[\"1\"],[\"2\"]]}\n"
+                        + "{\"type\":\"end\",\"row_count\":2}\n"));
+
+        try (DatalatheStreamingResultSet rs = client.generateReportStream(List.of("c"), "SELECT n")) {
+            while (rs.next()) {
+                // drain
+            }
+        }
+
+        List<RecordedEvent> frames = events("com.datalathe.client.StreamFrame");
+        assertEquals(List.of("schema", "rows", "end"),
+                frames.stream().map(e -> e.getString("frameType")).collect(Collectors.toList()));
+        assertEquals(2, frames.get(1).getInt("rows"));
+        assertTrue(frames.get(1).getLong("bytes") > 0);
+    }
+}
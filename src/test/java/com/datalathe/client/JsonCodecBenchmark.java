@@ -0,0 +1,110 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.CreateChipRequest;
+import com.datalathe.client.types.GenerateReportResponse;
+import com.datalathe.client.types.SourceType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Rough throughput comparison of the old per-call {@code readValue(..., Class)}
+ * path against {@link JsonCodec}'s cached readers and writers. Not part of
+ * the regular build (the name doesn't end in Test); run it with
+ * {@code mvn test -Dtest=JsonCodecBenchmark} and read the numbers it prints.
+ */
+class JsonCodecBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_NANOS = 1_000_000_000L;
+
+    @FunctionalInterface
+    private interface Op {
+        void run() throws IOException;
+    }
+
+    @Test
+    void compareCodecPaths() throws Exception {
+        byte[] report = report(1000, 8).getBytes(StandardCharsets.UTF_8);
+        byte[] search = search(500).getBytes(StandardCharsets.UTF_8);
+        CreateChipRequest create = new CreateChipRequest(SourceType.MYSQL, ChipSource.builder()
+                .databaseName("db").tableName("orders").query("SELECT * FROM orders WHERE id > 10").build());
+        create.setTags(Map.of("tenant", "acme", "schema_version", "7"));
+
+        ObjectMapper plain = JsonCodec.configure(new ObjectMapper());
+        ObjectReader plainReport = plain.readerFor(GenerateReportResponse.class);
+        ObjectReader plainSearch = plain.readerFor(SearchChipsResponse.class);
+        ObjectWriter plainCreate = plain.writerFor(CreateChipRequest.class);
+        ObjectReader codecReport = JsonCodec.reader(GenerateReportResponse.class);
+        ObjectReader codecSearch = JsonCodec.reader(SearchChipsResponse.class);
+        ObjectWriter codecCreate = JsonCodec.writer(CreateChipRequest.class);
+
+        System.out.println("Blackbird enabled: " + JsonCodec.isBlackbirdEnabled());
+        run("report   mapper.readValue", () -> plain.readValue(report, GenerateReportResponse.class));
+        run("report   cached reader   ", () -> plainReport.readValue(report));
+        run("report   JsonCodec       ", () -> codecReport.readValue(report));
+        run("search   mapper.readValue", () -> plain.readValue(search, SearchChipsResponse.class));
+        run("search   cached reader   ", () -> plainSearch.readValue(search));
+        run("search   JsonCodec       ", () -> codecSearch.readValue(search));
+        run("create   mapper.write    ", () -> plain.writeValueAsBytes(create));
+        run("create   cached writer   ", () -> plainCreate.writeValueAsBytes(create));
+        run("create   JsonCodec       ", () -> codecCreate.writeValueAsBytes(create));
+    }
+
+    private static void run(String name, Op op) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            opsPerSecond(op);
+        }
+        double best = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            best = Math.max(best, opsPerSecond(op));
+        }
+        System.out.printf("%s %,12.0f ops/s%n", name, best);
+    }
+
+    private static double opsPerSecond(Op op) throws IOException {
+        long start = System.nanoTime();
+        long ops = 0;
+        long elapsed;
+        do {
+            op.run();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ROUND_NANOS);
+        return ops * 1e9 / elapsed;
+    }
+
+    private static String report(int rows, int columns) {
+        StringBuilder json = new StringBuilder("{\"result\":{\"0\":{\"schema\":[");
+        for (int c = 0; c < columns; c++) {
+            json.append(c > 0 ? "," : "").append("{\"name\":\"col").append(c).append("\",\"data_type\":\"Utf8\"}");
+        }
+        json.append("],\"result\":[");
+        for (int r = 0; r < rows; r++) {
+            json.append(r > 0 ? ",[" : "[");
+            for (int c = 0; c < columns; c++) {
+                json.append(c > 0 ? "," : "").append("\"v").append(r * columns + c).append('"');
+            }
+            json.append(']');
+        }
+        return json.append("]}},\"timing\":{\"total_ms\":12}}").toString();
+    }
+
+    private static String search(int chips) {
+        StringBuilder json = new StringBuilder("{\"chips\":[");
+        for (int i = 0; i < chips; i++) {
+            json.append(i > 0 ? "," : "").append("{\"chip_id\":\"chip").append(i)
+                    .append("\",\"sub_chip_id\":\"chip").append(i)
+                    .append("\",\"table_name\":\"t").append(i % 20)
+                    .append("\",\"partition_value\":\"p").append(i).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.AiContext;
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.CreateChipRequest;
+import com.datalathe.client.types.GenerateReportResponse;
+import com.datalathe.client.types.SourceType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCodecTest {
+    @Test
+    void readersAndWritersAreBuiltOncePerType() {
+        assertSame(JsonCodec.reader(SearchChipsResponse.class), JsonCodec.reader(SearchChipsResponse.class));
+        assertSame(JsonCodec.writer(CreateChipRequest.class), JsonCodec.writer(CreateChipRequest.class));
+        assertNotSame(JsonCodec.reader(SearchChipsResponse.class), JsonCodec.reader(GenerateReportResponse.class));
+    }
+
+    @Test
+    void blackbirdIsRegisteredWhenOnTheClasspath() {
+        assertTrue(JsonCodec.isBlackbirdEnabled());
+        assertFalse(JsonCodec.register(new ObjectMapper(), "com.example.NoSuchModule"));
+    }
+
+    @Test
+    void roundTripsApiTypesAndIgnoresUnknownFields() throws Exception {
+        CreateChipRequest request = new CreateChipRequest(SourceType.MYSQL,
+                ChipSource.builder().databaseName("db").tableName("t").query("SELECT 1").build());
+        String json = JsonCodec.writer(CreateChipRequest.class).writeValueAsString(request);
+        assertTrue(json.contains("\"source_type\":\"MYSQL\""));
+
+        SearchChipsResponse response = JsonCodec.reader(SearchChipsResponse.class).readValue(
+                "{\"chips\":[{\"chip_id\":\"c1\",\"table_name\":\"t\",\"new_field\":1}],\"extra\":true}");
+        assertEquals("c1", response.getChips().get(0).getChipId());
+    }
+
+    @Test
+    void aiContextParsesItsEmbeddedJson() {
+        AiContext context = AiContext.builder()
+                .chipIds("[\"a\",\"b\"]")
+                .columnDescriptions("{\"t\":{\"n\":\"count\"}}")
+                .build();
+
+        assertEquals(List.of("a", "b"), context.getChipIdsList());
+        assertEquals(Map.of("t", Map.of("n", "count")), context.getColumnDescriptionsMap());
+    }
+}
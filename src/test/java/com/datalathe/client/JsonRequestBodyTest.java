@@ -0,0 +1,38 @@
+package com.datalathe.client;
+
+import okio.Buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRequestBodyTest {
+    @Test
+    void serializesOnceAndReplaysIdentically() throws Exception {
+        JsonRequestBody body = JsonRequestBody.of(Map.of("query", "SELECT 1"));
+
+        Buffer first = new Buffer();
+        body.writeTo(first);
+        Buffer second = new Buffer();
+        body.writeTo(second);
+
+        assertEquals("{\"query\":\"SELECT 1\"}", first.readUtf8());
+        assertEquals("{\"query\":\"SELECT 1\"}", second.readUtf8());
+        assertEquals(20, body.contentLength());
+        assertEquals("application/json; charset=utf-8", body.contentType().toString());
+    }
+
+    @Test
+    void previewIsBounded() throws Exception {
+        JsonRequestBody body = JsonRequestBody.of(Map.of("query", "x".repeat(10_000)));
+
+        String preview = body.preview(100);
+
+        assertTrue(preview.startsWith("{\"query\":\"xxx"));
+        assertTrue(preview.endsWith("... (" + body.contentLength() + " bytes)"));
+        assertTrue(preview.length() < 130);
+        assertEquals("{\"a\":1}", JsonRequestBody.of(Map.of("a", 1)).preview(100));
+    }
+}
@@ -0,0 +1,186 @@
+package com.datalathe.client;
+
+import com.datalathe.client.results.DatalatheStreamingResultSet;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiReportStreamTest {
+    private static final Pattern QUERY_NUMBER = Pattern.compile("SELECT (\\d+)");
+
+    private MockWebServer server;
+    private DatalatheClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        // Each query "SELECT n" answers with a single row holding n, after n*50ms.
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Matcher m = QUERY_NUMBER.matcher(request.getBody().readUtf8());
+                if (!m.find()) {
+                    return new MockResponse().setResponseCode(400);
+                }
+                int n = Integer.parseInt(m.group(1));
+                if (n == 99) {
+                    return new MockResponse().setResponseCode(404)
+                            .setBody("{\"error\":\"Chip not found\",\"error_code\":\"chip_not_found\","
+                                    + "\"chip_id\":\"gone\"}");
+                }
+                return ndjson(n).setHeadersDelay(n * 50L, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        client = new DatalatheClient(server.url("/").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private static MockResponse ndjson(int n) {
+        String body = String.join("\n",
+                "{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}",
+                "{\"type\":\"rows\",\"rows\":[[\"" + n + "\"]]}",
+                "{\"type\":\"end\",\"row_count\":1}") + "\n";
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody(body);
+    }
+
+    private static int readSingle(DatalatheStreamingResultSet rs) throws Exception {
+        assertTrue(rs.next());
+        int value = rs.getInt(1);
+        assertFalse(rs.next());
+        return value;
+    }
+
+    @Test
+    void getReturnsStreamsInQueryOrder() throws Exception {
+        List<String> queries = Arrays.asList("SELECT 3", "SELECT 1", "SELECT 2");
+        try (MultiReportStream streams = client.generateReportStreams(
+                Arrays.asList("chip1"), queries, null, null, 3)) {
+            assertEquals(3, streams.size());
+            for (int i = 0; i < queries.size(); i++) {
+                try (DatalatheStreamingResultSet rs = streams.get(i)) {
+                    assertEquals(Integer.parseInt(queries.get(i).substring(7)), readSingle(rs));
+                }
+            }
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void nextReadyReturnsStreamsInCompletionOrder() throws Exception {
+        List<String> queries = Arrays.asList("SELECT 6", "SELECT 1", "SELECT 3");
+        List<Integer> order = new ArrayList<>();
+        try (MultiReportStream streams = client.generateReportStreams(
+                Arrays.asList("chip1"), queries, null, null, 3)) {
+            int idx;
+            while ((idx = streams.nextReady()) >= 0) {
+                order.add(idx);
+                try (DatalatheStreamingResultSet rs = streams.get(idx)) {
+                    readSingle(rs);
+                }
+            }
+        }
+        assertEquals(Arrays.asList(1, 2, 0), order);
+    }
+
+    @Test
+    void concurrencyCapOpensNextStreamOnlyAfterClose() throws Exception {
+        List<String> queries = Arrays.asList("SELECT 0", "SELECT 0", "SELECT 0");
+        try (MultiReportStream streams = client.generateReportStreams(
+                Arrays.asList("chip1"), queries, null, null, 1)) {
+            DatalatheStreamingResultSet first = streams.get(0);
+            Thread.sleep(200);
+            assertEquals(1, server.getRequestCount(), "second stream must wait for a free slot");
+            first.close();
+
+            try (DatalatheStreamingResultSet second = streams.get(1)) {
+                assertEquals(0, readSingle(second));
+            }
+            try (DatalatheStreamingResultSet third = streams.get(2)) {
+                assertEquals(0, readSingle(third));
+            }
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void failedStreamDoesNotAffectOthersAndFreesItsSlot() throws Exception {
+        List<String> queries = Arrays.asList("SELECT 99", "SELECT 1");
+        try (MultiReportStream streams = client.generateReportStreams(
+                Arrays.asList("chip1"), queries, null, null, 1)) {
+            ChipNotFoundException ex = assertThrows(ChipNotFoundException.class, () -> streams.get(0));
+            assertEquals("gone", ex.getChipId());
+            try (DatalatheStreamingResultSet rs = streams.get(1)) {
+                assertEquals(1, readSingle(rs));
+            }
+        }
+    }
+
+    @Test
+    void closeReleasesStreamsLeftOpen() throws Exception {
+        List<String> queries = Arrays.asList("SELECT 0", "SELECT 1");
+        DatalatheStreamingResultSet first;
+        try (MultiReportStream streams = client.generateReportStreams(
+                Arrays.asList("chip1"), queries, null, null, 2)) {
+            first = streams.get(0);
+        }
+        assertTrue(first.isClosed());
+    }
+
+    @Test
+    void nextReadyReturnsUnopenedIndicesAfterClose() throws Exception {
+        List<String> queries = Arrays.asList("SELECT 0", "SELECT 0", "SELECT 0");
+        MultiReportStream streams = client.generateReportStreams(Arrays.asList("chip1"), queries, null, null, 1);
+        assertEquals(0, streams.nextReady());
+
+        CompletableFuture<List<Integer>> rest = CompletableFuture.supplyAsync(() -> {
+            List<Integer> indices = new ArrayList<>();
+            try {
+                int idx;
+                while ((idx = streams.nextReady()) >= 0) {
+                    indices.add(idx);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return indices;
+        });
+        Thread.sleep(100);
+        streams.close();
+
+        assertEquals(List.of(1, 2), rest.get(5, TimeUnit.SECONDS));
+        assertThrows(IOException.class, () -> streams.get(1));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void invalidArgumentsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> client.generateReportStreams(
+                Arrays.asList("chip1"), new ArrayList<>(), null, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> client.generateReportStreams(
+                Arrays.asList("chip1"), Arrays.asList("SELECT 1"), null, null, 0));
+    }
+}
@@ -0,0 +1,212 @@
+package com.datalathe.client;
+
+import com.datalathe.client.types.GenerateReportResponse;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+    private static final String REPORT = "{\"result\":{\"0\":{"
+            + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}],\"result\":[[\"7\"]]}}}";
+
+    private MockWebServer server;
+    private DatalatheClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .reportCache(ReportCacheConfig.builder().build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private void enqueueJson(int code, String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+    }
+
+    @Test
+    void identicalReportIsServedFromCache() throws Exception {
+        enqueueJson(200, REPORT);
+
+        GenerateReportResult first = client.generateReport(Arrays.asList("b", "a"),
+                List.of("SELECT n\n  FROM t WHERE s = 'x  y'"), null, null, true);
+        GenerateReportResult second = client.generateReport(Arrays.asList("a", "b"),
+                List.of("  SELECT n FROM t   WHERE s = 'x  y' "), null, null, true);
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals("7", second.getResults().get(0).getResult().get(0).get(0));
+        assertNotSame(first.getResults(), second.getResults());
+
+        ReportCacheStats stats = client.getReportCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getEntryCount());
+        assertTrue(stats.getEstimatedBytes() > 0);
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void differentLiteralsOrFlagsMiss() throws Exception {
+        enqueueJson(200, REPORT);
+        enqueueJson(200, REPORT);
+        enqueueJson(200, REPORT);
+
+        client.generateReport(List.of("a"), List.of("SELECT n FROM t WHERE s = 'x y'"), null, null, true);
+        client.generateReport(List.of("a"), List.of("SELECT n FROM t WHERE s = 'x  y'"), null, null, true);
+        client.generateReport(List.of("a"), List.of("SELECT n FROM t WHERE s = 'x y'"), true, null, true);
+
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void deleteChipInvalidatesEntriesThatReadIt() throws Exception {
+        enqueueJson(200, REPORT);
+        enqueueJson(200, REPORT);
+        enqueueJson(200, "{}");
+        enqueueJson(200, REPORT);
+
+        client.generateReport(List.of("a", "b"), List.of("SELECT 1"), null, null, true);
+        client.generateReport(List.of("c"), List.of("SELECT 1"), null, null, true);
+        client.deleteChip("b");
+        client.generateReport(List.of("a", "b"), List.of("SELECT 1"), null, null, true);
+        client.generateReport(List.of("c"), List.of("SELECT 1"), null, null, true);
+
+        assertEquals(4, server.getRequestCount());
+        assertEquals(1, client.getReportCacheStats().getInvalidationCount());
+    }
+
+    @Test
+    void lineCommentsKeepTheNewlineThatEndsThem() {
+        ReportCache.Key commented = new ReportCache.Key(List.of("a"), List.of("SELECT a -- note\nFROM t"), null, null);
+        ReportCache.Key swallowed = new ReportCache.Key(List.of("a"), List.of("SELECT a -- note FROM t"), null, null);
+        ReportCache.Key reindented = new ReportCache.Key(List.of("a"),
+                List.of("  SELECT   a -- note\n    FROM t  "), null, null);
+
+        assertNotEquals(commented, swallowed);
+        assertEquals(commented, reindented);
+        assertEquals("SELECT a /*  keep  */ FROM t",
+                ReportCache.Key.normalize("SELECT  a /*  keep  */\n FROM t"));
+    }
+
+    @Test
+    void queriesWithBackslashesAreOnlyTrimmed() {
+        assertEquals("SELECT 'a\\'  ,  ' b'", ReportCache.Key.normalize(" SELECT 'a\\'  ,  ' b' "));
+        assertNotEquals(
+                new ReportCache.Key(List.of("a"), List.of("SELECT 'x\\' ,'  y'"), null, null),
+                new ReportCache.Key(List.of("a"), List.of("SELECT 'x\\' ,' y'"), null, null));
+    }
+
+    @Test
+    void failedQueriesAreNotCached() throws Exception {
+        String failed = "{\"result\":{\"0\":{\"error\":\"boom\"}}}";
+        enqueueJson(200, failed);
+        enqueueJson(200, failed);
+
+        client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, false);
+        client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, false);
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.getReportCacheStats().getEntryCount());
+    }
+
+    @Test
+    void asyncReportsShareTheCache() throws Exception {
+        enqueueJson(200, REPORT);
+
+        client.async().generateReport(List.of("a"), List.of("SELECT 1"), null, null, true).get();
+        GenerateReportResult cached = client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals("7", cached.getResults().get(0).getResult().get(0).get(0));
+    }
+
+    @Test
+    void cacheIsDisabledByDefault() throws Exception {
+        DatalatheClient plain = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+        enqueueJson(200, REPORT);
+        enqueueJson(200, REPORT);
+
+        plain.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        plain.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, plain.getReportCacheStats().getMissCount());
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        ReportCache cache = new ReportCache(ReportCacheConfig.builder().ttlMillis(1000).build());
+        AtomicLong now = new AtomicLong(0);
+        cache.clock = now::get;
+        ReportCache.Key key = new ReportCache.Key(List.of("a"), List.of("SELECT 1"), null, null);
+
+        cache.put(key, result("7"), cache.generation());
+        now.set(999);
+        assertNotNull(cache.get(key));
+        now.set(1000);
+        assertNull(cache.get(key));
+        assertEquals(0, cache.stats().getEntryCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverByteBudget() {
+        GenerateReportResult value = result("x".repeat(1000));
+        long weight = ReportCache.weigh(value);
+        ReportCache cache = new ReportCache(ReportCacheConfig.builder().maxBytes(weight * 2).build());
+        ReportCache.Key k1 = new ReportCache.Key(List.of("a"), List.of("q1"), null, null);
+        ReportCache.Key k2 = new ReportCache.Key(List.of("a"), List.of("q2"), null, null);
+        ReportCache.Key k3 = new ReportCache.Key(List.of("a"), List.of("q3"), null, null);
+
+        cache.put(k1, value, cache.generation());
+        cache.put(k2, value, cache.generation());
+        assertNotNull(cache.get(k1)); // k2 is now least recently used
+        cache.put(k3, value, cache.generation());
+
+        assertNotNull(cache.get(k1));
+        assertNull(cache.get(k2));
+        assertNotNull(cache.get(k3));
+        assertEquals(1, cache.stats().getEvictionCount());
+        assertTrue(cache.stats().getEstimatedBytes() <= weight * 2);
+    }
+
+    @Test
+    void resultFetchedAcrossAnInvalidationIsNotStored() {
+        ReportCache cache = new ReportCache(ReportCacheConfig.builder().build());
+        ReportCache.Key key = new ReportCache.Key(List.of("a"), List.of("SELECT 1"), null, null);
+
+        long generation = cache.generation();
+        cache.invalidateChip("a");
+        cache.put(key, result("7"), generation);
+
+        assertNull(cache.get(key));
+    }
+
+    private static GenerateReportResult result(String cell) {
+        GenerateReportResponse.Result result = new GenerateReportResponse.Result();
+        result.setResult(List.of(List.of(cell)));
+        Map<Integer, GenerateReportResponse.Result> results = new HashMap<>();
+        results.put(0, result);
+        return new GenerateReportResult(results, null);
+    }
+}
@@ -1,5 +1,6 @@
 package com.datalathe.client;
 
+import com.datalathe.client.results.DatalatheStreamingResultSet;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -10,8 +11,11 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -19,7 +23,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  * Verifies automatic retry of HTTP 429 responses: retries honor
  * {@code Retry-After}, fall back to exponential backoff without it,
  * exhaust after 3 retries with the same exception surface as before,
- * can be disabled, and never fire for non-429 statuses.
+ * can be disabled, never fire for non-429 statuses, wait off the
+ * dispatcher for async calls, and stop once the retry budget is spent.
  */
 class RetryOn429Test {
 
@@ -144,4 +149,81 @@ class RetryOn429Test {
         assertTrue(e.getMessage().contains("500"));
         assertEquals(1, server.getRequestCount());
     }
+
+    @Test
+    void asyncRetryWaitsOffTheDispatcher() throws Exception {
+        enqueue429("1");
+        enqueueChips();
+        enqueueChips();
+        DatalatheClient client = DatalatheClient.builder(baseUrl()).maxRequestsPerHost(1).build();
+
+        CompletableFuture<SearchChipsResponse> throttled = client.async().listChips(null, null);
+        server.takeRequest(5, TimeUnit.SECONDS);
+        CompletableFuture<SearchChipsResponse> other = client.async().listChips(null, null);
+
+        // With the only dispatcher slot asleep in a retry wait, this would take a second.
+        other.get(500, TimeUnit.MILLISECONDS);
+        assertFalse(throttled.isDone());
+        throttled.get(5, TimeUnit.SECONDS);
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void asyncStreamRetryWaitsOffTheDispatcher() throws Exception {
+        enqueue429("1");
+        enqueueChips();
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody("{\"type\":\"schema\",\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}]}\n"
+                        + "{\"type\":\"rows\",\"rows\":[[\"7\"]]}\n{\"type\":\"end\",\"row_count\":1}\n"));
+        DatalatheClient client = DatalatheClient.builder(baseUrl()).maxRequestsPerHost(1).build();
+
+        CompletableFuture<DatalatheStreamingResultSet> throttled =
+                client.generateReportStreamAsync(List.of("a"), "SELECT n", null, null, 0, null);
+        server.takeRequest(5, TimeUnit.SECONDS);
+        CompletableFuture<SearchChipsResponse> other = client.async().listChips(null, null);
+
+        // With the only dispatcher slot asleep in a retry wait, this would take a second.
+        other.get(500, TimeUnit.MILLISECONDS);
+        assertFalse(throttled.isDone());
+        try (DatalatheStreamingResultSet rs = throttled.get(5, TimeUnit.SECONDS)) {
+            assertTrue(rs.next());
+            assertEquals(7, rs.getInt(1));
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void cancellingDuringAsyncRetryWaitSendsNothingMore() throws Exception {
+        enqueue429("1");
+        enqueueChips();
+        DatalatheClient client = new DatalatheClient(baseUrl());
+
+        CompletableFuture<SearchChipsResponse> future = client.async().listChips(null, null);
+        server.takeRequest(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        future.cancel(true);
+        Thread.sleep(1500);
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void exhaustedRetryBudgetSurfaces429() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            enqueue429("0");
+        }
+        DatalatheClient client = new DatalatheClient(baseUrl(), Map.of(),
+                RetryConfig.builder().retryBudgetRatio(0).retryBudgetBurst(1).build());
+
+        DatalatheApiException sync = assertThrows(DatalatheApiException.class, () -> client.listChips());
+        assertEquals(429, sync.getStatusCode());
+        assertEquals(2, server.getRequestCount());
+
+        Exception async = assertThrows(Exception.class,
+                () -> client.async().listChips(null, null).get(5, TimeUnit.SECONDS));
+        assertEquals(429, ((DatalatheApiException) async.getCause()).getStatusCode());
+        assertEquals(3, server.getRequestCount());
+    }
 }
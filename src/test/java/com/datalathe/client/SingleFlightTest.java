@@ -0,0 +1,170 @@
+package com.datalathe.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private static final String CHIP = "{\"chips\":[{\"chip_id\":\"c1\",\"table_name\":\"t\"}]}";
+    private static final String REPORT = "{\"result\":{\"0\":{"
+            + "\"schema\":[{\"name\":\"n\",\"data_type\":\"Int32\"}],\"result\":[[\"7\"]]}}}";
+
+    private MockWebServer server;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        pool = Executors.newFixedThreadPool(20);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdownNow();
+        server.shutdown();
+    }
+
+    private DatalatheClient client(boolean coalesce) {
+        return DatalatheClient.builder(server.url("/").toString().replaceAll("/$", ""))
+                .coalesceReads(coalesce)
+                .build();
+    }
+
+    private void enqueueSlowJson(int code, String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setHeadersDelay(300, TimeUnit.MILLISECONDS)
+                .setBody(body));
+    }
+
+    private <T> List<Future<T>> concurrently(int n, java.util.concurrent.Callable<T> task) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+
+    @Test
+    void concurrentGetChipSharesOneRequest() throws Exception {
+        DatalatheClient client = client(true);
+        enqueueSlowJson(200, CHIP);
+
+        List<Future<SearchChipsResponse>> results = concurrently(20, () -> client.getChip("c1"));
+        for (Future<SearchChipsResponse> f : results) {
+            assertEquals("c1", f.get(5, TimeUnit.SECONDS).getChips().get(0).getChipId());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void concurrentReportsShareOneRequestButEscalateErrorsPerCaller() throws Exception {
+        DatalatheClient client = client(true);
+        enqueueSlowJson(200, "{\"result\":{\"0\":{\"error\":\"boom\"}}}");
+
+        CompletableFuture<GenerateReportResult> lenient = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, false);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, pool);
+        Thread.sleep(50);
+        Future<Object> strict = pool.submit(() ->
+                client.generateReport(List.of("a"), List.of("SELECT 1"), null, null, true));
+
+        assertEquals("boom", lenient.get(5, TimeUnit.SECONDS).getResults().get(0).getError());
+        Exception e = assertThrows(Exception.class, () -> strict.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof DatalatheQueryException);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void failuresAreSharedWithWaitingCallers() throws Exception {
+        DatalatheClient client = client(true);
+        enqueueSlowJson(404, "{\"error\":\"Chip not found\",\"error_code\":\"chip_not_found\",\"chip_id\":\"gone\"}");
+
+        List<Future<SearchChipsResponse>> results = concurrently(10, () -> client.getChip("gone"));
+        for (Future<SearchChipsResponse> f : results) {
+            Exception e = assertThrows(Exception.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof ChipNotFoundException);
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void completedCallsAreNotReused() throws Exception {
+        DatalatheClient client = client(true);
+        enqueueSlowJson(200, "{\"tables\":[\"t\"]}");
+        enqueueSlowJson(200, "{\"tables\":[\"t\"]}");
+
+        assertEquals(List.of("t"), client.extractTables("SELECT * FROM t"));
+        assertEquals(List.of("t"), client.extractTables("SELECT * FROM t"));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void asyncCallersShareAndCancellingOneKeepsOthers() throws Exception {
+        DatalatheClient client = client(true);
+        enqueueSlowJson(200, REPORT);
+
+        CompletableFuture<GenerateReportResult> first =
+                client.async().generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        CompletableFuture<GenerateReportResult> second =
+                client.async().generateReport(List.of("a"), List.of("SELECT 1"), null, null, true);
+        first.cancel(true);
+
+        assertEquals("7", second.get(5, TimeUnit.SECONDS).getResults().get(0).getResult().get(0).get(0));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void supplierThatThrowsDoesNotWedgeTheKey() throws Exception {
+        SingleFlight flight = new SingleFlight();
+
+        CompletableFuture<String> failed = flight.executeAsync("k", () -> {
+            throw new IllegalStateException("boom");
+        });
+        Exception e = assertThrows(Exception.class, () -> failed.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(0, flight.inflightCount());
+
+        assertEquals("ok", flight.executeAsync("k", () -> CompletableFuture.completedFuture("ok"))
+                .get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void disabledByDefault() throws Exception {
+        DatalatheClient client = client(false);
+        enqueueSlowJson(200, CHIP);
+        enqueueSlowJson(200, CHIP);
+
+        List<Future<SearchChipsResponse>> results = concurrently(2, () -> client.getChip("c1"));
+        for (Future<SearchChipsResponse> f : results) {
+            f.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+}
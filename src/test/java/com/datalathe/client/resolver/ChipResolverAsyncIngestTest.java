@@ -0,0 +1,178 @@
+package com.datalathe.client.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datalathe.client.DatalatheClient;
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.SourceType;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChipResolverAsyncIngestTest {
+
+    private static final Pattern TABLE = Pattern.compile("\"table_name\":\"(\\w+)\"");
+    private static final Pattern JOB = Pattern.compile("/lathe/jobs/(\\w+)");
+
+    private static final ChipFactory FACTORY = new ChipFactory() {
+        @Override
+        public boolean isPartitioned(String table) {
+            return false;
+        }
+
+        @Override
+        public ChipSource buildSource(String table, String partitionValue) {
+            return ChipSource.builder()
+                    .sourceType(SourceType.MYSQL)
+                    .databaseName("db")
+                    .tableName(table)
+                    .query("SELECT * FROM " + table)
+                    .build();
+        }
+    };
+
+    private MockWebServer server;
+    private DatalatheClient client;
+    private ExecutorService executor;
+
+    // Scripted job states per table, consumed one per status poll; the last
+    // state repeats. "resume" requests answer 422 for tables named "dead*".
+    private final Map<String, List<String>> script = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+    private final AtomicInteger resumes = new AtomicInteger();
+    private final AtomicInteger blockingCreates = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (path.startsWith("/lathe/stage/data")) {
+                    String body = request.getBody().readUtf8();
+                    Matcher m = TABLE.matcher(body);
+                    m.find();
+                    if (!body.contains("\"async\":true")) {
+                        blockingCreates.incrementAndGet();
+                    }
+                    String table = m.group(1);
+                    return json(202, "{\"job_id\":\"" + table + "\",\"chip_id\":\"chip_" + table + "\"}");
+                }
+                if (path.startsWith("/lathe/jobs?")) {
+                    // Nothing listed, so the watcher fetches each job by ID
+                    return json(200, "[]");
+                }
+                Matcher job = JOB.matcher(path);
+                if (job.find()) {
+                    String table = job.group(1);
+                    if (path.endsWith("/resume")) {
+                        resumes.incrementAndGet();
+                        if (table.startsWith("dead")) {
+                            return json(422, "{\"error\":\"not resumable\"}");
+                        }
+                        return json(200, "{\"job_id\":\"" + table + "\",\"chip_id\":\"chip_" + table + "\"}");
+                    }
+                    List<String> states = script.getOrDefault(table, List.of("succeeded"));
+                    int n = polls.computeIfAbsent(table, k -> new AtomicInteger()).getAndIncrement();
+                    String state = states.get(Math.min(n, states.size() - 1));
+                    return json(200, "{\"job_id\":\"" + table + "\",\"chip_id\":\"chip_" + table + "\","
+                            + "\"status\":\"" + state + "\",\"error\":\"interrupted\"}");
+                }
+                return json(200, "{\"chips\":[],\"metadata\":[]}");
+            }
+        });
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+        executor = Executors.newFixedThreadPool(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    private static MockResponse json(int code, String body) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    private ChipResolver resolver() {
+        return new ChipResolver(client, executor, ChipResolverConfig.builder()
+                .timeoutMinutes(1)
+                .asyncIngest(true)
+                .ingestPollIntervalMillis(20)
+                .build());
+    }
+
+    @Test
+    void oneThreadDrivesManyConcurrentIngestJobs() throws Exception {
+        Set<String> tables = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            tables.add("t" + i);
+            script.put("t" + i, List.of("queued", "running", "running", "succeeded"));
+        }
+
+        ResolvedChips resolved = resolver().resolveForTables(tables, List.of(), "tenant", "42", FACTORY);
+
+        assertEquals(30, resolved.size());
+        assertTrue(resolved.allChipIds().contains("chip_t7"));
+        assertEquals(0, blockingCreates.get());
+    }
+
+    @Test
+    void failedJobIsResumedInsteadOfRestarted() throws Exception {
+        script.put("users", List.of("running", "failed", "running", "succeeded"));
+
+        ResolvedChips resolved = resolver().resolveForTables(Set.of("users"), List.of(), "tenant", "42", FACTORY);
+
+        assertEquals(List.of("chip_users"), resolved.allChipIds());
+        assertEquals(1, resumes.get());
+    }
+
+    @Test
+    void unresumableFailureLeavesChipMissing() throws Exception {
+        script.put("dead", List.of("failed"));
+        ChipResolver resolver = resolver();
+
+        ResolvedChips resolved = resolver.resolveForTables(Set.of("dead"), List.of(), "tenant", "42", FACTORY);
+
+        assertEquals(0, resolved.size());
+        assertEquals(1, resumes.get());
+        assertEquals(0, resolver.inflightCount());
+    }
+
+    @Test
+    void resumesAreCapped() throws Exception {
+        script.put("flaky", List.of("failed"));
+
+        ResolvedChips resolved = new ChipResolver(client, executor, ChipResolverConfig.builder()
+                .timeoutMinutes(1)
+                .asyncIngest(true)
+                .ingestPollIntervalMillis(20)
+                .maxIngestResumes(2)
+                .build())
+                .resolveForTables(Set.of("flaky"), List.of(), "tenant", "42", FACTORY);
+
+        assertEquals(0, resolved.size());
+        assertEquals(2, resumes.get());
+    }
+}
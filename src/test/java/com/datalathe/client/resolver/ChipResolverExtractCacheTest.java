@@ -0,0 +1,190 @@
+package com.datalathe.client.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datalathe.client.DatalatheClient;
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.SourceType;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChipResolverExtractCacheTest {
+
+    private static final Pattern TABLE = Pattern.compile("FROM (\\w+)");
+
+    private static final ChipFactory FACTORY = new ChipFactory() {
+        @Override
+        public boolean isPartitioned(String table) {
+            return false;
+        }
+
+        @Override
+        public ChipSource buildSource(String table, String partitionValue) {
+            return ChipSource.builder()
+                    .sourceType(SourceType.MYSQL)
+                    .databaseName("db")
+                    .tableName(table)
+                    .query("SELECT * FROM " + table)
+                    .build();
+        }
+    };
+
+    private MockWebServer server;
+    private DatalatheClient client;
+    private ExecutorService executor;
+    private final AtomicInteger extracts = new AtomicInteger();
+    private final AtomicInteger concurrentExtracts = new AtomicInteger();
+    private final AtomicInteger maxConcurrentExtracts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        // Extraction answers with the table after "FROM" (or an error for
+        // "FROM broken"); every table's chip already exists.
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (request.getPath().startsWith("/lathe/query/tables")) {
+                    extracts.incrementAndGet();
+                    int now = concurrentExtracts.incrementAndGet();
+                    maxConcurrentExtracts.accumulateAndGet(now, Math::max);
+                    try {
+                        Thread.sleep(100);
+                    } finally {
+                        concurrentExtracts.decrementAndGet();
+                    }
+                    Matcher m = TABLE.matcher(request.getBody().readUtf8());
+                    m.find();
+                    if (m.group(1).equals("broken")) {
+                        return json("{\"error\":\"parse error\"}");
+                    }
+                    return json("{\"tables\":[\"" + m.group(1) + "\"]}");
+                }
+                return json("{\"chips\":[{\"chip_id\":\"c\",\"sub_chip_id\":\"c\",\"table_name\":\"t1\"},"
+                        + "{\"chip_id\":\"d\",\"sub_chip_id\":\"d\",\"table_name\":\"t2\"},"
+                        + "{\"chip_id\":\"e\",\"sub_chip_id\":\"e\",\"table_name\":\"t3\"}]}");
+            }
+        });
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    private static final List<String> QUERIES = List.of(
+            "SELECT * FROM t1", "SELECT * FROM t2", "SELECT * FROM t3", "SELECT * FROM t1");
+
+    @Test
+    void repeatedResolveSkipsExtraction() throws Exception {
+        ChipResolver resolver = new ChipResolver(client, executor, ChipResolverConfig.DEFAULT);
+
+        ResolvedChips first = resolver.resolve(QUERIES, List.of(), "tenant", "42", FACTORY);
+        ResolvedChips second = resolver.resolve(QUERIES, List.of(), "tenant", "42", FACTORY);
+
+        assertEquals(3, first.size());
+        assertEquals(3, second.size());
+        assertEquals(3, extracts.get(), "duplicate and repeated queries are parsed once");
+        assertEquals(3, resolver.extractCacheCount());
+    }
+
+    @Test
+    void missesAreExtractedInParallel() throws Exception {
+        ChipResolver resolver = new ChipResolver(client, executor, ChipResolverConfig.DEFAULT);
+
+        resolver.resolve(QUERIES, List.of(), "tenant", "42", FACTORY);
+
+        assertTrue(maxConcurrentExtracts.get() > 1, "extractions should overlap");
+    }
+
+    @Test
+    void transformIsPartOfTheKey() throws Exception {
+        ChipResolver resolver = new ChipResolver(client, executor, ChipResolverConfig.DEFAULT);
+
+        resolver.resolve(List.of("SELECT * FROM t1"), List.of(), "tenant", "42", FACTORY, false);
+        resolver.resolve(List.of("SELECT * FROM t1"), List.of(), "tenant", "42", FACTORY, true);
+
+        assertEquals(2, extracts.get());
+    }
+
+    @Test
+    void cacheIsBoundedAndCanBeDisabled() throws Exception {
+        ChipResolver bounded = new ChipResolver(client, executor,
+                ChipResolverConfig.builder().extractCacheSize(2).build());
+        bounded.resolve(QUERIES, List.of(), "tenant", "42", FACTORY);
+        assertEquals(2, bounded.extractCacheCount());
+
+        ChipResolver disabled = new ChipResolver(client, executor,
+                ChipResolverConfig.builder().extractCacheSize(0).build());
+        extracts.set(0);
+        disabled.resolve(QUERIES, List.of(), "tenant", "42", FACTORY);
+        disabled.resolve(QUERIES, List.of(), "tenant", "42", FACTORY);
+        assertEquals(6, extracts.get());
+        assertEquals(0, disabled.extractCacheCount());
+    }
+
+    @Test
+    void extractionFailureSurfacesAsIOExceptionAndIsNotCached() throws Exception {
+        ChipResolver resolver = new ChipResolver(client, executor, ChipResolverConfig.DEFAULT);
+        List<String> queries = List.of("SELECT * FROM broken");
+
+        IOException e = assertThrows(IOException.class,
+                () -> resolver.resolve(queries, List.of(), "tenant", "42", FACTORY));
+        assertTrue(e.getMessage().contains("parse error"));
+        assertThrows(IOException.class,
+                () -> resolver.resolve(queries, List.of(), "tenant", "42", FACTORY));
+        assertEquals(2, extracts.get());
+        assertEquals(0, resolver.extractCacheCount());
+    }
+
+    @Test
+    void missesDoNotQueueBehindABusyExecutor() throws Exception {
+        ExecutorService busy = Executors.newSingleThreadExecutor();
+        CountDownLatch creating = new CountDownLatch(1);
+        // Stands in for a long chip creation holding the only executor thread
+        busy.execute(() -> {
+            try {
+                creating.await();
+            } catch (InterruptedException ignored) {
+                // test over
+            }
+        });
+        try {
+            ChipResolver resolver = new ChipResolver(client, busy, ChipResolverConfig.DEFAULT);
+            ResolvedChips resolved = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> resolver.resolve(QUERIES, List.of(), "tenant", "42", FACTORY));
+            assertEquals(3, resolved.size());
+        } finally {
+            creating.countDown();
+            busy.shutdownNow();
+        }
+    }
+}
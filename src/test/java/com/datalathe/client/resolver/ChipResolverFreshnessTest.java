@@ -15,6 +15,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -238,4 +240,58 @@ class ChipResolverFreshnessTest {
                         "tenant", "42", factory(false, Map.of("tenant", "43"))));
         assertEquals(0, server.getRequestCount());
     }
+
+    @Test
+    void staleChipsAreEvictedConcurrentlyAndReplacedAsEachGoes() throws Exception {
+        List<String> months = List.of("2026-01", "2026-02", "2026-03", "2026-04", "2026-05", "2026-06");
+        StringBuilder chips = new StringBuilder();
+        StringBuilder tags = new StringBuilder();
+        for (int i = 0; i < months.size(); i++) {
+            String id = "old" + i;
+            chips.append(i > 0 ? "," : "").append(chip(id, "loans", months.get(i)));
+            tags.append(i > 0 ? "," : "").append(tag(id, "tenant", "42"))
+                    .append(",").append(tag(id, "schema_version", "v1"));
+        }
+        String search = "{\"chips\":[" + chips + "],\"metadata\":[],\"tags\":[" + tags + "]}";
+
+        AtomicInteger deleting = new AtomicInteger();
+        AtomicInteger maxDeleting = new AtomicInteger();
+        AtomicInteger deleted = new AtomicInteger();
+        AtomicInteger deletedBeforeFirstCreate = new AtomicInteger(-1);
+        AtomicInteger created = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                MockResponse response = new MockResponse().setHeader("Content-Type", "application/json");
+                if ("DELETE".equals(request.getMethod())) {
+                    maxDeleting.accumulateAndGet(deleting.incrementAndGet(), Math::max);
+                    Thread.sleep(150);
+                    deleting.decrementAndGet();
+                    deleted.incrementAndGet();
+                    return response.setBody("{}");
+                }
+                if ("POST".equals(request.getMethod())) {
+                    deletedBeforeFirstCreate.compareAndSet(-1, deleted.get());
+                    return response.setBody("{\"chip_id\":\"new" + created.incrementAndGet() + "\"}");
+                }
+                return response.setBody(search);
+            }
+        });
+        ExecutorService wide = Executors.newFixedThreadPool(8);
+        try {
+            ChipResolver parallel = new ChipResolver(client, wide,
+                    ChipResolverConfig.builder().timeoutMinutes(1).evictionConcurrency(3).build());
+
+            ResolvedChips resolved = parallel.resolveForTables(Set.of("loans"), months,
+                    "tenant", "42", factory(true, Map.of("schema_version", "v2")));
+
+            assertEquals(6, resolved.size());
+            assertTrue(resolved.allChipIds().stream().allMatch(id -> id.startsWith("new")));
+            assertEquals(3, maxDeleting.get());
+            assertTrue(deletedBeforeFirstCreate.get() < months.size(),
+                    "replacements should start before every eviction has finished");
+        } finally {
+            wide.shutdownNow();
+        }
+    }
 }
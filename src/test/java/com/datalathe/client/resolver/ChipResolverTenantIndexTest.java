@@ -0,0 +1,161 @@
+package com.datalathe.client.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.datalathe.client.DatalatheClient;
+import com.datalathe.client.SearchChipsResponse;
+import com.datalathe.client.types.ChipSource;
+import com.datalathe.client.types.SourceType;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChipResolverTenantIndexTest {
+
+    private static final long TTL = 60_000;
+
+    private MockWebServer server;
+    private DatalatheClient client;
+    private ExecutorService executor;
+    private ChipResolver resolver;
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new DatalatheClient(server.url("/").toString().replaceAll("/$", ""));
+        executor = Executors.newFixedThreadPool(2);
+        resolver = new ChipResolver(client, executor, ChipResolverConfig.builder()
+                .timeoutMinutes(1)
+                .tenantIndexTtlMillis(TTL)
+                .build());
+        resolver.clock = now::get;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    private static ChipFactory factory(Map<String, String> freshness) {
+        return new ChipFactory() {
+            @Override
+            public boolean isPartitioned(String table) {
+                return false;
+            }
+
+            @Override
+            public ChipSource buildSource(String table, String partitionValue) {
+                return ChipSource.builder()
+                        .sourceType(SourceType.MYSQL)
+                        .databaseName("db")
+                        .tableName(table)
+                        .query("SELECT * FROM " + table)
+                        .build();
+            }
+
+            @Override
+            public Map<String, String> freshnessTags(String table) {
+                return freshness;
+            }
+        };
+    }
+
+    private void enqueueJson(String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+    }
+
+    private void enqueueSearch(String chipsJson, String tagsJson) {
+        enqueueJson("{\"chips\":[" + chipsJson + "],\"metadata\":[],\"tags\":[" + tagsJson + "]}");
+    }
+
+    private static String chip(String id, String table) {
+        return "{\"chip_id\":\"" + id + "\",\"sub_chip_id\":\"" + id + "\",\"table_name\":\"" + table + "\"}";
+    }
+
+    private static String tag(String chipId, String key, String value) {
+        return "{\"chip_id\":\"" + chipId + "\",\"key\":\"" + key + "\",\"value\":\"" + value + "\"}";
+    }
+
+    private ResolvedChips resolve(Map<String, String> freshness) throws Exception {
+        return resolver.resolveForTables(Set.of("users"), List.of(), "tenant", "42", factory(freshness));
+    }
+
+    @Test
+    void hotTenantResolvesFromMemoryUntilTtl() throws Exception {
+        enqueueSearch(chip("c1", "users"), tag("c1", "tenant", "42"));
+        enqueueSearch(chip("c1", "users"), tag("c1", "tenant", "42"));
+
+        assertEquals(List.of("c1"), resolve(null).allChipIds());
+        now.addAndGet(TTL - 1);
+        assertEquals(List.of("c1"), resolve(null).allChipIds());
+        assertEquals(1, server.getRequestCount());
+
+        now.addAndGet(1);
+        assertEquals(List.of("c1"), resolve(null).allChipIds());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void createdChipIsPatchedIntoTheIndex() throws Exception {
+        enqueueSearch("", "");
+        enqueueJson("{\"chip_id\":\"c1\"}");
+
+        assertEquals(List.of("c1"), resolve(null).allChipIds());
+        assertEquals(List.of("c1"), resolve(null).allChipIds());
+        assertEquals(2, server.getRequestCount(), "second resolve needs neither search nor create");
+    }
+
+    @Test
+    void evictedChipIsRemovedAndReplacementIsIndexedWithItsTags() throws Exception {
+        enqueueSearch(chip("c1", "users"),
+                tag("c1", "tenant", "42") + "," + tag("c1", "schema_version", "v1"));
+        enqueueJson("{}");
+        enqueueJson("{\"chip_id\":\"c2\"}");
+
+        Map<String, String> freshness = Map.of("schema_version", "v2");
+        assertEquals(List.of("c2"), resolve(freshness).allChipIds());
+        assertEquals(List.of("c2"), resolve(freshness).allChipIds());
+        assertEquals(3, server.getRequestCount(), "replacement must not look stale from the index");
+    }
+
+    @Test
+    void invalidateTenantForcesSearch() throws Exception {
+        enqueueSearch(chip("c1", "users"), tag("c1", "tenant", "42"));
+        enqueueSearch(chip("c9", "users"), tag("c9", "tenant", "42"));
+
+        assertEquals(List.of("c1"), resolve(null).allChipIds());
+        resolver.invalidateTenant("tenant", "42");
+        assertEquals(List.of("c9"), resolve(null).allChipIds());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void reloadStartedBeforeALocalChangeIsNotInstalled() {
+        TenantChipIndex index = new TenantChipIndex(TTL, now::get);
+        SearchChipsResponse response = new SearchChipsResponse();
+        response.setChips(List.of());
+        response.setTags(List.of());
+
+        long version = index.version("t");
+        index.chipDeleted("t", "c1");
+        index.put("t", response, version);
+
+        assertNull(index.get("t"));
+        assertEquals(0, index.size());
+    }
+}
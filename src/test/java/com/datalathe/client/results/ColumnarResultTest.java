@@ -0,0 +1,41 @@
+package com.datalathe.client.results;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarResultTest {
+
+    @Test
+    void canonicalFloatCellsKeepNoText() {
+        ColumnarResult.Column float64 = new ColumnarResult.Column("Float64");
+        float64.append("95.5");
+        float64.append("-0.25");
+        float64.append("1.0E-10");
+        float64.append((String) null);
+        ColumnarResult.Column float32 = new ColumnarResult.Column("Float32");
+        float32.append("0.1");
+        float32.append("3.4028235E38");
+
+        assertNull(float64.texts);
+        assertNull(float32.texts);
+        assertEquals("-0.25", float64.text(1));
+        assertEquals(0.1, float32.doubles[0]);
+        assertEquals("0.1", float32.text(0));
+    }
+
+    @Test
+    void nonCanonicalFloatCellsKeepTheirText() {
+        ColumnarResult.Column column = new ColumnarResult.Column("Float64");
+        column.append("1.5");
+        column.append("88");
+        column.append("1e3");
+
+        assertNull(column.texts[0]);
+        assertEquals("1.5", column.text(0));
+        assertEquals("88", column.text(1));
+        assertEquals(88.0, column.doubles[1]);
+        assertEquals("1e3", column.text(2));
+        assertEquals(1000.0, column.doubles[2]);
+    }
+}